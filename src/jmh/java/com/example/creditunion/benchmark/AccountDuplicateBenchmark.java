@@ -0,0 +1,97 @@
+package com.example.creditunion.benchmark;
+
+import com.example.creditunion.account.duplicates.DuplicateCandidate;
+import com.example.creditunion.account.duplicates.DuplicateDetector;
+import com.example.creditunion.account.model.Account;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duplicate detection over generated members, one in twenty of them entered again with a typo, on
+ * fork/join pools of increasing parallelism. The {@code accounts} counter is the throughput in
+ * accounts scored per second. A {@code parallelism} above the machine's core count only adds
+ * threads sharing the same cores, so compare settings only up to the cores available.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class AccountDuplicateBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int datasetSize;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private List<DuplicateCandidate> candidates;
+    private DuplicateDetector detector;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        candidates = new ArrayList<>(datasetSize);
+        Account previous = null;
+        for (int i = 0; i < datasetSize; i++) {
+            Account account = BenchmarkData.account(random);
+            if (i % 20 == 19) {
+                // The previous member entered again with the last letter of the last name dropped
+                String lastName = previous.getLastName();
+                account = previous;
+                account.setLastName(lastName.substring(0, lastName.length() - 1));
+            }
+            candidates.add(new DuplicateCandidate(i + 1, account.getFirstName(), account.getLastName(), account.getAddress()));
+            previous = account;
+        }
+        detector = new DuplicateDetector(0.85, 500, 50);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public DuplicateDetector.Result detect(Counters counters) {
+        DuplicateDetector.Result result = detector.detect(candidates, pool);
+        counters.accounts += result.getAccounts();
+        counters.comparisons += result.getComparisons();
+        return result;
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+
+        public long accounts;
+        public long comparisons;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            accounts = 0;
+            comparisons = 0;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.creditunion.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end request load against a running server, with request handling on Tomcat's platform
+ * thread pool or, with the {@code virtual-threads} profile, on virtual threads behind the database
+ * bulkhead. The default 400 client threads outnumber Tomcat's 200 platform threads; vary them with
+ * {@code -t}. SampleTime gives the tail latencies. The virtual mode needs Java 21.
+ *
+ * With {@code api=v2} the same reads go to the reactive API instead, on the same Tomcat; build it with
+ * {@code -Pbenchmark,reactive}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(400)
+@State(Scope.Benchmark)
+public class AccountHttpLoadBenchmark {
+
+    // A request still unanswered after this is given up on, so one stalled exchange cannot hold up an iteration
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String[] SEARCH_TERMS = {"son", "mar", "Smith", "lia", "ert", "Garcia", "ill", "Tho"};
+
+    @Param({"v1", "v2"})
+    public String api;
+
+    @Param({"platform", "virtual"})
+    public String requestThreads;
+
+    @Param({"10000"})
+    public int datasetSize;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private long[] ids;
+    // Requests the bulkhead turned away with 503; they are not counted as failures, but are reported
+    private final LongAdder unavailable = new LongAdder();
+    // Without the bulkhead an overloaded server answers 500 once Hikari's 30s connection wait runs out; counted
+    // rather than thrown, so the platform baseline still completes where it falls behind
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if (requestThreads.equals("virtual") && Runtime.version().feature() < 21) {
+            // Spring would silently fall back to platform threads
+            throw new IllegalStateException("Virtual threads need Java 21; run this benchmark on a Java 21 JVM");
+        }
+        List<String> profiles = new ArrayList<>();
+        if (requestThreads.equals("virtual")) {
+            profiles.add("virtual-threads");
+        }
+        if (api.equals("v2")) {
+            profiles.add("reactive");
+        }
+        context = BenchmarkData.startServer(profiles.toArray(String[]::new));
+        if (api.equals("v2") && !context.containsBean("reactiveAccountServlet")) {
+            context.close();
+            throw new IllegalStateException("The reactive API is not in this build; build the benchmark with -Pbenchmark,reactive");
+        }
+        ids = BenchmarkData.seed(context, datasetSize);
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort()
+                + (api.equals("v2") ? "/api/v2/accounts" : "/api/v1/accounts");
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("Requests answered 503 (bulkhead full): " + unavailable.sum());
+        System.out.println("Requests answered 500: " + serverErrors.sum());
+        System.out.println("Requests timed out after " + REQUEST_TIMEOUT.toSeconds() + "s: " + timedOut.sum());
+        context.close();
+    }
+
+    @Benchmark
+    public int getAccountById(ThreadState state) throws IOException, InterruptedException {
+        return get("/" + ids[state.random.nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public int searchAccountsByName(ThreadState state) throws IOException, InterruptedException {
+        return get("/search?name=" + SEARCH_TERMS[state.random.nextInt(SEARCH_TERMS.length)]);
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).build();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (HttpTimeoutException e) {
+            timedOut.increment();
+            return 0;
+        }
+        if (response.statusCode() == 503) {
+            unavailable.increment();
+        } else if (response.statusCode() == 500) {
+            serverErrors.increment();
+        } else if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " answered " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.creditunion.benchmark;
+
+import com.example.creditunion.account.model.Account;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Jackson serialization of account lists as the MVC message converters do it, in each response
+ * format the API offers, with and without gzip. The encoded size per account is printed at setup.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int listSize;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private List<Account> accounts;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setup() throws IOException {
+        accounts = BenchmarkData.accounts(new SplittableRandom(42), listSize);
+        for (int i = 0; i < accounts.size(); i++) {
+            accounts.get(i).setId((long) i + 1);
+        }
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory(format)).build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Account.class));
+
+        int bytes = serializeToBytes().length;
+        System.out.printf("%s%s, %d accounts: %d bytes, %.1f bytes/account%n",
+                format, gzip ? "+gzip" : "", listSize, bytes, (double) bytes / listSize);
+    }
+
+    @Benchmark
+    public byte[] serializeToBytes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(bytes);
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public void serializeToStream() throws IOException {
+        write(OutputStream.nullOutputStream());
+    }
+
+    private void write(OutputStream out) throws IOException {
+        if (gzip) {
+            try (GZIPOutputStream compressed = new GZIPOutputStream(out)) {
+                writer.writeValue(compressed, accounts);
+            }
+        } else {
+            writer.writeValue(out, accounts);
+        }
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "cbor":
+                return new CBORFactory();
+            case "smile":
+                return new SmileFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+}
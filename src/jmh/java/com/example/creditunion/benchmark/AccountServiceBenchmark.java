@@ -0,0 +1,109 @@
+package com.example.creditunion.benchmark;
+
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.model.AccountPage;
+import com.example.creditunion.account.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-level hot paths against an in-memory H2 database seeded with {@code datasetSize}
+ * accounts. Throughput and SampleTime modes give ops/ms plus latency percentiles; run with
+ * {@code -prof gc} (the profile default) for allocation rates.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountServiceBenchmark {
+
+    private static final String[] SEARCH_TERMS = {"son", "mar", "Smith", "lia", "ert", "Garcia", "ill", "Tho"};
+    private static final String[] PREFIX_TERMS = {"Sm", "jo", "Wil", "mar", "Ga", "tho", "Hern", "L"};
+    // Misspellings and sound-alikes of the seeded names, plus one that matches nothing
+    private static final String[] FUZZY_TERMS = {"Smyth", "Jonson", "Gracia", "Rodrigez", "Katherine", "Tailor", "Mohr", "Xyzzy"};
+
+    @Param({"10000", "100000"})
+    public int datasetSize;
+
+    @Param({"caffeine", "none"})
+    public String cacheType;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private long[] ids;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkData.startContext(cacheType);
+        accountService = context.getBean(AccountService.class);
+        ids = BenchmarkData.seed(context, datasetSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Account> getAccountById(ThreadState state) {
+        return accountService.getAccountById(ids[state.random.nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public List<Account> searchAccountsByName(ThreadState state) {
+        return accountService.searchAccountsByName(SEARCH_TERMS[state.random.nextInt(SEARCH_TERMS.length)]);
+    }
+
+    // Type-ahead: the first page of matches for a short last-name prefix, read from its index
+    @Benchmark
+    public List<Account> searchAccountsByLastNamePrefix(ThreadState state) {
+        return accountService.searchAccountsByLastNamePrefix(
+                PREFIX_TERMS[state.random.nextInt(PREFIX_TERMS.length)], 20);
+    }
+
+    // Teller look-up of a misspelt name: ranked in the fuzzy index, then the first page read by id
+    @Benchmark
+    public List<Account> searchAccountsByNameFuzzy(ThreadState state) {
+        return accountService.searchAccountsByNameFuzzy(FUZZY_TERMS[state.random.nextInt(FUZZY_TERMS.length)], 20);
+    }
+
+    @Benchmark
+    public List<Account> getAllAccounts() {
+        return accountService.getAllAccounts();
+    }
+
+    @Benchmark
+    public AccountPage<Account> getAccountsPage(ThreadState state) {
+        // Random depth: keyset pages should cost the same wherever they start
+        return accountService.getAccountsPage(ids[state.random.nextInt(ids.length)], 100);
+    }
+
+    @Benchmark
+    public Account createAccount(ThreadState state) {
+        return accountService.createAccount(BenchmarkData.account(state.random));
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.creditunion.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Time from launching the application to its first successful {@code GET /api/v1/accounts/{id}},
+ * in a fresh JVM each time. {@code mode} picks the startup options: {@code default} runs the plain
+ * jar; {@code lazy} adds the fast-start profile's lazy initialization; {@code aot} the AOT-generated
+ * bean definitions; {@code cds} the class-data sharing archive; {@code fast-start} all three.
+ *
+ * Every mode runs the jar extracted by {@code mvn -Pfast-start package} to {@code target/fast-start},
+ * and from that directory, so they differ only in their options. The account is read from an H2 file
+ * seeded at setup.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountStartupBenchmark {
+
+    private static final Path APPLICATION = Path.of("target", "fast-start").toAbsolutePath();
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    @Param({"default", "lazy", "aot", "cds", "fast-start"})
+    public String mode;
+
+    private Path directory;
+    private Path jar;
+    private HttpClient httpClient;
+    private long id;
+    private Process process;
+
+    @Setup
+    public void setup() throws Exception {
+        jar = findJar();
+        directory = Files.createTempDirectory("creditunion-startup");
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        // Seed the database with the account every run then reads
+        int port = freePort();
+        Process seeding = start("default", port);
+        try {
+            awaitUp(port, "/actuator/health");
+            HttpResponse<String> created = httpClient.send(HttpRequest.newBuilder(url(port, "/api/v1/accounts"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"firstName\":\"Ada\",\"lastName\":\"Lovelace\",\"address\":\"12 Main St\"}"))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = ID.matcher(created.body());
+            if (created.statusCode() != 201 || !matcher.find()) {
+                throw new IllegalStateException("Could not seed an account: " + created.statusCode() + " " + created.body());
+            }
+            id = Long.parseLong(matcher.group(1));
+        } finally {
+            stop(seeding);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopApplication() throws InterruptedException {
+        stop(process);
+    }
+
+    @Benchmark
+    public int startAndGetAccount() throws Exception {
+        int port = freePort();
+        process = start(mode, port);
+        return awaitUp(port, "/api/v1/accounts/" + id);
+    }
+
+    private Process start(String mode, int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.equals("cds") || mode.equals("fast-start")) {
+            command.add("-XX:SharedArchiveFile=application.jsa");
+        }
+        if (mode.equals("aot") || mode.equals("fast-start")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add(jar.getFileName().toString());
+        if (mode.equals("lazy") || mode.equals("fast-start")) {
+            command.add("--spring.profiles.active=fast-start");
+        }
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:h2:file:" + directory.resolve("startup"));
+        command.add("--creditunion.audit.directory=" + directory.resolve("audit"));
+        File log = directory.resolve(mode + ".log").toFile();
+        // The archive records the classpath relative to the extracted application, so it is run from there
+        return new ProcessBuilder(command).directory(APPLICATION.toFile())
+                .redirectErrorStream(true).redirectOutput(log).start();
+    }
+
+    // Polls until the path answers 200, and returns the status
+    private int awaitUp(int port, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(url(port, path)).GET().build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return response.statusCode();
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No 200 from " + path + " within " + STARTUP_TIMEOUT + "; see " + directory);
+    }
+
+    private static void stop(Process process) throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static URI url(int port, String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Path findJar() throws IOException {
+        if (!Files.exists(APPLICATION.resolve("application.jsa"))) {
+            throw new IllegalStateException("Build the application with mvn -Pfast-start -DskipTests package first");
+        }
+        try (var files = Files.list(APPLICATION)) {
+            return files.filter(file -> file.toString().endsWith(".jar")).findFirst().orElseThrow();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.creditunion.benchmark;
+
+import com.example.creditunion.CreditunionApplication;
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.model.BatchItemResult;
+import com.example.creditunion.account.service.AccountBatchService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Shared fixtures for the benchmarks: a non-web application context on a private in-memory H2
+ * database, and deterministic member data to seed it with.
+ */
+final class BenchmarkData {
+
+    static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen"
+    };
+
+    static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin"
+    };
+
+    static final String[] STREETS = {"Main St", "Elm St", "Oak Ave", "Pine Rd", "Maple Dr", "Cedar Ln"};
+
+    private static final int SEED_BATCH_SIZE = 10000;
+
+    private BenchmarkData() {
+    }
+
+    static ConfigurableApplicationContext startContext(String cacheType) {
+        return new SpringApplicationBuilder(CreditunionApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "spring.cache.type=" + cacheType,
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    /**
+     * A web application context on a random port, with the given profiles active (none for the defaults).
+     */
+    static ConfigurableApplicationContext startServer(String... profiles) {
+        return startServer(profiles, new String[0]);
+    }
+
+    // Arguments override the profiles' settings, as they would on the command line
+    static ConfigurableApplicationContext startServer(String[] profiles, String... args) {
+        return new SpringApplicationBuilder(CreditunionApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .logStartupInfo(false)
+                .profiles(profiles)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        // Every read reaches the database, which is what the request threads wait on
+                        "spring.cache.type=none",
+                        "logging.level.root=WARN")
+                .run(args);
+    }
+
+    /**
+     * Inserts {@code count} generated accounts and returns their ids.
+     */
+    static long[] seed(ConfigurableApplicationContext context, int count) {
+        AccountBatchService batchService = context.getBean(AccountBatchService.class);
+        SplittableRandom random = new SplittableRandom(42);
+        long[] ids = new long[count];
+        int next = 0;
+        while (next < count) {
+            List<Account> batch = accounts(random, Math.min(SEED_BATCH_SIZE, count - next));
+            for (BatchItemResult result : batchService.saveAll(batch).getResults()) {
+                ids[next++] = result.getId();
+            }
+        }
+        return ids;
+    }
+
+    static List<Account> accounts(SplittableRandom random, int count) {
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accounts.add(account(random));
+        }
+        return accounts;
+    }
+
+    static Account account(SplittableRandom random) {
+        Account account = new Account();
+        account.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+        account.setLastName(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+        account.setAddress((1 + random.nextInt(9999)) + " " + STREETS[random.nextInt(STREETS.length)]);
+        return account;
+    }
+}
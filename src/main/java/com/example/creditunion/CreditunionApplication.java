@@ -2,8 +2,13 @@ package com.example.creditunion;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.cache.annotation.EnableCaching;
 
-@SpringBootApplication
+// The reactive API builds its own R2DBC pool (ReactiveApiConfig); an R2DBC ConnectionFactory bean
+// would make Spring Boot back off from creating the JDBC DataSource
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@EnableCaching
 public class CreditunionApplication {
 
 	public static void main(String[] args) {
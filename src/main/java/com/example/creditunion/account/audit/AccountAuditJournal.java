@@ -0,0 +1,310 @@
+package com.example.creditunion.account.audit;
+
+import com.example.creditunion.account.exception.NotSupportedException;
+import com.example.creditunion.account.model.Account;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The audit trail of account creates, updates and deletes. A write hands its record to a lock-free
+ * ring buffer and returns; a single writer thread drains the buffer into memory-mapped segment
+ * files under {@code creditunion.audit.directory} and forces each drained batch to disk with one
+ * sync, so records made while a sync runs share the next one. On an orderly shutdown the buffer is
+ * drained before the application stops; a crash can lose the batch that was not yet synced.
+ */
+@Component
+public class AccountAuditJournal {
+
+    public static final String BACKLOG = "accounts.audit.backlog";
+    public static final String RECORDS = "accounts.audit.records";
+    public static final String SYNCS = "accounts.audit.syncs";
+    public static final String PRODUCER_WAITS = "accounts.audit.producer.waits";
+    public static final String ERRORS = "accounts.audit.errors";
+
+    private static final Logger log = LoggerFactory.getLogger(AccountAuditJournal.class);
+
+    // Records written between syncs at most, so a long backlog is not held unsynced
+    private static final int SYNC_BATCH = 4096;
+    // Producers wake the writer, so this only bounds a missed wake-up
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final AuditRingBuffer buffer;
+    private final Thread writer;
+    private volatile boolean stopping;
+    private volatile boolean writerParked;
+    // Ring buffer sequence up to which records have been written and synced
+    private volatile long synced;
+    // Where each account's records are, in journal order: appended to by the writer, rebuilt on
+    // startup. Holds an entry per record, so it grows with the journal.
+    private final Map<Long, List<Position>> index = new ConcurrentHashMap<>();
+
+    // Owned by the writer thread
+    private AuditSegment segment;
+    private long segmentSeq;
+    private long nextSeq;
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+
+    private Counter records;
+    private Counter producerWaits;
+    private Counter errors;
+    private Timer syncs;
+
+    public AccountAuditJournal(MeterRegistry meterRegistry,
+                               @Value("${creditunion.audit.enabled:true}") boolean enabled,
+                               @Value("${creditunion.audit.directory:./audit}") Path directory,
+                               @Value("${creditunion.audit.segment-size:64MB}") DataSize segmentSize,
+                               @Value("${creditunion.audit.buffer-size:65536}") int bufferSize) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = (int) segmentSize.toBytes();
+        if (!enabled) {
+            this.buffer = null;
+            this.writer = null;
+            return;
+        }
+        this.buffer = new AuditRingBuffer(bufferSize);
+        this.records = Counter.builder(RECORDS).description("Audit records written to the journal")
+                .register(meterRegistry);
+        this.producerWaits = Counter.builder(PRODUCER_WAITS)
+                .description("Audit records whose write waited for room in the full buffer")
+                .register(meterRegistry);
+        this.errors = Counter.builder(ERRORS).description("Audit records that could not be written")
+                .register(meterRegistry);
+        this.syncs = Timer.builder(SYNCS).description("Syncs of written audit records to disk")
+                .register(meterRegistry);
+        Gauge.builder(BACKLOG, buffer, AuditRingBuffer::size)
+                .description("Audit records waiting for the journal writer")
+                .register(meterRegistry);
+        try {
+            Files.createDirectories(directory);
+            this.nextSeq = recoverNextSeq();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the audit journal in " + directory, e);
+        }
+        this.writer = new Thread(this::run, "account-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds a record of a committed write. {@code before} is null for a create and {@code after} for
+     * a delete. Returns once the record is in the buffer, which only waits while the buffer is full.
+     */
+    public void record(AuditRecord.Action action, Long accountId, long changeSeq, Account before, Account after) {
+        if (!enabled) {
+            return;
+        }
+        AuditRecord record = new AuditRecord(0, Instant.now(), currentCaller(), action, accountId, changeSeq,
+                AuditRecord.Image.of(before), AuditRecord.Image.of(after));
+        if (!buffer.offer(record)) {
+            producerWaits.increment();
+            do {
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            } while (!buffer.offer(record));
+        }
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Blocks until every record made before the call has been written and synced.
+     */
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        long target = buffer.claimed();
+        while (synced < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+    }
+
+    /**
+     * The records of one account in the order of the versions they produced, including those of
+     * every write that completed before the call. Reads only that account's frames.
+     */
+    public List<AuditRecord> findByAccountId(long accountId) {
+        if (!enabled) {
+            throw new NotSupportedException("The audit journal is disabled");
+        }
+        flush();
+        List<Position> positions = index.getOrDefault(accountId, List.of());
+        Map<Long, List<Integer>> offsets = new LinkedHashMap<>();
+        synchronized (positions) {
+            for (Position position : positions) {
+                offsets.computeIfAbsent(position.segment(), segment -> new ArrayList<>()).add(position.offset());
+            }
+        }
+        List<AuditRecord> found = new ArrayList<>();
+        offsets.forEach((segment, at) -> AuditJournalReader.readAt(AuditSegment.fileName(directory, segment), at, found::add));
+        found.sort(Comparator.comparingLong(AuditRecord::resultingVersion));
+        return found;
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException, IOException {
+        if (!enabled) {
+            return;
+        }
+        stopping = true;
+        LockSupport.unpark(writer);
+        writer.join();
+        // Records added while the writer was stopping
+        if (buffer.drain(this::write, Integer.MAX_VALUE) > 0) {
+            sync();
+        }
+        if (segment != null) {
+            segment.close();
+        }
+        log.info("Closed the audit journal at record {}", nextSeq - 1);
+    }
+
+    private void run() {
+        while (true) {
+            int written = buffer.drain(this::write, SYNC_BATCH);
+            if (written > 0) {
+                sync();
+                continue;
+            }
+            if (buffer.size() > 0) {
+                // A producer has claimed a slot and is about to fill it
+                Thread.onSpinWait();
+                continue;
+            }
+            if (stopping) {
+                return;
+            }
+            writerParked = true;
+            if (buffer.size() == 0 && !stopping) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            writerParked = false;
+        }
+    }
+
+    // A record that cannot be written is counted and logged rather than retried, so it cannot wedge the journal
+    private void write(AuditRecord record) {
+        try {
+            ByteBuffer frame = AuditCodec.encode(record, nextSeq, scratch);
+            if (frame.capacity() > scratch.capacity()) {
+                scratch = ByteBuffer.allocate(frame.capacity());
+            }
+            int offset = segment == null ? -1 : segment.append(frame);
+            if (offset < 0) {
+                roll();
+                offset = segment.append(frame);
+                if (offset < 0) {
+                    throw new IllegalStateException("A record of " + frame.remaining() + " bytes is larger than a segment");
+                }
+            }
+            addToIndex(record.getAccountId(), segmentSeq, offset);
+            nextSeq++;
+            records.increment();
+        } catch (IOException | RuntimeException e) {
+            errors.increment();
+            log.error("Could not write the audit record of {} on account {}", record.getAction(), record.getAccountId(), e);
+        }
+    }
+
+    private void roll() throws IOException {
+        if (segment != null) {
+            segment.close();
+            segment = null;
+        }
+        segment = AuditSegment.create(directory, nextSeq, segmentSize);
+        segmentSeq = nextSeq;
+    }
+
+    private void addToIndex(long accountId, long segment, int offset) {
+        List<Position> positions = index.computeIfAbsent(accountId, id -> new ArrayList<>());
+        synchronized (positions) {
+            positions.add(new Position(segment, offset));
+        }
+    }
+
+    private void sync() {
+        try {
+            if (segment != null) {
+                syncs.record(segment::force);
+            }
+        } catch (RuntimeException e) {
+            errors.increment();
+            log.error("Could not sync the audit journal", e);
+        }
+        synced = buffer.consumed();
+    }
+
+    // Rebuilds the index and returns the position after the last intact record. Writing resumes in a
+    // new segment, so a frame torn by a crash stays the end of its segment; a last segment holding no
+    // record is removed first.
+    private long recoverNextSeq() throws IOException {
+        List<Path> segments = AuditJournalReader.segments(directory);
+        if (segments.isEmpty()) {
+            return 1;
+        }
+        long[] next = new long[1];
+        for (Path file : segments) {
+            long first = Long.parseLong(file.getFileName().toString().replace(AuditSegment.SUFFIX, ""));
+            next[0] = first;
+            AuditJournalReader.readSegment(file, (record, offset) -> {
+                addToIndex(record.getAccountId(), first, offset);
+                next[0] = record.getSeq() + 1;
+            });
+        }
+        Path last = segments.get(segments.size() - 1);
+        if (AuditSegment.fileName(directory, next[0]).equals(last)) {
+            Files.delete(last);
+        }
+        log.info("Opened the audit journal in {} at record {}", directory, next[0] - 1);
+        return next[0];
+    }
+
+    // The authenticated user of the current request, or its client's address; "system" outside a request
+    private static String currentCaller() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            return request.getRemoteUser() != null ? request.getRemoteUser() : request.getRemoteAddr();
+        }
+        return "system";
+    }
+
+    // A record's frame: the segment, named after its first record, and the offset in it
+    private record Position(long segment, int offset) {
+    }
+}
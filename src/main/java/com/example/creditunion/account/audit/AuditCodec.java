@@ -0,0 +1,148 @@
+package com.example.creditunion.account.audit;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+/**
+ * The journal's binary frame: {@code [payload length:int][CRC32C of payload:int][payload]}. A zero
+ * length marks the unwritten rest of a segment; a frame whose checksum does not match was torn by
+ * a crash and ends the segment. The payload holds the record's fields in declaration order, strings
+ * as a UTF-8 byte count (-1 for null) and bytes, and each image behind a presence byte.
+ */
+final class AuditCodec {
+
+    static final int HEADER_SIZE = 8;
+
+    private static final AuditRecord.Action[] ACTIONS = AuditRecord.Action.values();
+
+    private AuditCodec() {
+    }
+
+    /**
+     * Encodes {@code record} with journal position {@code seq} as a frame, in {@code scratch} if it
+     * fits, and returns the frame ready to be read.
+     */
+    static ByteBuffer encode(AuditRecord record, long seq, ByteBuffer scratch) {
+        byte[] caller = utf8(record.getCaller());
+        byte[][] before = strings(record.getBefore());
+        byte[][] after = strings(record.getAfter());
+        int payloadSize = 8 + 8 + 4 + 1 + 8 + 8 + size(caller) + size(before) + size(after);
+        ByteBuffer frame = scratch.capacity() >= HEADER_SIZE + payloadSize
+                ? scratch.clear()
+                : ByteBuffer.allocate(HEADER_SIZE + payloadSize);
+        frame.putInt(payloadSize).putInt(0)
+                .putLong(seq)
+                .putLong(record.getTimestamp().getEpochSecond())
+                .putInt(record.getTimestamp().getNano())
+                .put((byte) record.getAction().ordinal())
+                .putLong(record.getAccountId())
+                .putLong(record.getChangeSeq());
+        putString(frame, caller);
+        putImage(frame, record.getBefore(), before);
+        putImage(frame, record.getAfter(), after);
+        CRC32C crc = new CRC32C();
+        crc.update(frame.array(), HEADER_SIZE, payloadSize);
+        frame.putInt(4, (int) crc.getValue());
+        return frame.flip();
+    }
+
+    /**
+     * Decodes the frame at {@code buffer}'s position and moves past it, or returns null, leaving the
+     * position alone, if no complete and intact frame starts there.
+     */
+    static AuditRecord decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_SIZE) {
+            return null;
+        }
+        int payloadSize = buffer.getInt(start);
+        if (payloadSize <= 0 || payloadSize > buffer.remaining() - HEADER_SIZE) {
+            return null;
+        }
+        ByteBuffer payload = buffer.slice(start + HEADER_SIZE, payloadSize);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != buffer.getInt(start + 4)) {
+            return null;
+        }
+        try {
+            long seq = payload.getLong();
+            Instant timestamp = Instant.ofEpochSecond(payload.getLong(), payload.getInt());
+            AuditRecord.Action action = ACTIONS[payload.get()];
+            long accountId = payload.getLong();
+            long changeSeq = payload.getLong();
+            String caller = getString(payload);
+            AuditRecord.Image before = getImage(payload);
+            AuditRecord.Image after = getImage(payload);
+            buffer.position(start + HEADER_SIZE + payloadSize);
+            return new AuditRecord(seq, timestamp, caller, action, accountId, changeSeq, before, after);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static byte[][] strings(AuditRecord.Image image) {
+        return image == null ? null
+                : new byte[][]{utf8(image.getFirstName()), utf8(image.getLastName()), utf8(image.getAddress())};
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int size(byte[] value) {
+        return 4 + (value == null ? 0 : value.length);
+    }
+
+    // Presence byte, version, then the three strings
+    private static int size(byte[][] image) {
+        if (image == null) {
+            return 1;
+        }
+        return 1 + 8 + size(image[0]) + size(image[1]) + size(image[2]);
+    }
+
+    private static void putString(ByteBuffer frame, byte[] value) {
+        if (value == null) {
+            frame.putInt(-1);
+        } else {
+            frame.putInt(value.length).put(value);
+        }
+    }
+
+    private static void putImage(ByteBuffer frame, AuditRecord.Image image, byte[][] strings) {
+        if (image == null) {
+            frame.put((byte) 0);
+            return;
+        }
+        frame.put((byte) 1).putLong(image.getVersion() == null ? -1 : image.getVersion());
+        for (byte[] value : strings) {
+            putString(frame, value);
+        }
+    }
+
+    private static String getString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > payload.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static AuditRecord.Image getImage(ByteBuffer payload) {
+        if (payload.get() == 0) {
+            return null;
+        }
+        long version = payload.getLong();
+        return new AuditRecord.Image(getString(payload), getString(payload), getString(payload),
+                version < 0 ? null : version);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.creditunion.account.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads the journal's segments in order. Each segment is read up to its first missing or damaged
+ * frame, so a segment still being written, or one torn by a crash, yields the records that were
+ * completely written. Safe to use while the journal is writing.
+ */
+public final class AuditJournalReader {
+
+    private AuditJournalReader() {
+    }
+
+    /**
+     * Passes every record in {@code directory} to {@code consumer}, in journal order.
+     */
+    public static void forEach(Path directory, Consumer<AuditRecord> consumer) {
+        for (Path segment : segments(directory)) {
+            readSegment(segment, consumer);
+        }
+    }
+
+    /**
+     * The segment files in {@code directory}, in journal order.
+     */
+    static List<Path> segments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(AuditSegment.SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void readSegment(Path segment, Consumer<AuditRecord> consumer) {
+        readSegment(segment, (record, offset) -> consumer.accept(record));
+    }
+
+    // As above, also passing the offset each record's frame starts at
+    static void readSegment(Path segment, ObjIntConsumer<AuditRecord> consumer) {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int offset = buffer.position();
+            AuditRecord record;
+            while ((record = AuditCodec.decode(buffer)) != null) {
+                consumer.accept(record, offset);
+                offset = buffer.position();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Passes the records whose frames start at {@code offsets} in {@code segment} to {@code consumer},
+     * in the order given, mapping the segment once.
+     */
+    static void readAt(Path segment, List<Integer> offsets, Consumer<AuditRecord> consumer) {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            for (int offset : offsets) {
+                AuditRecord record = AuditCodec.decode(buffer.position(offset));
+                if (record != null) {
+                    consumer.accept(record);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
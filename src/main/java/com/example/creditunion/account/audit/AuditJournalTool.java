@@ -0,0 +1,92 @@
+package com.example.creditunion.account.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads an audit journal directory from the command line, as newline-delimited JSON:
+ * <pre>
+ * dump &lt;directory&gt; [accountId]   every record, or one account's, in journal order
+ * replay &lt;directory&gt; [instant]   every account as the journal leaves it, or as it stood at the
+ *                                ISO-8601 instant; deleted accounts are left out
+ * </pre>
+ * Replay only knows accounts the journal has seen: one last written before the journal existed is
+ * missing from it.
+ */
+public final class AuditJournalTool {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private AuditJournalTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !(args[0].equals("dump") || args[0].equals("replay"))) {
+            System.err.println("Usage: dump <directory> [accountId] | replay <directory> [instant]");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[1]);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        if (args[0].equals("dump")) {
+            dump(directory, args.length > 2 ? Long.valueOf(args[2]) : null, out);
+        } else {
+            replay(directory, args.length > 2 ? Instant.parse(args[2]) : Instant.MAX, out);
+        }
+        out.flush();
+    }
+
+    static void dump(Path directory, Long accountId, Writer out) {
+        AuditJournalReader.forEach(directory, record -> {
+            if (accountId == null || record.getAccountId() == accountId) {
+                writeLine(out, record);
+            }
+        });
+    }
+
+    static void replay(Path directory, Instant until, Writer out) {
+        // Each account's latest record by version, not by position: see AuditRecord#resultingVersion
+        Map<Long, AuditRecord> latest = new TreeMap<>();
+        AuditJournalReader.forEach(directory, record -> {
+            if (!record.getTimestamp().isAfter(until)) {
+                latest.merge(record.getAccountId(), record, (current, next) ->
+                        next.resultingVersion() >= current.resultingVersion() ? next : current);
+            }
+        });
+        latest.forEach((id, record) -> {
+            AuditRecord.Image image = record.getAfter();
+            if (image == null) {
+                return;
+            }
+            Map<String, Object> account = new LinkedHashMap<>();
+            account.put("id", id);
+            account.put("firstName", image.getFirstName());
+            account.put("lastName", image.getLastName());
+            account.put("address", image.getAddress());
+            account.put("version", image.getVersion());
+            writeLine(out, account);
+        });
+    }
+
+    private static void writeLine(Writer out, Object value) {
+        try {
+            out.write(MAPPER.writeValueAsString(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
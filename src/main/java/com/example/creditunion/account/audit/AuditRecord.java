@@ -0,0 +1,127 @@
+package com.example.creditunion.account.audit;
+
+import com.example.creditunion.account.model.Account;
+import java.time.Instant;
+
+/**
+ * One account mutation in the audit journal: who made it, when, and the account as it was before
+ * and after. {@code seq} is the record's position in the journal, assigned when it is written;
+ * {@code changeSeq} is the write's position in the change feed.
+ */
+public class AuditRecord {
+
+    public enum Action {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final long seq;
+    private final Instant timestamp;
+    private final String caller;
+    private final Action action;
+    private final long accountId;
+    private final long changeSeq;
+    private final Image before;
+    private final Image after;
+
+    AuditRecord(long seq, Instant timestamp, String caller, Action action, long accountId, long changeSeq,
+                Image before, Image after) {
+        this.seq = seq;
+        this.timestamp = timestamp;
+        this.caller = caller;
+        this.action = action;
+        this.accountId = accountId;
+        this.changeSeq = changeSeq;
+        this.before = before;
+        this.after = after;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public String getCaller() {
+        return caller;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public long getAccountId() {
+        return accountId;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    /**
+     * The account before the write, or null for a create.
+     */
+    public Image getBefore() {
+        return before;
+    }
+
+    /**
+     * The account after the write, or null for a delete.
+     */
+    public Image getAfter() {
+        return after;
+    }
+
+    // Orders one account's records: concurrent writes can reach the journal in another order than they
+    // committed, but each leaves the account at a higher version. A delete counts as the next version.
+    long resultingVersion() {
+        if (after != null && after.getVersion() != null) {
+            return after.getVersion();
+        }
+        if (before != null && before.getVersion() != null) {
+            return before.getVersion() + 1;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * An account's audited fields, copied when the record is made so later changes to the entity
+     * cannot leak into the journal.
+     */
+    public static class Image {
+
+        private final String firstName;
+        private final String lastName;
+        private final String address;
+        private final Long version;
+
+        Image(String firstName, String lastName, String address, Long version) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.address = address;
+            this.version = version;
+        }
+
+        static Image of(Account account) {
+            return account == null ? null
+                    : new Image(account.getFirstName(), account.getLastName(), account.getAddress(), account.getVersion());
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public String getAddress() {
+            return address;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.creditunion.account.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A bounded, lock-free queue from many producers to the journal's single writer. A producer claims
+ * a slot with a CAS on {@code claimed} and then publishes the record into it; the writer takes
+ * records in claim order, stopping at a slot that is claimed but not yet published.
+ */
+class AuditRingBuffer {
+
+    private final AtomicReferenceArray<AuditRecord> slots;
+    private final int mask;
+    // The next sequence a producer will claim
+    private final AtomicLong claimed = new AtomicLong();
+    // The next sequence the writer will take; written only by the writer
+    private volatile long consumed;
+
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds {@code record}, or returns false while the buffer is full.
+     */
+    boolean offer(AuditRecord record) {
+        long seq;
+        do {
+            seq = claimed.get();
+            if (seq - consumed >= slots.length()) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(seq, seq + 1));
+        slots.setRelease((int) seq & mask, record);
+        return true;
+    }
+
+    /**
+     * Hands up to {@code max} records to {@code sink}, oldest first, and returns how many. Only the
+     * writer thread may call this.
+     */
+    int drain(Consumer<AuditRecord> sink, int max) {
+        long next = consumed;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) next & mask;
+            AuditRecord record = slots.getAcquire(index);
+            if (record == null) {
+                break;
+            }
+            sink.accept(record);
+            // Cleared before the slot is released to producers by the write to consumed
+            slots.setRelease(index, null);
+            consumed = ++next;
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * The number of records claimed so far; every one of them is drained once {@link #consumed()}
+     * reaches it.
+     */
+    long claimed() {
+        return claimed.get();
+    }
+
+    long consumed() {
+        return consumed;
+    }
+
+    int size() {
+        return (int) (claimed.get() - consumed);
+    }
+}
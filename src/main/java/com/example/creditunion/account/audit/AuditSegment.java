@@ -0,0 +1,73 @@
+package com.example.creditunion.account.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A journal segment being written: a file of fixed size, mapped into memory and filled with frames
+ * from the start. Segments are named after the journal position of their first record, so their
+ * names sort in journal order. Used only by the writer thread.
+ */
+class AuditSegment {
+
+    static final String SUFFIX = ".audit";
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    // Start of the frames written since the last force
+    private int unsynced;
+
+    private AuditSegment(FileChannel channel, MappedByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static AuditSegment create(Path directory, long firstSeq, int size) throws IOException {
+        FileChannel channel = FileChannel.open(fileName(directory, firstSeq),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new AuditSegment(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static Path fileName(Path directory, long firstSeq) {
+        return directory.resolve(String.format("%020d%s", firstSeq, SUFFIX));
+    }
+
+    /**
+     * Copies {@code frame} in after the last frame and returns the offset it starts at, or returns -1
+     * if it does not fit.
+     */
+    int append(ByteBuffer frame) {
+        if (frame.remaining() > buffer.remaining()) {
+            return -1;
+        }
+        int offset = buffer.position();
+        buffer.put(frame);
+        return offset;
+    }
+
+    /**
+     * Writes the frames appended since the last call through to the disk.
+     */
+    void force() {
+        int position = buffer.position();
+        if (position > unsynced) {
+            buffer.force(unsynced, position - unsynced);
+            unsynced = position;
+        }
+    }
+
+    // The mapping itself is released when the buffer is garbage collected
+    void close() throws IOException {
+        force();
+        channel.close();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.creditunion.account.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps concurrent database work: a connection can only be taken while one of {@code permits} is
+ * free, and the permit returns when the connection is closed. With permits equal to the pool
+ * size, callers queue here, fairly and for at most {@code maxWait}, instead of piling up inside
+ * the pool; a caller that waits too long fails fast and the request is answered with 503.
+ */
+public class DatabaseBulkhead extends DelegatingDataSource {
+
+    public static final String ACTIVE = "accounts.db.bulkhead.active";
+    public static final String WAITING = "accounts.db.bulkhead.waiting";
+    public static final String REJECTED = "accounts.db.bulkhead.rejected";
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final long maxWaitNanos;
+    private final Counter rejected;
+
+    /**
+     * {@code name} tags the bulkhead's meters, telling the bulkheads of several pools apart.
+     */
+    public DatabaseBulkhead(DataSource target, String name, int permits, Duration maxWait, MeterRegistry meterRegistry) {
+        super(target);
+        this.permits = new Semaphore(permits, true);
+        this.maxPermits = permits;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.rejected = Counter.builder(REJECTED)
+                .description("Database connections refused because the bulkhead stayed full")
+                .tag("datasource", name)
+                .register(meterRegistry);
+        Gauge.builder(ACTIVE, this, bulkhead -> bulkhead.maxPermits - bulkhead.permits.availablePermits())
+                .description("Connections handed out through the bulkhead")
+                .tag("datasource", name)
+                .register(meterRegistry);
+        Gauge.builder(WAITING, this.permits, Semaphore::getQueueLength)
+                .description("Callers waiting for a bulkhead permit")
+                .tag("datasource", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new SQLTransientConnectionException("All " + maxPermits + " database permits are in use");
+        }
+    }
+
+    // The pool's own connection proxy is wrapped once more so closing it also returns the permit, exactly once
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            connection.close();
+                        } finally {
+                            permits.release();
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.creditunion.account.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Puts a {@link DatabaseBulkhead} in front of each of the application's connection pools when
+ * {@code creditunion.bulkhead.enabled} is set, as it is by the {@code virtual-threads} profile.
+ * Permits default to the pool size.
+ */
+@Configuration
+@ConditionalOnProperty("creditunion.bulkhead.enabled")
+public class DatabaseBulkheadConfig {
+
+    // HikariConfig's own default
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    // Static: a BeanPostProcessor is created before regular beans, so it looks its collaborators up lazily
+    @Bean
+    public static BeanPostProcessor databaseBulkheadPostProcessor(Environment environment,
+                                                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Only connection pools: a DataSource that routes to pools would take a second permit
+                if (!(bean instanceof HikariDataSource pool)) {
+                    return bean;
+                }
+                // An unset pool size reads -1 until the pool starts, which then applies Hikari's default
+                int poolSize = pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+                int permits = environment.getProperty("creditunion.bulkhead.permits", Integer.class, poolSize);
+                Duration maxWait = environment.getProperty("creditunion.bulkhead.max-wait", Duration.class,
+                        Duration.ofSeconds(2));
+                return new DatabaseBulkhead(pool, beanName, permits, maxWait, meterRegistry.getObject());
+            }
+        };
+    }
+}
@@ -2,4 +2,38 @@ package com.example.creditunion.account.common;
 
 public class Constants {
     public static final String BASE_URL_V1 = "/api/v1";
+    // The reactive API, served on its own port when creditunion.reactive.enabled is set
+    public static final String BASE_URL_V2 = "/api/v2";
+
+    // Read-through cache of accounts by id, configured under spring.cache
+    public static final String ACCOUNT_CACHE = "accounts";
+
+    // Keyset pagination for GET /accounts
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Name search modes on GET /accounts/search
+    public static final String SUBSTRING_MODE = "substring";
+    public static final String FUZZY_MODE = "fuzzy";
+
+    // Streaming reads: rows processed between flushes / persistence context clears
+    public static final int STREAM_CLEAR_INTERVAL = 500;
+
+    // Bulk writes: rows per committed transaction and per request
+    public static final int BATCH_CHUNK_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 10000;
+
+    // Ids per IN (...) query when loading many accounts by id, and per multi-get request
+    public static final int ID_LOOKUP_CHUNK_SIZE = 500;
+    public static final int MAX_LOOKUP_SIZE = 10000;
+
+    // CSV imports: rejected rows recorded per job (all are counted)
+    public static final int MAX_IMPORT_ERRORS = 100;
+
+    // Failure messages kept on import jobs and duplicate scans, the size of their error columns
+    public static final int MAX_ERROR_LENGTH = 255;
+
+    // The expected version for If-Match: *, which any existing version satisfies (versions start at 0)
+    public static final long ANY_VERSION = -1L;
 }
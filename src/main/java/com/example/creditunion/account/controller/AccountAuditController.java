@@ -0,0 +1,28 @@
+package com.example.creditunion.account.controller;
+
+import com.example.creditunion.account.audit.AccountAuditJournal;
+import com.example.creditunion.account.audit.AuditRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/accounts")
+public class AccountAuditController {
+
+    @Autowired
+    private AccountAuditJournal accountAuditJournal;
+
+    /**
+     * Every audited write of the account, oldest first. Also answers for deleted accounts.
+     */
+    @GetMapping("/{id}/audit")
+    public ResponseEntity<List<AuditRecord>> getAuditTrail(@PathVariable Long id) {
+        return ResponseEntity.ok(accountAuditJournal.findByAccountId(id));
+    }
+}
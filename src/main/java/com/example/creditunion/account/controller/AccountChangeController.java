@@ -0,0 +1,45 @@
+package com.example.creditunion.account.controller;
+
+import com.example.creditunion.account.events.AccountEventBroker;
+import com.example.creditunion.account.model.AccountChangePage;
+import com.example.creditunion.account.service.AccountChangeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static com.example.creditunion.account.common.Constants.DEFAULT_PAGE_SIZE;
+import static com.example.creditunion.account.common.Constants.MAX_PAGE_SIZE;
+
+@RestController
+@RequestMapping("/api/v1/accounts")
+public class AccountChangeController {
+
+    @Autowired
+    private AccountChangeService accountChangeService;
+
+    @Autowired
+    private AccountEventBroker accountEventBroker;
+
+    @GetMapping("/changes")
+    public ResponseEntity<AccountChangePage> getChanges(@RequestParam(required = false) String since,
+                                                        @RequestParam(required = false) Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(accountChangeService.getChanges(since, pageSize));
+    }
+
+    /**
+     * Server-sent events for each account write, resuming after {@code Last-Event-ID} or, for a
+     * first connection, after the {@code since} token.
+     */
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                    @RequestParam(required = false) String since) {
+        return accountEventBroker.subscribe(lastEventId != null ? lastEventId : since);
+    }
+}
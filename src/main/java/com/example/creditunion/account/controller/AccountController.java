@@ -1,9 +1,14 @@
 package com.example.creditunion.account.controller;
 
+import com.example.creditunion.account.exception.InvalidRequestException;
 import com.example.creditunion.account.exception.ResourceNotFoundException;
 import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.model.AccountField;
 import com.example.creditunion.account.service.AccountService;
+import com.example.creditunion.account.model.AccountPage;
+import com.example.creditunion.account.service.AccountBatchService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -11,6 +16,15 @@ import org.springframework.web.bind.annotation.*;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import java.util.List;
+import java.util.Optional;
+
+import static com.example.creditunion.account.common.Constants.DEFAULT_PAGE_SIZE;
+import static com.example.creditunion.account.common.Constants.FUZZY_MODE;
+import static com.example.creditunion.account.common.Constants.MAX_BATCH_SIZE;
+import static com.example.creditunion.account.common.Constants.MAX_LOOKUP_SIZE;
+import static com.example.creditunion.account.common.Constants.MAX_PAGE_SIZE;
+import static com.example.creditunion.account.common.Constants.NEXT_CURSOR_HEADER;
+import static com.example.creditunion.account.common.Constants.SUBSTRING_MODE;
 
 @RestController
 @RequestMapping("/api/v1/accounts")
@@ -20,15 +34,60 @@ public class AccountController {
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private AccountBatchService accountBatchService;
+
     @GetMapping
-    public List<Account> getAllAccounts() {
-        return accountService.getAllAccounts();
+    public ResponseEntity<List<?>> getAllAccounts(@RequestParam(required = false) Long after,
+                                                  @RequestParam(required = false) Integer limit,
+                                                  @RequestParam(required = false) List<String> fields) {
+        int pageSize = pageSize(limit);
+        AccountPage<?> page = fields == null
+                ? accountService.getAccountsPage(after, pageSize)
+                : accountService.getAccountFieldsPage(after, pageSize, AccountField.parse(fields));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(page.getItems());
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getAccountsByIds(@RequestParam List<Long> ids) {
+        return lookupAccounts(ids);
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<?> lookupAccounts(@RequestBody List<Long> ids) {
+        if (ids.size() > MAX_LOOKUP_SIZE) {
+            return ResponseEntity.badRequest().body("A lookup may contain at most " + MAX_LOOKUP_SIZE + " ids.");
+        }
+        // A JSON null or an empty entry in ?ids= arrives as a null id, which no query can bind
+        if (ids.contains(null)) {
+            return ResponseEntity.badRequest().body("A lookup may not contain empty ids.");
+        }
+        return ResponseEntity.ok(accountService.getAccountsByIds(ids));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Account> getAccountById(@PathVariable @NotNull Long id) {
+    public ResponseEntity<?> getAccountById(@PathVariable @NotNull Long id,
+                                            @RequestParam(required = false) List<String> fields,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                            String ifNoneMatch) {
+        if (fields != null) {
+            return findAccount(id, fields)
+                    .map(ResponseEntity::ok)
+                    .orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + id));
+        }
+        // Revalidation is answered from the version column, without loading or serializing the account
+        if (ifNoneMatch != null) {
+            Optional<Long> version = accountService.getAccountVersion(id);
+            if (version.isPresent() && AccountETags.noneMatchHits(ifNoneMatch, version.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(AccountETags.of(version.get())).build();
+            }
+        }
         return accountService.getAccountById(id)
-                .map(ResponseEntity::ok)
+                .map(AccountController::okWithETag)
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + id));
     }
 
@@ -38,27 +97,62 @@ public class AccountController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdAccount);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> batchSaveAccounts(@RequestBody List<Account> accounts) {
+        if (accounts.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body("A batch may contain at most " + MAX_BATCH_SIZE + " accounts.");
+        }
+        return ResponseEntity.ok(accountBatchService.saveAll(accounts));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Account> updateAccount(@PathVariable @NotNull Long id,
-                                                 @Valid @RequestBody Account accountDetails) {
-        return ResponseEntity.ok(accountService.updateAccount(id, accountDetails));
+                                                 @Valid @RequestBody Account accountDetails,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                 String ifMatch) {
+        return okWithETag(accountService.updateAccount(id, accountDetails, AccountETags.expectedVersion(ifMatch)));
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Account> patchAccount(@PathVariable @NotNull Long id,
+                                                @Valid @RequestBody Account changes,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                String ifMatch) {
+        return okWithETag(accountService.patchAccount(id, changes, AccountETags.expectedVersion(ifMatch)));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteAccount(@PathVariable @NotNull Long id) {
-        accountService.deleteAccount(id);
+    public ResponseEntity<Void> deleteAccount(@PathVariable @NotNull Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                              String ifMatch) {
+        accountService.deleteAccount(id, AccountETags.expectedVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
+    // mode=fuzzy ranks misspelt and sound-alike names, closest first, at most limit of them
     @GetMapping("/search")
     public ResponseEntity<?> searchAccounts(@RequestParam(required = false) Long id,
-                                            @RequestParam(required = false) String name) {
+                                            @RequestParam(required = false) String name,
+                                            @RequestParam(required = false) List<String> fields,
+                                            @RequestParam(required = false) String mode,
+                                            @RequestParam(required = false) Integer limit) {
+        boolean fuzzy = FUZZY_MODE.equals(mode);
+        if (mode != null && !fuzzy && !SUBSTRING_MODE.equals(mode)) {
+            throw new InvalidRequestException("Unknown search mode: " + mode);
+        }
         if (id != null) {
-            return accountService.getAccountById(id)
+            return findAccount(id, fields)
                     .map(ResponseEntity::ok)
                     .orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + id));
         } else if (name != null && !name.trim().isEmpty()) {
-            List<Account> accounts = accountService.searchAccountsByName(name);
+            if (fuzzy && fields != null) {
+                throw new InvalidRequestException("fields cannot be combined with mode=fuzzy");
+            }
+            List<?> accounts = fuzzy
+                    ? accountService.searchAccountsByNameFuzzy(name, pageSize(limit))
+                    : fields == null
+                    ? accountService.searchAccountsByName(name)
+                    : accountService.searchAccountFieldsByName(name, AccountField.parse(fields));
             if (accounts.isEmpty()) {
                 throw new ResourceNotFoundException("No accounts found with name: " + name);
             }
@@ -68,4 +162,42 @@ public class AccountController {
         }
     }
 
+    // Prefix searches for type-ahead: case-insensitive, ordered by the name and then id, at most limit matches
+    @GetMapping("/search/first-name")
+    public ResponseEntity<?> searchAccountsByFirstNamePrefix(@RequestParam String prefix,
+                                                             @RequestParam(required = false) Integer limit) {
+        if (prefix.isEmpty()) {
+            return ResponseEntity.badRequest().body("Please provide a prefix to search.");
+        }
+        return ResponseEntity.ok(accountService.searchAccountsByFirstNamePrefix(prefix, pageSize(limit)));
+    }
+
+    @GetMapping("/search/last-name")
+    public ResponseEntity<?> searchAccountsByLastNamePrefix(@RequestParam String prefix,
+                                                            @RequestParam(required = false) Integer limit) {
+        if (prefix.isEmpty()) {
+            return ResponseEntity.badRequest().body("Please provide a prefix to search.");
+        }
+        return ResponseEntity.ok(accountService.searchAccountsByLastNamePrefix(prefix, pageSize(limit)));
+    }
+
+    private static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static ResponseEntity<Account> okWithETag(Account account) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (account.getVersion() != null) {
+            response.eTag(AccountETags.of(account.getVersion()));
+        }
+        return response.body(account);
+    }
+
+    // With fields= only those columns are read, and the account is returned as a map of them
+    private Optional<?> findAccount(Long id, List<String> fields) {
+        return fields == null
+                ? accountService.getAccountById(id)
+                : accountService.getAccountFieldsById(id, AccountField.parse(fields));
+    }
+
 }
@@ -0,0 +1,55 @@
+package com.example.creditunion.account.controller;
+
+import com.example.creditunion.account.model.AccountDuplicate;
+import com.example.creditunion.account.model.AccountDuplicateScan;
+import com.example.creditunion.account.service.AccountDuplicateService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import java.net.URI;
+import java.util.List;
+
+import static com.example.creditunion.account.common.Constants.BASE_URL_V1;
+import static com.example.creditunion.account.common.Constants.DEFAULT_PAGE_SIZE;
+import static com.example.creditunion.account.common.Constants.MAX_PAGE_SIZE;
+import static com.example.creditunion.account.common.Constants.NEXT_CURSOR_HEADER;
+
+@RestController
+@RequestMapping("/api/v1/accounts/duplicates/scans")
+public class AccountDuplicateController {
+
+    @Autowired
+    private AccountDuplicateService accountDuplicateService;
+
+    @PostMapping
+    public ResponseEntity<AccountDuplicateScan> startScan(@RequestParam(required = false) Integer parallelism) {
+        AccountDuplicateScan scan = accountDuplicateService.startScan(parallelism);
+        return ResponseEntity.accepted()
+                .location(URI.create(BASE_URL_V1 + "/accounts/duplicates/scans/" + scan.getId()))
+                .body(scan);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<AccountDuplicateScan> getScan(@PathVariable Long id) {
+        return ResponseEntity.ok(accountDuplicateService.getScan(id));
+    }
+
+    // Pages of the ranked report; the next page starts after the rank in the X-Next-Cursor header
+    @GetMapping("/{id}/report")
+    public ResponseEntity<List<AccountDuplicate>> getReport(@PathVariable Long id,
+                                                            @RequestParam(required = false) Long after,
+                                                            @RequestParam(required = false) Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<AccountDuplicate> page = accountDuplicateService.getReport(id, after == null ? 0 : after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getRank()));
+        }
+        return response.body(page);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.creditunion.account.controller;
+
+import com.example.creditunion.account.common.Constants;
+import com.example.creditunion.account.exception.InvalidRequestException;
+import com.example.creditunion.account.exception.PreconditionFailedException;
+
+/**
+ * Maps account versions to entity tags and back. An account's ETag is its quoted version, e.g.
+ * {@code "3"}, so a conditional request can be checked against the version column alone.
+ */
+final class AccountETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private AccountETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // If-None-Match uses weak comparison, so W/"3" also matches version 3
+    static boolean noneMatchHits(String ifNoneMatch, Long version) {
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (candidate.startsWith(WEAK_PREFIX)) {
+                candidate = candidate.substring(WEAK_PREFIX.length());
+            }
+            if (candidate.equals(of(version))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The version an If-Match header requires, {@link Constants#ANY_VERSION} for {@code *} (the
+     * account must exist), or {@code null} when the write is unconditional. If-Match uses strong
+     * comparison, so a weak or foreign tag can never match.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        if (ifMatch.trim().equals("*")) {
+            return Constants.ANY_VERSION;
+        }
+        String tag = ifMatch.trim();
+        if (tag.contains(",")) {
+            throw new InvalidRequestException("If-Match must name a single version");
+        }
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Falls through: not one of our tags
+            }
+        }
+        throw new PreconditionFailedException("If-Match " + tag + " does not match the current version");
+    }
+}
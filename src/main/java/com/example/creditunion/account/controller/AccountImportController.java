@@ -0,0 +1,43 @@
+package com.example.creditunion.account.controller;
+
+import com.example.creditunion.account.model.AccountImportStatus;
+import com.example.creditunion.account.service.AccountImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.io.IOException;
+import java.net.URI;
+
+import static com.example.creditunion.account.common.Constants.BASE_URL_V1;
+
+@RestController
+@RequestMapping("/api/v1/accounts/imports")
+public class AccountImportController {
+
+    @Autowired
+    private AccountImportService accountImportService;
+
+    // The body is read straight from the request, so the file is never held in memory
+    @PostMapping(consumes = {"text/csv", "application/octet-stream"})
+    public ResponseEntity<AccountImportStatus> startImport(HttpServletRequest request) throws IOException {
+        AccountImportStatus status = accountImportService.startImport(request.getInputStream());
+        return ResponseEntity.accepted()
+                .location(URI.create(BASE_URL_V1 + "/accounts/imports/" + status.getId()))
+                .body(status);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<AccountImportStatus> getImport(@PathVariable Long id) {
+        return ResponseEntity.ok(accountImportService.getImport(id));
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<AccountImportStatus> resumeImport(@PathVariable Long id) {
+        return ResponseEntity.accepted().body(accountImportService.resumeImport(id));
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.creditunion.account.controller;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Set;
+
+import static com.example.creditunion.account.common.Constants.BASE_URL_V1;
+
+/**
+ * Response encodings for the account API: CBOR and Smile alongside JSON, selected with
+ * {@code Accept: application/cbor} or {@code Accept: application/x-jackson-smile}, and gzip
+ * above {@code server.compression.min-response-size}.
+ */
+@Configuration
+public class ResponseEncodingConfig {
+
+    // Built from Boot's Jackson builder so they honour the same spring.jackson.* settings as JSON
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    // Tomcat compresses every response of unknown length, so set the length for the threshold to apply
+    @Bean
+    public FilterRegistrationBean<ContentLengthFilter> contentLengthFilter(
+            @Value("${server.compression.min-response-size:2KB}") DataSize threshold) {
+        FilterRegistrationBean<ContentLengthFilter> registration =
+                new FilterRegistrationBean<>(new ContentLengthFilter((int) threshold.toBytes()));
+        registration.addUrlPatterns(BASE_URL_V1 + "/accounts/*");
+        return registration;
+    }
+
+    /**
+     * Sends a response body shorter than {@code threshold} bytes with a Content-Length, so Tomcat
+     * leaves it uncompressed. Only that much is buffered: a body that reaches the threshold is
+     * passed on as it is written, without a length, and Tomcat compresses it. Streaming endpoints
+     * are skipped, so their first bytes are not held back either.
+     */
+    static class ContentLengthFilter extends OncePerRequestFilter {
+
+        // Paths within the application, so a context path cannot hide them
+        private static final Set<String> STREAMING_PATHS = Set.of(
+                BASE_URL_V1 + "/accounts/export", BASE_URL_V1 + "/accounts/changes/stream");
+
+        private final int threshold;
+
+        ContentLengthFilter(int threshold) {
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            // Streamed responses must not be buffered, whether or not the path ends in a slash. The servlet
+            // path would do only while the dispatcher is mapped to "/"; it is empty under MockMvc.
+            String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+            if (path.length() > 1 && path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            return STREAMING_PATHS.contains(path);
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            ThresholdBufferingResponse wrapper = new ThresholdBufferingResponse(response, threshold);
+            try {
+                chain.doFilter(request, wrapper);
+            } finally {
+                wrapper.finish();
+            }
+        }
+    }
+
+    // Holds the body back until it either ends below the threshold or reaches it
+    private static class ThresholdBufferingResponse extends HttpServletResponseWrapper {
+
+        private final int threshold;
+        private final ByteArrayOutputStream buffer;
+        private final BufferingOutputStream outputStream = new BufferingOutputStream();
+        private PrintWriter writer;
+        private boolean streaming;
+
+        ThresholdBufferingResponse(HttpServletResponse response, int threshold) {
+            super(response);
+            this.threshold = threshold;
+            this.buffer = new ByteArrayOutputStream(Math.min(threshold, 1024));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        // Flushing would commit the response before its length is known
+        @Override
+        public void flushBuffer() throws IOException {
+            if (streaming) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            buffer.reset();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            buffer.reset();
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (streaming || buffer.size() == 0) {
+                return;
+            }
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (!response.isCommitted() && response.getHeader(HttpHeaders.TRANSFER_ENCODING) == null) {
+                response.setContentLength(buffer.size());
+            }
+            buffer.writeTo(response.getOutputStream());
+            buffer.reset();
+        }
+
+        private void startStreaming() throws IOException {
+            streaming = true;
+            buffer.writeTo(getResponse().getOutputStream());
+            buffer.reset();
+        }
+
+        private class BufferingOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (!streaming && buffer.size() + len >= threshold) {
+                    startStreaming();
+                }
+                if (streaming) {
+                    getResponse().getOutputStream().write(b, off, len);
+                } else {
+                    buffer.write(b, off, len);
+                }
+            }
+
+            // Converters flush after writing the body; until the threshold that must not commit the response
+            @Override
+            public void flush() throws IOException {
+                if (streaming) {
+                    getResponse().getOutputStream().flush();
+                }
+            }
+
+            @Override
+            public boolean isReady() {
+                try {
+                    return getResponse().getOutputStream().isReady();
+                } catch (IOException e) {
+                    return false;
+                }
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                try {
+                    getResponse().getOutputStream().setWriteListener(listener);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.creditunion.account.duplicates;
+
+import org.apache.commons.codec.language.DoubleMetaphone;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The parts of an account the duplicate detector compares, normalized once when it is read: upper
+ * case, punctuation folded to spaces and common street suffixes abbreviated, so "12 Main Street."
+ * and "12 main st" compare equal.
+ */
+public final class DuplicateCandidate {
+
+    private static final DoubleMetaphone METAPHONE = new DoubleMetaphone();
+
+    private static final Map<String, String> STREET_SUFFIXES = Map.ofEntries(
+            Map.entry("STREET", "ST"), Map.entry("AVENUE", "AVE"), Map.entry("ROAD", "RD"),
+            Map.entry("DRIVE", "DR"), Map.entry("LANE", "LN"), Map.entry("BOULEVARD", "BLVD"),
+            Map.entry("COURT", "CT"), Map.entry("PLACE", "PL"), Map.entry("APARTMENT", "APT"));
+
+    private final long id;
+    private final String firstName;
+    private final String lastName;
+    private final String address;
+    // The address's house and unit numbers, which have to agree exactly for addresses to be alike
+    private final String addressNumbers;
+
+    public DuplicateCandidate(long id, String firstName, String lastName, String address) {
+        this.id = id;
+        this.firstName = normalize(firstName);
+        this.lastName = normalize(lastName);
+        this.address = normalize(address);
+        this.addressNumbers = numbers(this.address);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    String getFirstName() {
+        return firstName;
+    }
+
+    String getLastName() {
+        return lastName;
+    }
+
+    String getAddress() {
+        return address;
+    }
+
+    String getAddressNumbers() {
+        return addressNumbers;
+    }
+
+    /**
+     * The blocks the candidate is filed in: its last name's sound, and its house number with the first
+     * word of its street. Accounts are only compared with accounts sharing a block.
+     */
+    List<String> blockingKeys() {
+        List<String> keys = new ArrayList<>(2);
+        if (!lastName.isEmpty()) {
+            String sound = METAPHONE.doubleMetaphone(lastName.replace(" ", ""));
+            keys.add("N:" + (sound == null || sound.isEmpty() ? lastName : sound));
+        }
+        String[] tokens = address.isEmpty() ? new String[0] : address.split(" ");
+        if (tokens.length >= 2) {
+            keys.add("A:" + tokens[0] + " " + tokens[1]);
+        }
+        return keys;
+    }
+
+    // Order within a block that is too large to compare in full: neighbours are compared instead
+    String sortKey() {
+        return firstName + "|" + lastName + "|" + address;
+    }
+
+    private static String numbers(String address) {
+        StringBuilder numbers = new StringBuilder();
+        for (String token : address.split(" ")) {
+            if (!token.isEmpty() && Character.isDigit(token.charAt(0))) {
+                numbers.append(token).append(' ');
+            }
+        }
+        return numbers.toString();
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (String token : text.toUpperCase(Locale.ENGLISH).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                if (normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(STREET_SUFFIXES.getOrDefault(token, token));
+            }
+        }
+        return normalized.toString();
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.creditunion.account.duplicates;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Finds probable duplicate accounts without comparing every pair. Candidates are grouped into
+ * blocks by {@link DuplicateCandidate#blockingKeys}, and only accounts sharing a block are scored.
+ * A block larger than {@code maxBlockSize} (a common surname) is sorted and each account compared
+ * with the {@code window - 1} accounts after it instead of with the whole block.
+ *
+ * Blocking and scoring run on the given fork/join pool. Scoring is split into tasks of about
+ * {@link #LEAF_COMPARISONS} comparisons, so one large block does not hold up the rest.
+ */
+public class DuplicateDetector {
+
+    // Comparisons a task does itself rather than splitting further
+    static final long LEAF_COMPARISONS = 20_000;
+    // Rows of a windowed block handed out as one piece of work
+    private static final int SLICE_ROWS = 1024;
+
+    // Field weights of the similarity score; fields missing on either side are left out
+    private static final double FIRST_NAME_WEIGHT = 0.3;
+    private static final double LAST_NAME_WEIGHT = 0.35;
+    private static final double ADDRESS_WEIGHT = 0.35;
+    // A pair with less than this weight of fields to compare is never a duplicate
+    private static final double MIN_WEIGHT = 0.6;
+
+    private final double threshold;
+    private final int maxBlockSize;
+    private final int window;
+
+    public DuplicateDetector(double threshold, int maxBlockSize, int window) {
+        this.threshold = threshold;
+        this.maxBlockSize = maxBlockSize;
+        this.window = window;
+    }
+
+    public Result detect(List<DuplicateCandidate> candidates, ForkJoinPool pool) {
+        Map<String, List<DuplicateCandidate>> blocks = pool.invoke(new BlockTask(candidates));
+        List<Slice> slices = new ArrayList<>();
+        for (List<DuplicateCandidate> block : blocks.values()) {
+            if (block.size() < 2) {
+                continue;
+            }
+            if (block.size() <= maxBlockSize) {
+                slices.add(new Slice(block, 0, block.size(), block.size()));
+            } else {
+                block.sort(Comparator.comparing(DuplicateCandidate::sortKey).thenComparingLong(DuplicateCandidate::getId));
+                for (int from = 0; from < block.size(); from += SLICE_ROWS) {
+                    slices.add(new Slice(block, from, Math.min(from + SLICE_ROWS, block.size()), window));
+                }
+            }
+        }
+        long[] work = new long[slices.size() + 1];
+        for (int i = 0; i < slices.size(); i++) {
+            work[i + 1] = work[i] + slices.get(i).comparisons();
+        }
+        LongAdder compared = new LongAdder();
+        List<DuplicatePair> found = pool.invoke(new ScoreTask(slices, work, 0, slices.size(), compared));
+        List<DuplicatePair> ranked = new ArrayList<>(new LinkedHashSet<>(found));
+        ranked.sort(DuplicatePair.BY_RANK);
+        long multiMemberBlocks = blocks.values().stream().filter(block -> block.size() > 1).count();
+        return new Result(candidates.size(), multiMemberBlocks, compared.sum(), ranked);
+    }
+
+    /**
+     * Similarity of two accounts between 0 and 1: the weighted Jaro-Winkler similarity of the fields
+     * both have, where addresses whose numbers differ count as nothing alike. Returns 0 early once
+     * the pair cannot reach {@code floor}.
+     */
+    static double similarity(DuplicateCandidate a, DuplicateCandidate b, double floor) {
+        double weight = 0;
+        double score = 0;
+        double remaining = weightOf(a.getFirstName(), b.getFirstName(), FIRST_NAME_WEIGHT)
+                + weightOf(a.getAddress(), b.getAddress(), ADDRESS_WEIGHT);
+        if (!a.getLastName().isEmpty() && !b.getLastName().isEmpty()) {
+            weight += LAST_NAME_WEIGHT;
+            score += LAST_NAME_WEIGHT * jaroWinkler(a.getLastName(), b.getLastName());
+        }
+        double total = weight + remaining;
+        if (total < MIN_WEIGHT || (score + remaining) / total < floor) {
+            return 0;
+        }
+        if (!a.getFirstName().isEmpty() && !b.getFirstName().isEmpty()) {
+            score += FIRST_NAME_WEIGHT * jaroWinkler(a.getFirstName(), b.getFirstName());
+        }
+        if (!a.getAddress().isEmpty() && !b.getAddress().isEmpty()) {
+            // 12 Main St and 21 Main St are as different as addresses get
+            score += a.getAddressNumbers().equals(b.getAddressNumbers())
+                    ? ADDRESS_WEIGHT * jaroWinkler(a.getAddress(), b.getAddress()) : 0;
+        }
+        return score / total;
+    }
+
+    private static double weightOf(String a, String b, double weight) {
+        return a.isEmpty() || b.isEmpty() ? 0 : weight;
+    }
+
+    static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) {
+            return 1;
+        }
+        int range = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] aMatched = new boolean[a.length()];
+        boolean[] bMatched = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int end = Math.min(i + range + 1, b.length());
+            for (int j = Math.max(0, i - range); j < end; j++) {
+                if (!bMatched[j] && a.charAt(i) == b.charAt(j)) {
+                    aMatched[i] = true;
+                    bMatched[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0;
+        }
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (aMatched[i]) {
+                while (!bMatched[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3;
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+
+    /**
+     * What a detection found: the pairs scoring at least the threshold, best first, and how much
+     * work it took.
+     */
+    public static final class Result {
+
+        private final long accounts;
+        private final long blocks;
+        private final long comparisons;
+        private final List<DuplicatePair> pairs;
+
+        Result(long accounts, long blocks, long comparisons, List<DuplicatePair> pairs) {
+            this.accounts = accounts;
+            this.blocks = blocks;
+            this.comparisons = comparisons;
+            this.pairs = pairs;
+        }
+
+        public long getAccounts() {
+            return accounts;
+        }
+
+        // Blocks holding more than one account
+        public long getBlocks() {
+            return blocks;
+        }
+
+        public long getComparisons() {
+            return comparisons;
+        }
+
+        public List<DuplicatePair> getPairs() {
+            return pairs;
+        }
+    }
+
+    // Rows [from, to) of a block, each compared with the rows after it: all of them, or the next window - 1
+    private record Slice(List<DuplicateCandidate> block, int from, int to, int window) {
+
+        long comparisons() {
+            long comparisons = 0;
+            for (int i = from; i < to; i++) {
+                comparisons += Math.min(window - 1, block.size() - 1 - i);
+            }
+            return comparisons;
+        }
+    }
+
+    private static final class BlockTask extends RecursiveTask<Map<String, List<DuplicateCandidate>>> {
+
+        private final List<DuplicateCandidate> candidates;
+
+        BlockTask(List<DuplicateCandidate> candidates) {
+            this.candidates = candidates;
+        }
+
+        // The keys are computed in parallel; grouping into lists keeps each block in candidate order
+        @Override
+        protected Map<String, List<DuplicateCandidate>> compute() {
+            return candidates.parallelStream()
+                    .flatMap(candidate -> candidate.blockingKeys().stream().map(key -> Map.entry(key, candidate)))
+                    .collect(Collectors.groupingBy(Map.Entry::getKey,
+                            Collectors.mapping(Map.Entry::getValue, Collectors.toCollection(ArrayList::new))));
+        }
+    }
+
+    private final class ScoreTask extends RecursiveTask<List<DuplicatePair>> {
+
+        private final List<Slice> slices;
+        private final long[] work;
+        private final int lo;
+        private final int hi;
+        private final LongAdder compared;
+
+        ScoreTask(List<Slice> slices, long[] work, int lo, int hi, LongAdder compared) {
+            this.slices = slices;
+            this.work = work;
+            this.lo = lo;
+            this.hi = hi;
+            this.compared = compared;
+        }
+
+        @Override
+        protected List<DuplicatePair> compute() {
+            if (hi - lo > 1 && work[hi] - work[lo] > LEAF_COMPARISONS) {
+                // Split where half of the range's comparisons lie on either side
+                long half = work[lo] + (work[hi] - work[lo]) / 2;
+                int mid = lo + 1;
+                while (mid < hi - 1 && work[mid] < half) {
+                    mid++;
+                }
+                ScoreTask right = new ScoreTask(slices, work, mid, hi, compared);
+                right.fork();
+                List<DuplicatePair> found = new ScoreTask(slices, work, lo, mid, compared).compute();
+                found.addAll(right.join());
+                return found;
+            }
+            List<DuplicatePair> found = new ArrayList<>();
+            long comparisons = 0;
+            for (int s = lo; s < hi; s++) {
+                Slice slice = slices.get(s);
+                List<DuplicateCandidate> block = slice.block();
+                for (int i = slice.from(); i < slice.to(); i++) {
+                    DuplicateCandidate a = block.get(i);
+                    int end = Math.min(block.size(), i + slice.window());
+                    for (int j = i + 1; j < end; j++) {
+                        DuplicateCandidate b = block.get(j);
+                        comparisons++;
+                        double score = similarity(a, b, threshold);
+                        if (score >= threshold) {
+                            found.add(new DuplicatePair(a.getId(), b.getId(), score));
+                        }
+                    }
+                }
+            }
+            compared.add(comparisons);
+            return found;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.creditunion.account.duplicates;
+
+import java.util.Comparator;
+
+/**
+ * Two accounts that probably belong to the same member, the lower id first, with their similarity
+ * between 0 and 1.
+ */
+public final class DuplicatePair {
+
+    // Most similar first, then by ids, so equal scores always rank the same way
+    static final Comparator<DuplicatePair> BY_RANK = Comparator.comparingDouble(DuplicatePair::getScore).reversed()
+            .thenComparingLong(DuplicatePair::getAccountId)
+            .thenComparingLong(DuplicatePair::getDuplicateId);
+
+    private final long accountId;
+    private final long duplicateId;
+    private final double score;
+
+    DuplicatePair(long first, long second, double score) {
+        this.accountId = Math.min(first, second);
+        this.duplicateId = Math.max(first, second);
+        this.score = score;
+    }
+
+    public long getAccountId() {
+        return accountId;
+    }
+
+    public long getDuplicateId() {
+        return duplicateId;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    // Two blocks can both hold a pair; it is the same pair with the same score
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof DuplicatePair pair && pair.accountId == accountId && pair.duplicateId == duplicateId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(accountId) * 31 + Long.hashCode(duplicateId);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.creditunion.account.events;
+
+import com.example.creditunion.account.model.Account;
+
+/**
+ * Published by the services after an account write has committed. {@code changeSeq} and
+ * {@code accountId} give the write's position in the change feed.
+ */
+public class AccountChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Long accountId;
+    private final long changeSeq;
+    private final Account account;
+
+    private AccountChangedEvent(Type type, Long accountId, long changeSeq, Account account) {
+        this.type = type;
+        this.accountId = accountId;
+        this.changeSeq = changeSeq;
+        this.account = account;
+    }
+
+    public static AccountChangedEvent created(Account account) {
+        return new AccountChangedEvent(Type.CREATED, account.getId(), account.getChangeSeq(), account);
+    }
+
+    public static AccountChangedEvent updated(Account account) {
+        return new AccountChangedEvent(Type.UPDATED, account.getId(), account.getChangeSeq(), account);
+    }
+
+    public static AccountChangedEvent deleted(Long accountId, long changeSeq) {
+        return new AccountChangedEvent(Type.DELETED, accountId, changeSeq, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    /**
+     * The account as written, or null for a delete.
+     */
+    public Account getAccount() {
+        return account;
+    }
+}
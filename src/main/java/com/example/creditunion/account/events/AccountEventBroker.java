@@ -0,0 +1,226 @@
+package com.example.creditunion.account.events;
+
+import com.example.creditunion.account.model.AccountChange;
+import com.example.creditunion.account.model.AccountChangePage;
+import com.example.creditunion.account.service.AccountChangeService;
+import com.example.creditunion.account.service.AccountChangeTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.creditunion.account.common.Constants.MAX_PAGE_SIZE;
+
+/**
+ * Pushes committed account writes to SSE subscribers. Event ids are change feed tokens, so a
+ * client that reconnects with {@code Last-Event-ID} is first replayed what it missed from the feed.
+ * Like the feed, events are only released once every earlier change sequence number has committed:
+ * an id is then never followed by a change that sorts before it, and resuming from it loses nothing.
+ * <p>
+ * Writes to the connections block, so a client that stops reading holds a writer thread until
+ * Tomcat's write timeout. A send blocked for longer than {@code creditunion.events.send-timeout}
+ * is abandoned, and the writer pool grows by a thread until that send returns, so the other
+ * subscribers keep their share of writers. The pool grows to at most twice its size.
+ */
+@Component
+public class AccountEventBroker {
+
+    public static final String SUBSCRIBERS = "accounts.events.subscribers";
+    public static final String RESYNCS = "accounts.events.resyncs";
+    public static final String STALLS = "accounts.events.stalls";
+
+    private static final Comparator<AccountChangedEvent> FEED_ORDER = Comparator
+            .comparingLong(AccountChangedEvent::getChangeSeq)
+            .thenComparing(AccountChangedEvent::getAccountId);
+
+    @Autowired
+    private AccountChangeService accountChangeService;
+
+    private final AccountChangeTracker accountChangeTracker;
+    private final Set<AccountEventSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Committed events waiting for an earlier write still in flight
+    private final TreeSet<AccountChangedEvent> pending = new TreeSet<>(FEED_ORDER);
+    private final ThreadPoolExecutor writers;
+    private final ScheduledExecutorService heartbeats;
+    private final int writerThreads;
+    private final int bufferSize;
+    private final int maxReplay;
+    private final long sendTimeoutNanos;
+    private final Counter resyncs;
+    private final Counter stalls;
+    // Abandoned sends still holding a writer thread; guarded by writers
+    private int stalledWriters;
+
+    public AccountEventBroker(AccountChangeTracker accountChangeTracker, MeterRegistry meterRegistry,
+                              @Value("${creditunion.events.writer-threads:4}") int writerThreads,
+                              @Value("${creditunion.events.buffer-size:256}") int bufferSize,
+                              @Value("${creditunion.events.max-replay:10000}") int maxReplay,
+                              @Value("${creditunion.events.heartbeat-interval:15s}") Duration heartbeatInterval,
+                              @Value("${creditunion.events.send-timeout:5s}") Duration sendTimeout) {
+        this.accountChangeTracker = accountChangeTracker;
+        this.writerThreads = writerThreads;
+        this.bufferSize = bufferSize;
+        this.maxReplay = maxReplay;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("account-events-"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(daemonThreads("account-events-heartbeat-"));
+        this.resyncs = Counter.builder(RESYNCS)
+                .description("SSE subscribers closed with a resync event because they fell behind")
+                .register(meterRegistry);
+        this.stalls = Counter.builder(STALLS)
+                .description("SSE subscribers abandoned because a send to them stalled")
+                .register(meterRegistry);
+        Gauge.builder(SUBSCRIBERS, subscribers, Set::size)
+                .description("Open SSE subscriptions to account changes")
+                .register(meterRegistry);
+        // A write that rolls back publishes nothing but may still unblock pending events
+        accountChangeTracker.addListener(this::release);
+        long interval = heartbeatInterval.toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+        long check = Math.max(sendTimeout.toMillis() / 2, 1);
+        heartbeats.scheduleAtFixedRate(this::abandonStalledSends, check, check, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a subscription. With {@code lastEventId} (a change feed token) the changes after it are
+     * replayed first; without it the subscription starts with the next change.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        long[] position = lastEventId == null ? null : AccountChangeService.parseToken(lastEventId);
+        // No timeout of its own: the MVC async request timeout applies, and clients reconnect
+        SseEmitter emitter = new SseEmitter();
+        AccountEventSubscriber subscriber = new AccountEventSubscriber(emitter, bufferSize, writers, resyncs::increment,
+                () -> resizeWriters(-1));
+        if (position != null) {
+            subscriber.resumeAfter(position[0], position[1]);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        // Registered before the replay reads the feed, so nothing committed in between is missed
+        subscribers.add(subscriber);
+        writers.execute(() -> start(subscriber, lastEventId));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        synchronized (pending) {
+            pending.add(event);
+        }
+        release();
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        writers.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.getEmitter().complete());
+        subscribers.clear();
+    }
+
+    private void start(AccountEventSubscriber subscriber, String since) {
+        try {
+            if (since != null) {
+                replay(subscriber, since);
+            }
+        } catch (IOException | RuntimeException e) {
+            subscriber.close(e);
+            return;
+        }
+        subscriber.startLive();
+    }
+
+    private void replay(AccountEventSubscriber subscriber, String since) throws IOException {
+        String token = since;
+        int replayed = 0;
+        while (true) {
+            AccountChangePage page = accountChangeService.getChanges(token, MAX_PAGE_SIZE);
+            for (AccountChange change : page.getChanges()) {
+                subscriber.replay(change);
+            }
+            if (!page.isHasMore()) {
+                return;
+            }
+            replayed += page.getChanges().size();
+            if (replayed >= maxReplay) {
+                // Too far behind for a push stream; the client pages through the feed instead
+                resyncs.increment();
+                subscriber.resync();
+                return;
+            }
+            token = page.getNextToken();
+        }
+    }
+
+    // Hands every event up to the committed watermark to the subscribers, in feed order
+    private void release() {
+        synchronized (pending) {
+            long committedUpTo = accountChangeTracker.committedUpTo();
+            while (!pending.isEmpty() && pending.first().getChangeSeq() <= committedUpTo) {
+                AccountChangedEvent event = pending.pollFirst();
+                subscribers.removeIf(subscriber -> !subscriber.offer(event));
+            }
+        }
+    }
+
+    private void abandonStalledSends() {
+        for (AccountEventSubscriber subscriber : subscribers) {
+            if (subscriber.abandonIfStalled(sendTimeoutNanos)) {
+                subscribers.remove(subscriber);
+                stalls.increment();
+                resizeWriters(1);
+            }
+        }
+    }
+
+    // Counts a stalled send in or out; the pool keeps writerThreads threads free of them, up to double its size
+    private void resizeWriters(int change) {
+        synchronized (writers) {
+            stalledWriters += change;
+            int size = writerThreads + Math.min(stalledWriters, writerThreads);
+            if (size > writers.getMaximumPoolSize()) {
+                writers.setMaximumPoolSize(size);
+                writers.setCorePoolSize(size);
+            } else if (size < writers.getCorePoolSize()) {
+                writers.setCorePoolSize(size);
+                writers.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private void heartbeat() {
+        subscribers.removeIf(AccountEventSubscriber::isClosed);
+        for (AccountEventSubscriber subscriber : subscribers) {
+            writers.execute(subscriber::heartbeat);
+        }
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
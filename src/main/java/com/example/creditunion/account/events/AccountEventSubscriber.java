@@ -0,0 +1,254 @@
+package com.example.creditunion.account.events;
+
+import com.example.creditunion.account.model.AccountChange;
+import com.example.creditunion.account.service.AccountChangeService;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One SSE connection. Events wait in a bounded queue and are written by a shared executor, at most
+ * one task per subscriber at a time, so a connection holds no thread while it is idle. A subscriber
+ * whose queue fills up is sent a {@code resync} event and closed; it reconnects with its
+ * {@code Last-Event-ID} and catches up from the change feed. A task gives up its thread after a
+ * time slice, so a long backlog does not keep the other subscribers waiting. A send that stalls on
+ * a slow socket can be abandoned with {@link #abandonIfStalled}: the subscriber takes no more
+ * events and is closed once the send returns.
+ */
+class AccountEventSubscriber {
+
+    static final String CHANGE_EVENT = "account";
+    static final String RESYNC_EVENT = "resync";
+
+    // How long a task writes before it hands its thread to the next subscriber
+    private static final long DRAIN_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<AccountChangedEvent> queue;
+    private final Executor executor;
+    private final Runnable onOverflow;
+    private final Runnable onStallEnded;
+    // Set while a task owns the connection; starts set because the first task replays the backlog
+    private final AtomicBoolean writing = new AtomicBoolean(true);
+    private volatile boolean overflowed;
+    private volatile boolean closed;
+    // When the send in progress started, or 0; guarded by this, so a send cannot end unnoticed while
+    // it is being abandoned
+    private long sendStartedNanos;
+    private boolean abandoned;
+    // Feed position of the last change sent; only touched by the task that owns the connection
+    private long sentChangeSeq;
+    private long sentId;
+    private boolean sentAny;
+
+    /**
+     * {@code onStallEnded} runs on the writing thread when a send that was abandoned returns.
+     */
+    AccountEventSubscriber(SseEmitter emitter, int bufferSize, Executor executor, Runnable onOverflow,
+                           Runnable onStallEnded) {
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.executor = executor;
+        this.onOverflow = onOverflow;
+        this.onStallEnded = onStallEnded;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Starts the subscription after the change ({@code changeSeq}, {@code id}): changes at or
+     * before it are not sent again.
+     */
+    void resumeAfter(long changeSeq, long id) {
+        sentChangeSeq = changeSeq;
+        sentId = id;
+        sentAny = true;
+    }
+
+    /**
+     * Queues a live event without blocking. Returns false once the subscriber has closed.
+     */
+    boolean offer(AccountChangedEvent event) {
+        if (closed || isAbandoned()) {
+            return false;
+        }
+        if (!overflowed && !queue.offer(event)) {
+            overflowed = true;
+            onOverflow.run();
+        }
+        schedule();
+        return true;
+    }
+
+    /**
+     * Sends one change from the backlog; only called by the task that owns the connection.
+     */
+    void replay(AccountChange change) throws IOException {
+        send(change);
+    }
+
+    /**
+     * Ends the replay and hands the connection over to the live queue.
+     */
+    void startLive() {
+        writing.set(false);
+        if (!queue.isEmpty() || overflowed) {
+            schedule();
+        }
+    }
+
+    /**
+     * Tells the client to resynchronise from its last event id, then closes the connection.
+     */
+    void resync() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.clear();
+        try {
+            String since = sentAny ? AccountChangeService.token(sentChangeSeq, sentId) : null;
+            emit(SseEmitter.event().name(RESYNC_EVENT)
+                    .data(Collections.singletonMap("since", since), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Sends a comment line, keeping proxies from timing the connection out and surfacing dead clients.
+     */
+    void heartbeat() {
+        if (closed || !writing.compareAndSet(false, true)) {
+            // A busy connection needs no heartbeat
+            return;
+        }
+        try {
+            emit(SseEmitter.event().comment("heartbeat"));
+        } catch (IOException | IllegalStateException e) {
+            close(e);
+        } finally {
+            writing.set(false);
+        }
+        if (!queue.isEmpty() || overflowed) {
+            schedule();
+        }
+    }
+
+    void close(Throwable cause) {
+        if (!closed) {
+            closed = true;
+            queue.clear();
+            emitter.completeWithError(cause);
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Abandons the subscriber if a send has been blocked for longer than {@code timeoutNanos}.
+     * The blocked thread holds the emitter, so the connection is closed by that thread once the
+     * send returns, as it does when the socket's write timeout expires.
+     */
+    synchronized boolean abandonIfStalled(long timeoutNanos) {
+        if (abandoned || sendStartedNanos == 0 || System.nanoTime() - sendStartedNanos <= timeoutNanos) {
+            return false;
+        }
+        abandoned = true;
+        queue.clear();
+        return true;
+    }
+
+    private synchronized boolean isAbandoned() {
+        return abandoned;
+    }
+
+    private void schedule() {
+        if (!closed && writing.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                writing.set(false);
+                close(e);
+            }
+        }
+    }
+
+    private void drain() {
+        long sliceEnd = System.nanoTime() + DRAIN_SLICE_NANOS;
+        try {
+            AccountChangedEvent event;
+            while (!closed && !overflowed && System.nanoTime() - sliceEnd < 0 && (event = queue.poll()) != null) {
+                send(event.getAccount() == null
+                        ? AccountChange.deleted(event.getAccountId(), event.getChangeSeq())
+                        : AccountChange.written(event.getAccount()));
+            }
+            if (overflowed) {
+                resync();
+            }
+        } catch (IOException | IllegalStateException e) {
+            close(e);
+        } finally {
+            writing.set(false);
+        }
+        // An event offered after the loop saw an empty queue, but before the flag was cleared, needs a new
+        // task, as does a queue left over at the end of the slice
+        if (!queue.isEmpty() || (overflowed && !closed)) {
+            schedule();
+        }
+    }
+
+    private void send(AccountChange change) throws IOException {
+        // Live events arrive in feed order, so anything at or before the last change sent is a
+        // duplicate of the backlog replay
+        if (sentAny && (change.getChangeSeq() < sentChangeSeq
+                || (change.getChangeSeq() == sentChangeSeq && change.getId() <= sentId))) {
+            return;
+        }
+        emit(SseEmitter.event()
+                .id(AccountChangeService.token(change.getChangeSeq(), change.getId()))
+                .name(CHANGE_EVENT)
+                .data(change, MediaType.APPLICATION_JSON));
+        sentChangeSeq = change.getChangeSeq();
+        sentId = change.getId();
+        sentAny = true;
+    }
+
+    // Every write to the connection goes through here, so a stalled one can be found and abandoned
+    private void emit(SseEmitter.SseEventBuilder event) throws IOException {
+        synchronized (this) {
+            if (abandoned) {
+                throw new IOException("Abandoned after a stalled send");
+            }
+            sendStartedNanos = System.nanoTime();
+        }
+        boolean stalled;
+        try {
+            emitter.send(event);
+        } finally {
+            synchronized (this) {
+                sendStartedNanos = 0;
+                stalled = abandoned;
+            }
+            if (stalled) {
+                onStallEnded.run();
+            }
+        }
+        if (stalled) {
+            throw new IOException("Abandoned after a stalled send");
+        }
+    }
+}
@@ -1,31 +1,89 @@
 package com.example.creditunion.account.exception;
 
+import com.example.creditunion.account.metrics.AccountMetrics;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.ResponseEntity.BodyBuilder;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import java.sql.SQLTransientConnectionException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final AccountMetrics accountMetrics;
+
+    public GlobalExceptionHandler(AccountMetrics accountMetrics) {
+        this.accountMetrics = accountMetrics;
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ResponseEntity<String> handleNotFoundException(ResourceNotFoundException ex) {
+        accountMetrics.countError(ResourceNotFoundException.class);
         return ((BodyBuilder) ResponseEntity.notFound()).body(ex.getMessage());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<String> handleValidationException(MethodArgumentNotValidException ex) {
+        accountMetrics.countError(MethodArgumentNotValidException.class);
         return ResponseEntity.badRequest().body("Validation error: " + ex.getMessage());
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<String> handleInvalidRequestException(InvalidRequestException ex) {
+        accountMetrics.countError(InvalidRequestException.class);
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ResponseEntity<String> handlePreconditionFailedException(PreconditionFailedException ex) {
+        accountMetrics.countError(PreconditionFailedException.class);
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(NotSupportedException.class)
+    @ResponseStatus(HttpStatus.NOT_IMPLEMENTED)
+    public ResponseEntity<String> handleNotSupportedException(NotSupportedException ex) {
+        accountMetrics.countError(NotSupportedException.class);
+        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(ex.getMessage());
+    }
+
+    // No database connection within the bulkhead's (or the pool's) wait: the request may succeed if retried.
+    // Any other failure to reach the database is an error that a retry is not expected to fix.
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<String> handleDatabaseUnavailableException(RuntimeException ex) {
+        accountMetrics.countError(ex.getClass());
+        if (!causedByConnectionWait(ex)) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("The database could not be reached");
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("The database is busy, please retry");
+    }
+
+    // Both the bulkhead and the pool throw SQLTransientConnectionException when their wait runs out
+    private static boolean causedByConnectionWait(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @ExceptionHandler(InternalServerException.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ResponseEntity<String> handleInternalServerException(InternalServerException ex) {
+        accountMetrics.countError(InternalServerException.class);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ex.getMessage());
     }
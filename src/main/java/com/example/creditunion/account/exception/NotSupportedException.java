@@ -0,0 +1,13 @@
+package com.example.creditunion.account.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The operation exists but is unavailable in the current storage mode
+@ResponseStatus(HttpStatus.NOT_IMPLEMENTED)
+public class NotSupportedException extends RuntimeException {
+
+    public NotSupportedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.creditunion.account.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Account-specific meters that annotations cannot express: result-size distributions for the
+ * list and search operations, and counters for error outcomes. Operation timers come from
+ * {@code @Timed} on the services, HTTP timers from Spring MVC and repository timers from Spring Data.
+ */
+@Component
+public class AccountMetrics {
+
+    public static final String SERVICE_TIMER = "accounts.service";
+    public static final String RESULT_SIZE = "accounts.result.size";
+    public static final String ERRORS = "accounts.errors";
+
+    private final MeterRegistry meterRegistry;
+
+    public AccountMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Tagged by method to line up with the class/method tags TimedAspect puts on the service timers
+    public void recordResultSize(String method, int size) {
+        DistributionSummary.builder(RESULT_SIZE)
+                .description("Number of accounts returned")
+                .baseUnit("accounts")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1_000_000.0)
+                .register(meterRegistry)
+                .record(size);
+    }
+
+    public void countError(Class<? extends Throwable> exception) {
+        Counter.builder(ERRORS)
+                .description("Account requests that ended in an error response")
+                .tag("exception", exception.getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -1,20 +1,53 @@
 package com.example.creditunion.account.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 public class Account {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence rather than IDENTITY so Hibernate can batch inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_seq", allocationSize = 50)
     private Long id;
     private String firstName;
     private String lastName;
     private String address;
 
+    // Incremented on every write; exposed as the ETag. The default fills the column for existing rows.
+    // Read-only in JSON, so clients state the version they expect with If-Match rather than in the body.
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    // Position in the change feed, set from account_change_seq by every service write.
+    // Rows written before the feed existed, or outside the service, stay at 0.
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @JsonIgnore
+    private Long changeSeq = 0L;
+
+    // Upper-cased names the database generates (see V2__account_name_prefix_indexes.sql); indexed for
+    // prefix searches, and never written by the application
+    @Column(insertable = false, updatable = false)
+    @JsonIgnore
+    private String firstNameUpper;
+
+    @Column(insertable = false, updatable = false)
+    @JsonIgnore
+    private String lastNameUpper;
+
     // Getters and Setters
 
     public Long getId() {
@@ -48,5 +81,21 @@ public class Account {
     public void setAddress(String address) {
         this.address = address;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
 }
 
@@ -0,0 +1,49 @@
+package com.example.creditunion.account.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One entry of the change feed: the account as it is now, or a deletion marker.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AccountChange {
+
+    private final Long id;
+    private final boolean deleted;
+    private final Account account;
+    private final long changeSeq;
+
+    private AccountChange(Long id, boolean deleted, Account account, long changeSeq) {
+        this.id = id;
+        this.deleted = deleted;
+        this.account = account;
+        this.changeSeq = changeSeq;
+    }
+
+    public static AccountChange written(Account account) {
+        return new AccountChange(account.getId(), false, account, account.getChangeSeq());
+    }
+
+    public static AccountChange deleted(Long id, long changeSeq) {
+        return new AccountChange(id, true, null, changeSeq);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+
+    // With the id, the change's position in the feed; the page token already carries it
+    @JsonIgnore
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+}
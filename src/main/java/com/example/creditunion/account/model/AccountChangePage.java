@@ -0,0 +1,32 @@
+package com.example.creditunion.account.model;
+
+import java.util.List;
+
+/**
+ * One page of the change feed. {@code nextToken} is the {@code since} value for the next call;
+ * it is returned even when {@code hasMore} is false, so a client can store it and poll later.
+ */
+public class AccountChangePage {
+
+    private final List<AccountChange> changes;
+    private final String nextToken;
+    private final boolean hasMore;
+
+    public AccountChangePage(List<AccountChange> changes, String nextToken, boolean hasMore) {
+        this.changes = changes;
+        this.nextToken = nextToken;
+        this.hasMore = hasMore;
+    }
+
+    public List<AccountChange> getChanges() {
+        return changes;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
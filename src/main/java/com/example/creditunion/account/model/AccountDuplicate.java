@@ -0,0 +1,63 @@
+package com.example.creditunion.account.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A line of a duplicate scan's report: two accounts that probably belong to the same member, the
+ * lower id first, ranked from 1 by descending similarity.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_account_duplicate_scan", columnList = "scan_id, rank"))
+public class AccountDuplicate {
+
+    @Id
+    @GeneratedValue
+    @JsonIgnore
+    private Long id;
+
+    @Column(nullable = false)
+    @JsonIgnore
+    private Long scanId;
+
+    private long rank;
+    private long accountId;
+    private long duplicateId;
+    private double score;
+
+    protected AccountDuplicate() {
+    }
+
+    public AccountDuplicate(Long scanId, long rank, long accountId, long duplicateId, double score) {
+        this.scanId = scanId;
+        this.rank = rank;
+        this.accountId = accountId;
+        this.duplicateId = duplicateId;
+        this.score = score;
+    }
+
+    public Long getScanId() {
+        return scanId;
+    }
+
+    public long getRank() {
+        return rank;
+    }
+
+    public long getAccountId() {
+        return accountId;
+    }
+
+    public long getDuplicateId() {
+        return duplicateId;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
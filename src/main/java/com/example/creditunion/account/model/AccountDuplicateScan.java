@@ -0,0 +1,134 @@
+package com.example.creditunion.account.model;
+
+import com.example.creditunion.account.common.Constants;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A duplicate-member scan: how it was run, how much work it took and how many probable duplicates
+ * it found. Its ranked report is stored as {@link AccountDuplicate} rows.
+ */
+@Entity
+public class AccountDuplicateScan {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.QUEUED;
+
+    // Scoring threads the scan was run with
+    private int parallelism;
+    private long accountsScanned;
+    private long blocks;
+    private long pairsCompared;
+    private long duplicatesFound;
+    // Pairs kept in the report; the best duplicatesFound, up to the report size
+    private long duplicatesReported;
+
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    @Column(length = Constants.MAX_ERROR_LENGTH)
+    private String error;
+
+    protected AccountDuplicateScan() {
+    }
+
+    public AccountDuplicateScan(int parallelism) {
+        this.parallelism = parallelism;
+        this.createdAt = Instant.now();
+    }
+
+    public void start() {
+        status = Status.RUNNING;
+        startedAt = Instant.now();
+    }
+
+    public void complete(long accountsScanned, long blocks, long pairsCompared, long duplicatesFound,
+                         long duplicatesReported) {
+        this.accountsScanned = accountsScanned;
+        this.blocks = blocks;
+        this.pairsCompared = pairsCompared;
+        this.duplicatesFound = duplicatesFound;
+        this.duplicatesReported = duplicatesReported;
+        status = Status.COMPLETED;
+        finishedAt = Instant.now();
+    }
+
+    // Cut to fit the column, so recording the failure cannot fail too
+    public void fail(String error) {
+        status = Status.FAILED;
+        finishedAt = Instant.now();
+        this.error = error.length() > Constants.MAX_ERROR_LENGTH ? error.substring(0, Constants.MAX_ERROR_LENGTH) : error;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public long getAccountsScanned() {
+        return accountsScanned;
+    }
+
+    public long getBlocks() {
+        return blocks;
+    }
+
+    public long getPairsCompared() {
+        return pairsCompared;
+    }
+
+    public long getDuplicatesFound() {
+        return duplicatesFound;
+    }
+
+    public long getDuplicatesReported() {
+        return duplicatesReported;
+    }
+
+    // Accounts read and scored per second of the whole run, including writing the report
+    public double getAccountsPerSecond() {
+        if (startedAt == null || finishedAt == null) {
+            return 0;
+        }
+        long millis = Math.max(1, Duration.between(startedAt, finishedAt).toMillis());
+        return accountsScanned * 1000.0 / millis;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.creditunion.account.model;
+
+import com.example.creditunion.account.exception.InvalidRequestException;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Account properties a client may select with {@code fields=}. The id is always selected, since
+ * it identifies the row and serves as the pagination cursor.
+ */
+public enum AccountField {
+    ID("id"),
+    FIRST_NAME("firstName"),
+    LAST_NAME("lastName"),
+    ADDRESS("address");
+
+    private final String property;
+
+    AccountField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static Set<AccountField> parse(Collection<String> properties) {
+        Set<AccountField> fields = EnumSet.of(ID);
+        for (String property : properties) {
+            String name = property.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            fields.add(fromProperty(name));
+        }
+        return fields;
+    }
+
+    private static AccountField fromProperty(String property) {
+        for (AccountField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new InvalidRequestException("Unknown account field: " + property);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.creditunion.account.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A CSV row an import rejected. Rows are numbered from 1, not counting the header.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_account_import_error_job", columnList = "job_id, row_number"))
+public class AccountImportError {
+
+    @Id
+    @GeneratedValue
+    @JsonIgnore
+    private Long id;
+
+    @Column(nullable = false)
+    @JsonIgnore
+    private Long jobId;
+
+    private long rowNumber;
+
+    @Column(length = 1000)
+    private String message;
+
+    protected AccountImportError() {
+    }
+
+    public AccountImportError(Long jobId, long rowNumber, String message) {
+        this.jobId = jobId;
+        this.rowNumber = rowNumber;
+        this.message = message;
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
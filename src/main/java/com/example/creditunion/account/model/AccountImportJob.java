@@ -0,0 +1,145 @@
+package com.example.creditunion.account.model;
+
+import com.example.creditunion.account.common.Constants;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import java.time.Instant;
+
+/**
+ * A CSV import and its checkpoint: the byte offset and row count up to which rows have been
+ * committed. Progress is saved in the transaction that writes each chunk, so a resumed import
+ * continues exactly where the last committed chunk ended.
+ */
+@Entity
+public class AccountImportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.QUEUED;
+
+    // The uploaded file, kept until the import completes so a failed import can be resumed
+    @Column(nullable = false)
+    private String filePath;
+
+    private long fileSize;
+    private long checkpointOffset;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    // Rows read when the current run started, for its throughput
+    private long rowsReadAtStart;
+    @Column(length = Constants.MAX_ERROR_LENGTH)
+    private String error;
+
+    protected AccountImportJob() {
+    }
+
+    public AccountImportJob(String filePath, long fileSize) {
+        this.filePath = filePath;
+        this.fileSize = fileSize;
+        this.createdAt = Instant.now();
+    }
+
+    public void start() {
+        status = Status.RUNNING;
+        startedAt = Instant.now();
+        finishedAt = null;
+        rowsReadAtStart = rowsRead;
+        error = null;
+    }
+
+    /**
+     * Moves the checkpoint past a chunk of {@code read} rows ending at {@code offset}.
+     */
+    public void checkpoint(long offset, long read, long imported, long failed) {
+        checkpointOffset = offset;
+        rowsRead += read;
+        rowsImported += imported;
+        rowsFailed += failed;
+    }
+
+    public void complete() {
+        status = Status.COMPLETED;
+        finishedAt = Instant.now();
+    }
+
+    // Cut to fit the column, so recording the failure cannot fail too
+    public void fail(String error) {
+        status = Status.FAILED;
+        finishedAt = Instant.now();
+        this.error = error.length() > Constants.MAX_ERROR_LENGTH ? error.substring(0, Constants.MAX_ERROR_LENGTH) : error;
+    }
+
+    public void requeue() {
+        status = Status.QUEUED;
+        error = null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public long getCheckpointOffset() {
+        return checkpointOffset;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getRowsReadAtStart() {
+        return rowsReadAtStart;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
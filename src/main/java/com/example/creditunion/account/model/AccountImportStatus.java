@@ -0,0 +1,77 @@
+package com.example.creditunion.account.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * What the import status endpoint reports: the job's progress, the throughput of its current (or
+ * last) run and the first rejected rows.
+ */
+public class AccountImportStatus {
+
+    private final AccountImportJob job;
+    private final List<AccountImportError> errors;
+
+    public AccountImportStatus(AccountImportJob job, List<AccountImportError> errors) {
+        this.job = job;
+        this.errors = errors;
+    }
+
+    public Long getId() {
+        return job.getId();
+    }
+
+    public AccountImportJob.Status getStatus() {
+        return job.getStatus();
+    }
+
+    public long getRowsRead() {
+        return job.getRowsRead();
+    }
+
+    public long getRowsImported() {
+        return job.getRowsImported();
+    }
+
+    public long getRowsFailed() {
+        return job.getRowsFailed();
+    }
+
+    public long getBytesRead() {
+        return job.getCheckpointOffset();
+    }
+
+    public long getFileSize() {
+        return job.getFileSize();
+    }
+
+    public double getRowsPerSecond() {
+        if (job.getStartedAt() == null) {
+            return 0;
+        }
+        Instant end = job.getFinishedAt() != null ? job.getFinishedAt() : Instant.now();
+        long millis = Math.max(1, Duration.between(job.getStartedAt(), end).toMillis());
+        return (job.getRowsRead() - job.getRowsReadAtStart()) * 1000.0 / millis;
+    }
+
+    public Instant getCreatedAt() {
+        return job.getCreatedAt();
+    }
+
+    public Instant getStartedAt() {
+        return job.getStartedAt();
+    }
+
+    public Instant getFinishedAt() {
+        return job.getFinishedAt();
+    }
+
+    public String getError() {
+        return job.getError();
+    }
+
+    public List<AccountImportError> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.creditunion.account.model;
+
+import java.util.List;
+
+/**
+ * Result of looking up many accounts by id: the accounts that exist, in request order, and the
+ * requested ids that matched no account.
+ */
+public class AccountLookupResult {
+
+    private final List<Account> accounts;
+    private final List<Long> missingIds;
+
+    public AccountLookupResult(List<Account> accounts, List<Long> missingIds) {
+        this.accounts = accounts;
+        this.missingIds = missingIds;
+    }
+
+    public List<Account> getAccounts() {
+        return accounts;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+}
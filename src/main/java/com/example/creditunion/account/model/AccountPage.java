@@ -0,0 +1,31 @@
+package com.example.creditunion.account.model;
+
+import java.util.List;
+
+/**
+ * One keyset page of accounts ordered by id. {@code nextCursor} is the id to pass as
+ * {@code after} to fetch the following page, or {@code null} when this is the last page.
+ * Items are {@link Account} entities, or field maps when the page was read with a projection.
+ */
+public class AccountPage<T> {
+
+    private final List<T> items;
+    private final Long nextCursor;
+
+    public AccountPage(List<T> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
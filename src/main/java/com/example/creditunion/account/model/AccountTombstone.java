@@ -0,0 +1,62 @@
+package com.example.creditunion.account.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Marks a deleted account in the change feed, so sync clients learn about deletions as well as
+ * writes. Written in the same transaction as the delete.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_account_tombstone_change_seq", columnList = "change_seq, account_id"))
+public class AccountTombstone implements Persistable<Long> {
+
+    @Id
+    private Long accountId;
+
+    @Column(nullable = false)
+    private Long changeSeq;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected AccountTombstone() {
+    }
+
+    public AccountTombstone(Long accountId, Long changeSeq) {
+        this.accountId = accountId;
+        this.changeSeq = changeSeq;
+    }
+
+    @Override
+    public Long getId() {
+        return accountId;
+    }
+
+    // A fresh tombstone is persisted directly instead of save() first selecting for an existing row
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+}
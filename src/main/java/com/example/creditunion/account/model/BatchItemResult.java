@@ -0,0 +1,54 @@
+package com.example.creditunion.account.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one item of a bulk write. {@code index} is the item's position in the request.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    public enum Status {
+        CREATED, UPDATED, FAILED
+    }
+
+    private final int index;
+    private final Long id;
+    private final Status status;
+    private final String error;
+
+    private BatchItemResult(int index, Long id, Status status, String error) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BatchItemResult created(int index, Long id) {
+        return new BatchItemResult(index, id, Status.CREATED, null);
+    }
+
+    public static BatchItemResult updated(int index, Long id) {
+        return new BatchItemResult(index, id, Status.UPDATED, null);
+    }
+
+    public static BatchItemResult failed(int index, Long id, String error) {
+        return new BatchItemResult(index, id, Status.FAILED, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
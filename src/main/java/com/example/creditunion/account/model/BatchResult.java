@@ -0,0 +1,44 @@
+package com.example.creditunion.account.model;
+
+import java.util.List;
+
+public class BatchResult {
+
+    private final int created;
+    private final int updated;
+    private final int failed;
+    private final List<BatchItemResult> results;
+
+    public BatchResult(List<BatchItemResult> results) {
+        int created = 0;
+        int updated = 0;
+        int failed = 0;
+        for (BatchItemResult result : results) {
+            switch (result.getStatus()) {
+                case CREATED -> created++;
+                case UPDATED -> updated++;
+                case FAILED -> failed++;
+            }
+        }
+        this.created = created;
+        this.updated = updated;
+        this.failed = failed;
+        this.results = results;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<BatchItemResult> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.creditunion.account.repository;
+
+import com.example.creditunion.account.model.AccountDuplicate;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface AccountDuplicateRepository extends JpaRepository<AccountDuplicate, Long> {
+
+    // Keyset paging through a report: the lines ranked after the last one seen
+    List<AccountDuplicate> findByScanIdAndRankGreaterThanOrderByRankAsc(Long scanId, long rank, Limit limit);
+}
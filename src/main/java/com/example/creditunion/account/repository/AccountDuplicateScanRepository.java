@@ -0,0 +1,13 @@
+package com.example.creditunion.account.repository;
+
+import com.example.creditunion.account.model.AccountDuplicateScan;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AccountDuplicateScanRepository extends JpaRepository<AccountDuplicateScan, Long> {
+
+    List<AccountDuplicateScan> findByStatusIn(Collection<AccountDuplicateScan.Status> statuses);
+}
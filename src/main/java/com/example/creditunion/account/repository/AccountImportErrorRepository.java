@@ -0,0 +1,12 @@
+package com.example.creditunion.account.repository;
+
+import com.example.creditunion.account.model.AccountImportError;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface AccountImportErrorRepository extends JpaRepository<AccountImportError, Long> {
+
+    List<AccountImportError> findByJobIdOrderByRowNumberAsc(Long jobId);
+}
@@ -0,0 +1,13 @@
+package com.example.creditunion.account.repository;
+
+import com.example.creditunion.account.model.AccountImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AccountImportJobRepository extends JpaRepository<AccountImportJob, Long> {
+
+    List<AccountImportJob> findByStatusIn(Collection<AccountImportJob.Status> statuses);
+}
@@ -0,0 +1,26 @@
+package com.example.creditunion.account.repository;
+
+import com.example.creditunion.account.model.AccountField;
+import org.springframework.data.domain.Limit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads that select only the requested account columns. Each row is returned as a map from
+ * property name to value, in {@link AccountField} order, ready to be written as JSON.
+ */
+public interface AccountProjectionRepository {
+
+    Optional<Map<String, Object>> findFieldsById(Long id, Collection<AccountField> fields);
+
+    List<Map<String, Object>> findFieldsByIdGreaterThan(Long id, Collection<AccountField> fields, Limit limit);
+
+    // Same match as findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase, ordered by id
+    List<Map<String, Object>> findFieldsByNameContaining(String name, Collection<AccountField> fields);
+
+    // As above, restricted to the given ids
+    List<Map<String, Object>> findFieldsByIdInAndNameContaining(Collection<Long> ids, String name,
+                                                                Collection<AccountField> fields);
+}
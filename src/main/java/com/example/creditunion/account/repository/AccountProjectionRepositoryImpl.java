@@ -0,0 +1,109 @@
+package com.example.creditunion.account.repository;
+
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.model.AccountField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Limit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * Builds a tuple query per call so the SELECT list holds only the requested columns; Hibernate
+ * then neither reads nor hydrates the rest of the row.
+ */
+public class AccountProjectionRepositoryImpl implements AccountProjectionRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(Long id, Collection<AccountField> fields) {
+        List<Map<String, Object>> rows = query(fields, (cb, root) -> cb.equal(root.get("id"), id), null);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIdGreaterThan(Long id, Collection<AccountField> fields, Limit limit) {
+        return query(fields, (cb, root) -> cb.greaterThan(root.get("id"), id), limit);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByNameContaining(String name, Collection<AccountField> fields) {
+        return query(fields, (cb, root) -> nameContains(cb, root, name), null);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIdInAndNameContaining(Collection<Long> ids, String name,
+                                                                       Collection<AccountField> fields) {
+        return query(fields, (cb, root) -> cb.and(root.get("id").in(ids), nameContains(cb, root, name)), null);
+    }
+
+    private List<Map<String, Object>> query(Collection<AccountField> fields,
+                                            BiFunction<CriteriaBuilder, Root<Account>, Predicate> where,
+                                            Limit limit) {
+        // Always select the id, and keep a stable column order whatever order the caller asked in
+        EnumSet<AccountField> selected = EnumSet.of(AccountField.ID);
+        selected.addAll(fields);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Account> root = query.from(Account.class);
+        List<Selection<?>> columns = new ArrayList<>(selected.size());
+        for (AccountField field : selected) {
+            columns.add(root.get(field.getProperty()).alias(field.getProperty()));
+        }
+        query.multiselect(columns)
+                .where(where.apply(cb, root))
+                .orderBy(cb.asc(root.get("id")));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (limit != null && limit.isLimited()) {
+            typedQuery.setMaxResults(limit.max());
+        }
+        List<Tuple> tuples = typedQuery.getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (AccountField field : selected) {
+                row.put(field.getProperty(), tuple.get(field.getProperty()));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static Predicate nameContains(CriteriaBuilder cb, Root<Account> root, String name) {
+        String pattern = "%" + escapeLike(name.toUpperCase(Locale.ENGLISH)) + "%";
+        return cb.or(
+                cb.like(cb.upper(root.get("firstName")), pattern, LIKE_ESCAPE),
+                cb.like(cb.upper(root.get("lastName")), pattern, LIKE_ESCAPE));
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -1,11 +1,62 @@
 package com.example.creditunion.account.repository;
 
 import com.example.creditunion.account.model.Account;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.AvailableHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.AvailableHints.HINT_READ_ONLY;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountProjectionRepository,
+        AccountWriteRepository {
     List<Account> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName);
-}
\ No newline at end of file
+
+    // Prefix searches: the pattern is an upper-cased, escaped prefix followed by %, which the database
+    // turns into a range scan of the name's index, already in (name, id) order
+    @Query("select a from Account a where a.firstNameUpper like :pattern escape '\\' order by a.firstNameUpper, a.id")
+    List<Account> findByFirstNameUpperLike(@Param("pattern") String pattern, Limit limit);
+
+    @Query("select a from Account a where a.lastNameUpper like :pattern escape '\\' order by a.lastNameUpper, a.id")
+    List<Account> findByLastNameUpperLike(@Param("pattern") String pattern, Limit limit);
+
+    // Keyset page: seeks on the primary key index, so the cost does not grow with page depth
+    List<Account> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Change feed page: rows after the (changeSeq, id) position, up to a sequence every writer has committed
+    @Query("select a from Account a where (a.changeSeq > :changeSeq or (a.changeSeq = :changeSeq and a.id > :id)) "
+            + "and a.changeSeq <= :upTo order by a.changeSeq, a.id")
+    List<Account> findChangedAfter(@Param("changeSeq") long changeSeq, @Param("id") long id,
+                                   @Param("upTo") long upTo, Limit limit);
+
+    // Cursor-backed stream for exports; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select a from Account a order by a.id")
+    Stream<Account> streamAllByOrderByIdAsc();
+
+    // Reads one indexed column, for conditional requests that only need to compare versions
+    @Query("select a.version from Account a where a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Inserts with an id allocated elsewhere, which persist() would replace with a generated one
+    @Transactional
+    @Modifying
+    @Query("insert into Account (id, firstName, lastName, address, version, changeSeq) "
+            + "values (:id, :firstName, :lastName, :address, 0, :changeSeq)")
+    int insertWithId(@Param("id") Long id, @Param("changeSeq") long changeSeq,
+                     @Param("firstName") String firstName, @Param("lastName") String lastName,
+                     @Param("address") String address);
+}
@@ -0,0 +1,19 @@
+package com.example.creditunion.account.repository;
+
+import com.example.creditunion.account.model.AccountTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface AccountTombstoneRepository extends JpaRepository<AccountTombstone, Long> {
+
+    // Same keyset as AccountRepository.findChangedAfter, so the two can be merged into one feed
+    @Query("select t from AccountTombstone t where (t.changeSeq > :changeSeq or (t.changeSeq = :changeSeq "
+            + "and t.accountId > :id)) and t.changeSeq <= :upTo order by t.changeSeq, t.accountId")
+    List<AccountTombstone> findDeletedAfter(@Param("changeSeq") long changeSeq, @Param("id") long id,
+                                            @Param("upTo") long upTo, Limit limit);
+}
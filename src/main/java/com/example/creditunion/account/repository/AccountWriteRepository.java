@@ -0,0 +1,21 @@
+package com.example.creditunion.account.repository;
+
+import com.example.creditunion.account.model.Account;
+import java.util.Optional;
+
+/**
+ * Account writes that return the row they changed, as it was just before the statement, in the
+ * same round trip. Each is empty if no row was written. A null {@code version} writes whatever
+ * version the row is at; otherwise only that version is written.
+ */
+public interface AccountWriteRepository {
+
+    Optional<Account> updateDetails(Long id, Long version, long changeSeq,
+                                    String firstName, String lastName, String address);
+
+    // Null parameters leave the column unchanged
+    Optional<Account> patchDetails(Long id, Long version, long changeSeq,
+                                   String firstName, String lastName, String address);
+
+    Optional<Account> deleteRow(Long id, Long version);
+}
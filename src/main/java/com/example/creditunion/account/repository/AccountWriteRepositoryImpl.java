@@ -0,0 +1,85 @@
+package com.example.creditunion.account.repository;
+
+import com.example.creditunion.account.model.Account;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Runs each write inside H2's {@code old table (...)}, which yields the rows the statement changed
+ * as they were before it, read under the statement's own row lock. Bulk statements bypass
+ * Hibernate's versioning, so each update increments the version itself.
+ */
+public class AccountWriteRepositoryImpl implements AccountWriteRepository {
+
+    private static final String PREVIOUS = "select id, first_name, last_name, address, version, change_seq from old table (";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public Optional<Account> updateDetails(Long id, Long version, long changeSeq,
+                                           String firstName, String lastName, String address) {
+        return previous("update account set first_name = :firstName, last_name = :lastName, address = :address, "
+                        + "version = version + 1, change_seq = :changeSeq where id = :id",
+                id, version, details(changeSeq, firstName, lastName, address));
+    }
+
+    @Override
+    @Transactional
+    public Optional<Account> patchDetails(Long id, Long version, long changeSeq,
+                                          String firstName, String lastName, String address) {
+        return previous("update account set first_name = coalesce(:firstName, first_name), "
+                        + "last_name = coalesce(:lastName, last_name), address = coalesce(:address, address), "
+                        + "version = version + 1, change_seq = :changeSeq where id = :id",
+                id, version, details(changeSeq, firstName, lastName, address));
+    }
+
+    @Override
+    @Transactional
+    public Optional<Account> deleteRow(Long id, Long version) {
+        return previous("delete from account where id = :id", id, version, Map.of());
+    }
+
+    private static Map<String, Object> details(long changeSeq, String firstName, String lastName, String address) {
+        // Map.of rejects the null fields a patch leaves unchanged
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("changeSeq", changeSeq);
+        parameters.put("firstName", firstName);
+        parameters.put("lastName", lastName);
+        parameters.put("address", address);
+        return parameters;
+    }
+
+    private Optional<Account> previous(String write, Long id, Long version, Map<String, Object> parameters) {
+        // As @Modifying(flushAutomatically = true, clearAutomatically = true) on the JPQL writes
+        entityManager.flush();
+        Query query = entityManager.createNativeQuery(PREVIOUS + write + (version == null ? "" : " and version = :version") + ")")
+                .setParameter("id", id);
+        parameters.forEach(query::setParameter);
+        if (version != null) {
+            query.setParameter("version", version);
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        entityManager.clear();
+        return rows.stream().findFirst().map(AccountWriteRepositoryImpl::toAccount);
+    }
+
+    private static Account toAccount(Object[] row) {
+        Account account = new Account();
+        account.setId(((Number) row[0]).longValue());
+        account.setFirstName((String) row[1]);
+        account.setLastName((String) row[2]);
+        account.setAddress((String) row[3]);
+        account.setVersion(((Number) row[4]).longValue());
+        account.setChangeSeq(((Number) row[5]).longValue());
+        return account;
+    }
+}
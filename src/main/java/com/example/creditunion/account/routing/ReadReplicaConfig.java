@@ -0,0 +1,69 @@
+package com.example.creditunion.account.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Adds a read replica when {@code creditunion.datasource.replica.url} is set, as it is by the
+ * {@code replica} profile. {@code spring.datasource} then configures the primary pool and
+ * {@code creditunion.datasource.replica} the replica pool (username and password default to the
+ * primary's); the application's DataSource routes read-only transactions between them.
+ */
+@Configuration
+@ConditionalOnProperty("creditunion.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("creditunion.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${creditunion.datasource.replica.url}") String url,
+                                              @Value("${creditunion.datasource.replica.username:}") String username,
+                                              @Value("${creditunion.datasource.replica.password:}") String password) {
+        HikariDataSource replica = DataSourceBuilder.create(properties.getClassLoader())
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username.isEmpty() ? properties.determineUsername() : username)
+                .password(password.isEmpty() ? properties.determinePassword() : password)
+                .build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    public ReplicaLagGuard replicaLagGuard(@Qualifier("replicaDataSource") DataSource replica,
+                                           @Value("${creditunion.datasource.replica.poll-interval:200ms}") Duration pollInterval,
+                                           MeterRegistry meterRegistry) {
+        return new ReplicaLagGuard(replica, pollInterval, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagGuard replicaLagGuard, MeterRegistry meterRegistry) {
+        // Connections are fetched on the first statement, once the transaction is known to be read-only
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, replicaLagGuard, meterRegistry));
+    }
+}
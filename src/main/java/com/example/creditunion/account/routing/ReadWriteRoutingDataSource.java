@@ -0,0 +1,57 @@
+package com.example.creditunion.account.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica while {@link ReplicaLagGuard} says
+ * it has caught up, and everything else to the primary. The target is chosen when a connection is
+ * fetched, so this has to sit behind a LazyConnectionDataSourceProxy: a transaction manager fetches
+ * its connection before the transaction is marked read-only.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String READS = "accounts.db.reads";
+
+    private enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagGuard guard;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagGuard guard,
+                                      MeterRegistry meterRegistry) {
+        this.guard = guard;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+        this.replicaReads = Counter.builder(READS)
+                .description("Connections for read-only transactions, by the database that served them")
+                .tag("target", "replica")
+                .register(meterRegistry);
+        this.primaryReads = Counter.builder(READS)
+                .description("Connections for read-only transactions, by the database that served them")
+                .tag("target", "primary")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Target.PRIMARY;
+        }
+        if (guard.replicaIsCurrent()) {
+            replicaReads.increment();
+            return Target.REPLICA;
+        }
+        primaryReads.increment();
+        return Target.PRIMARY;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.creditunion.account.routing;
+
+import com.example.creditunion.account.events.AccountChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.creditunion.account.common.Constants.ID_LOOKUP_CHUNK_SIZE;
+
+/**
+ * Decides whether the replica is fresh enough to read from. Every account write carries a change
+ * sequence number; once a write through this instance has committed, the guard remembers the
+ * number its account has to reach and polls the replica until the account's row (or tombstone)
+ * there is at least that recent. Reads go to the replica only while it shows every such write, so
+ * a client that created or updated an account reads it back straight away, at the price of
+ * reading from the primary while the replica lags behind recent writes.
+ *
+ * Each account is checked on its own rather than against the replica's newest change: numbers are
+ * committed out of order, so a replica holding a later write can still lack an earlier one.
+ */
+public class ReplicaLagGuard {
+
+    public static final String LAG = "accounts.db.replica.lag";
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagGuard.class);
+
+    // The replica's newest write or delete, for the lag gauge. Both columns lead an index, so this is two index lookups.
+    private static final String POSITION_SQL = "select greatest("
+            + "coalesce((select max(change_seq) from account), -1), "
+            + "coalesce((select max(change_seq) from account_tombstone), -1))";
+
+    // Where the replica has the given accounts: a primary key lookup per id in each table
+    private static final String APPLIED_SQL = "select id, change_seq from account where id in (:ids) "
+            + "union all select account_id, change_seq from account_tombstone where account_id in (:ids)";
+
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    private final JdbcTemplate replica;
+    private final NamedParameterJdbcTemplate namedReplica;
+    // Accounts written through this instance that the replica does not show yet, with the change
+    // sequence number each has to reach there
+    private final Map<Long, Long> unapplied = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService poller;
+    private volatile long replicaPosition = UNKNOWN;
+    // The first failure and each recovery are logged, not every failed poll
+    private volatile boolean reachable = true;
+
+    public ReplicaLagGuard(DataSource replica, Duration pollInterval, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.namedReplica = new NamedParameterJdbcTemplate(this.replica);
+        Gauge.builder(LAG, this, ReplicaLagGuard::lag)
+                .description("How far, in change sequence numbers, the replica trails this instance's writes; -1 if unreachable")
+                .register(meterRegistry);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("replica-lag-");
+        threadFactory.setDaemon(true);
+        this.poller = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        poller.scheduleWithFixedDelay(this::refresh, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    /**
+     * Records a committed write made through this instance; reads stay on the primary until the
+     * replica shows the account at {@code changeSeq} or later. Rejected and rolled-back writes
+     * publish no event, so they are never waited for.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        recordWrite(event.getAccountId(), event.getChangeSeq());
+    }
+
+    public void recordWrite(long accountId, long changeSeq) {
+        unapplied.merge(accountId, changeSeq, Math::max);
+    }
+
+    /**
+     * True when the replica is reachable and shows every write recorded so far.
+     */
+    public boolean replicaIsCurrent() {
+        return replicaPosition != UNKNOWN && unapplied.isEmpty();
+    }
+
+    /**
+     * How far, in change sequence numbers, the replica trails the writes made through this instance
+     * (at least 1 while any is missing there), or -1 while the replica cannot be reached.
+     */
+    public long lag() {
+        long position = replicaPosition;
+        if (position == UNKNOWN) {
+            return -1;
+        }
+        long newest = unapplied.values().stream().mapToLong(Long::longValue).max().orElse(position);
+        return unapplied.isEmpty() ? 0 : Math.max(1, newest - position);
+    }
+
+    /**
+     * Reads the replica's position again. Called on a schedule; an unreachable replica sends every
+     * read to the primary until it answers again.
+     */
+    public void refresh() {
+        try {
+            Long position = replica.queryForObject(POSITION_SQL, Long.class);
+            forgetApplied();
+            replicaPosition = position != null ? position : UNKNOWN;
+        } catch (DataAccessException e) {
+            if (reachable) {
+                log.warn("Replica unreachable; reading from the primary", e);
+            }
+            reachable = false;
+            replicaPosition = UNKNOWN;
+            return;
+        }
+        if (!reachable) {
+            log.info("Replica reachable again");
+            reachable = true;
+        }
+    }
+
+    // Drops the accounts the replica has caught up on. A write recorded meanwhile only raises the
+    // number an account has to reach, so it is not dropped by a read taken before it.
+    private void forgetApplied() {
+        List<Long> ids = new ArrayList<>(unapplied.keySet());
+        for (int start = 0; start < ids.size(); start += ID_LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(start, Math.min(start + ID_LOOKUP_CHUNK_SIZE, ids.size()));
+            namedReplica.query(APPLIED_SQL, Map.of("ids", chunk), row -> {
+                long applied = row.getLong(2);
+                unapplied.computeIfPresent(row.getLong(1), (id, needed) -> applied >= needed ? null : needed);
+            });
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.creditunion.account.search;
+
+import org.apache.commons.codec.language.DoubleMetaphone;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Typo- and sound-tolerant name lookup. An account matches a query when its last name is within a
+ * few edits of it, found through a BK-tree of the distinct last names, or when its first or last
+ * name shares a Double Metaphone key with it, found through the distinct names filed under each
+ * key. Matches are ranked by the edit distance from the query to the closest matching name, then
+ * by id.
+ *
+ * Distances are computed once per distinct name, not per account, and each name's ids are kept
+ * sorted, so the lowest ids at a distance are merged off the front: a search costs about the same
+ * whether a name is held by one account or by thousands.
+ *
+ * Reads are lock-free; writes are serialized on the instance.
+ */
+public class FuzzyNameIndex {
+
+    private static final DoubleMetaphone METAPHONE = new DoubleMetaphone();
+
+    private final Map<Long, String[]> namesById = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Long>> idsByFirstName = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Long>> idsByLastName = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> firstNamesByKey = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> lastNamesByKey = new ConcurrentHashMap<>();
+    // Names are never removed from the tree or the keys: a name nobody holds any more has no ids left
+    private final BkTree lastNames = new BkTree();
+
+    public synchronized void put(Long id, String firstName, String lastName) {
+        remove(id);
+        String first = TrigramIndex.normalize(firstName);
+        String last = TrigramIndex.normalize(lastName);
+        namesById.put(id, new String[]{first, last});
+        if (!first.isEmpty()) {
+            idsOf(idsByFirstName, firstNamesByKey, first, false).add(id);
+        }
+        if (!last.isEmpty()) {
+            idsOf(idsByLastName, lastNamesByKey, last, true).add(id);
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        String[] names = namesById.remove(id);
+        if (names != null) {
+            removeFrom(idsByFirstName, names[0], id);
+            removeFrom(idsByLastName, names[1], id);
+        }
+    }
+
+    private static void removeFrom(Map<String, NavigableSet<Long>> idsByName, String name, Long id) {
+        NavigableSet<Long> ids = idsByName.get(name);
+        if (ids != null) {
+            ids.remove(id);
+        }
+    }
+
+    /**
+     * Ids of the best {@code limit} matches, best first.
+     */
+    public List<Long> search(Query query, int limit) {
+        Map<String, Integer> lastMatches = new HashMap<>();
+        lastNames.collect(query.name, query.maxEdits, lastMatches::put);
+        Map<String, Integer> firstMatches = new HashMap<>();
+        for (String key : query.keys) {
+            for (String name : lastNamesByKey.getOrDefault(key, Collections.emptySet())) {
+                lastMatches.computeIfAbsent(name, n -> levenshtein(query.name, n));
+            }
+            for (String name : firstNamesByKey.getOrDefault(key, Collections.emptySet())) {
+                firstMatches.computeIfAbsent(name, n -> levenshtein(query.name, n));
+            }
+        }
+        TreeMap<Integer, List<NavigableSet<Long>>> byDistance = new TreeMap<>();
+        lastMatches.forEach((name, distance) ->
+                byDistance.computeIfAbsent(distance, d -> new ArrayList<>()).add(idsByLastName.get(name)));
+        firstMatches.forEach((name, distance) ->
+                byDistance.computeIfAbsent(distance, d -> new ArrayList<>()).add(idsByFirstName.get(name)));
+
+        // Closest distance first; within one, the lowest ids, merged from the names' sorted ids until
+        // enough are found. An account found again at a greater distance was ranked by its closer name.
+        List<Long> ranked = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (List<NavigableSet<Long>> level : byDistance.values()) {
+            PriorityQueue<PeekingIterator> heads = new PriorityQueue<>(Comparator.comparingLong(PeekingIterator::peek));
+            for (NavigableSet<Long> ids : level) {
+                PeekingIterator head = new PeekingIterator(ids.iterator());
+                if (head.hasNext()) {
+                    heads.add(head);
+                }
+            }
+            while (ranked.size() < limit && !heads.isEmpty()) {
+                PeekingIterator head = heads.poll();
+                Long id = head.next();
+                if (seen.add(id)) {
+                    ranked.add(id);
+                }
+                if (head.hasNext()) {
+                    heads.add(head);
+                }
+            }
+            if (ranked.size() >= limit) {
+                break;
+            }
+        }
+        return ranked;
+    }
+
+    public int size() {
+        return namesById.size();
+    }
+
+    public static Query query(String name) {
+        return new Query(name);
+    }
+
+    /**
+     * A normalized query with its phonetic keys and edit budget, shared by the index and the exact
+     * checks callers run on the rows they load.
+     */
+    public static final class Query {
+
+        private final String name;
+        private final Set<String> keys;
+        private final int maxEdits;
+
+        private Query(String name) {
+            this.name = TrigramIndex.normalize(name.trim());
+            this.keys = phoneticKeys(this.name);
+            // As Lucene's AUTO fuzziness: exact below three characters, one edit up to five, then two
+            this.maxEdits = this.name.length() < 3 ? 0 : this.name.length() <= 5 ? 1 : 2;
+        }
+
+        /**
+         * How far the query is from the closest matching name, or -1 when neither name matches. As
+         * in the index, a last name matches within the edit budget or by sound, a first name by sound.
+         */
+        public int distance(String firstName, String lastName) {
+            int distance = -1;
+            String last = TrigramIndex.normalize(lastName);
+            if (!last.isEmpty()) {
+                int toLast = levenshtein(name, last);
+                if (toLast <= maxEdits || soundsLike(last)) {
+                    distance = toLast;
+                }
+            }
+            String first = TrigramIndex.normalize(firstName);
+            if (!first.isEmpty() && soundsLike(first)) {
+                int toFirst = levenshtein(name, first);
+                distance = distance < 0 ? toFirst : Math.min(distance, toFirst);
+            }
+            return distance;
+        }
+
+        private boolean soundsLike(String name) {
+            for (String key : phoneticKeys(name)) {
+                if (keys.contains(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static Set<String> phoneticKeys(String name) {
+        Set<String> keys = new HashSet<>();
+        String primary = METAPHONE.doubleMetaphone(name, false);
+        if (primary != null && !primary.isEmpty()) {
+            keys.add(primary);
+            keys.add(METAPHONE.doubleMetaphone(name, true));
+        }
+        return keys;
+    }
+
+    // The ids holding a name; a name seen for the first time is filed under its keys (and in the tree)
+    private NavigableSet<Long> idsOf(Map<String, NavigableSet<Long>> idsByName, Map<String, Set<String>> namesByKey,
+                            String name, boolean inTree) {
+        NavigableSet<Long> ids = idsByName.get(name);
+        if (ids == null) {
+            for (String key : phoneticKeys(name)) {
+                namesByKey.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(name);
+            }
+            if (inTree) {
+                lastNames.add(name);
+            }
+            ids = new ConcurrentSkipListSet<>();
+            idsByName.put(name, ids);
+        }
+        return ids;
+    }
+
+    // Burkhard-Keller tree under edit distance: by the triangle inequality, names within d edits of
+    // the query can only hang below edges within d of the query's distance to the parent
+    private static final class BkTree {
+
+        private volatile Node root;
+
+        void add(String name) {
+            if (root == null) {
+                root = new Node(name);
+                return;
+            }
+            Node node = root;
+            while (true) {
+                int distance = levenshtein(name, node.name);
+                if (distance == 0) {
+                    return;
+                }
+                Node child = node.children.putIfAbsent(distance, new Node(name));
+                if (child == null) {
+                    return;
+                }
+                node = child;
+            }
+        }
+
+        void collect(String query, int maxEdits, ObjIntConsumer<String> matches) {
+            if (root == null) {
+                return;
+            }
+            List<Node> pending = new ArrayList<>();
+            pending.add(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.remove(pending.size() - 1);
+                int distance = levenshtein(query, node.name);
+                if (distance <= maxEdits) {
+                    matches.accept(node.name, distance);
+                }
+                for (int edge = Math.max(1, distance - maxEdits); edge <= distance + maxEdits; edge++) {
+                    Node child = node.children.get(edge);
+                    if (child != null) {
+                        pending.add(child);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class PeekingIterator {
+
+        private final Iterator<Long> ids;
+        private Long next;
+
+        PeekingIterator(Iterator<Long> ids) {
+            this.ids = ids;
+            this.next = ids.hasNext() ? ids.next() : null;
+        }
+
+        boolean hasNext() {
+            return next != null;
+        }
+
+        long peek() {
+            return next;
+        }
+
+        Long next() {
+            Long current = next;
+            next = ids.hasNext() ? ids.next() : null;
+            return current;
+        }
+    }
+
+    private static final class Node {
+
+        private final String name;
+        private final Map<Integer, Node> children = new ConcurrentHashMap<>();
+
+        Node(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.creditunion.account.search;
+
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.repository.AccountRepository;
+import com.example.creditunion.account.sharding.AccountShards;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.example.creditunion.account.common.Constants.STREAM_CLEAR_INTERVAL;
+
+/**
+ * Trigram index over account first and last names, used to answer substring name searches
+ * without a table scan, and a {@link FuzzyNameIndex} over the same names for fuzzy searches. Both
+ * are rebuilt from the database once the application is ready and then kept current by the
+ * account write paths. Until the rebuild finishes {@link #candidates} and {@link #fuzzyMatches}
+ * return empty and callers fall back to the database.
+ */
+@Component
+public class NameSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(NameSearchIndex.class);
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountShards accountShards;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile TrigramIndex index = new TrigramIndex();
+    private volatile FuzzyNameIndex fuzzyIndex = new FuzzyNameIndex();
+    private volatile boolean ready;
+
+    // Names written while a rebuild is streaming, replayed over the rebuilt index.
+    // A null value records a removal.
+    private Map<Long, String[]> pendingWrites;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        synchronized (this) {
+            ready = false;
+            pendingWrites = new LinkedHashMap<>();
+        }
+        TrigramIndex rebuilt = new TrigramIndex();
+        FuzzyNameIndex rebuiltFuzzy = new FuzzyNameIndex();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        // One streaming read per shard, each in its own transaction
+        for (int shard = 0; shard < accountShards.count(); shard++) {
+            accountShards.on(shard, () -> readOnly.execute(status -> {
+                try (Stream<Account> accounts = accountRepository.streamAllByOrderByIdAsc()) {
+                    Iterator<Account> iterator = accounts.iterator();
+                    long count = 0;
+                    while (iterator.hasNext()) {
+                        Account account = iterator.next();
+                        rebuilt.put(account.getId(), account.getFirstName(), account.getLastName());
+                        rebuiltFuzzy.put(account.getId(), account.getFirstName(), account.getLastName());
+                        if (++count % STREAM_CLEAR_INTERVAL == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        synchronized (this) {
+            pendingWrites.forEach((id, names) -> apply(rebuilt, rebuiltFuzzy, id, names));
+            pendingWrites = null;
+            index = rebuilt;
+            fuzzyIndex = rebuiltFuzzy;
+            ready = true;
+        }
+        log.info("Rebuilt name search index with {} accounts in {} ms",
+                rebuilt.size(), System.currentTimeMillis() - started);
+    }
+
+    public void index(Account account) {
+        write(account.getId(), new String[]{account.getFirstName(), account.getLastName()});
+    }
+
+    public void remove(Long id) {
+        write(id, null);
+    }
+
+    /**
+     * Ids of accounts whose first or last name may contain {@code name}, ignoring case. Empty when
+     * the index cannot answer: before the first rebuild completes, or for names shorter than a
+     * trigram.
+     */
+    public Optional<Set<Long>> candidates(String name) {
+        if (!ready || name.length() < TrigramIndex.GRAM_LENGTH) {
+            return Optional.empty();
+        }
+        return Optional.of(index.candidates(name));
+    }
+
+    /**
+     * Ids of the best {@code limit} fuzzy matches of {@code query}, best first. Empty before the
+     * first rebuild completes.
+     */
+    public Optional<List<Long>> fuzzyMatches(FuzzyNameIndex.Query query, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return Optional.of(fuzzyIndex.search(query, limit));
+    }
+
+    /**
+     * Exact check with the same semantics as {@code ContainingIgnoreCase} on either name.
+     */
+    public static boolean matches(Account account, String name) {
+        String needle = TrigramIndex.normalize(name);
+        return TrigramIndex.normalize(account.getFirstName()).contains(needle)
+                || TrigramIndex.normalize(account.getLastName()).contains(needle);
+    }
+
+    private synchronized void write(Long id, String[] names) {
+        if (pendingWrites != null) {
+            pendingWrites.put(id, names);
+        }
+        apply(index, fuzzyIndex, id, names);
+    }
+
+    private static void apply(TrigramIndex target, FuzzyNameIndex fuzzyTarget, Long id, String[] names) {
+        if (names == null) {
+            target.remove(id);
+            fuzzyTarget.remove(id);
+        } else {
+            target.put(id, names);
+            fuzzyTarget.put(id, names[0], names[1]);
+        }
+    }
+}
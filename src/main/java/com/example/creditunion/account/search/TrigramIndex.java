@@ -0,0 +1,110 @@
+package com.example.creditunion.account.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index from upper-cased character trigrams to the ids of the documents containing them.
+ * Any text that contains a query string also contains every trigram of that query, so intersecting
+ * the postings of the query's trigrams yields a superset of the true matches. Callers verify the
+ * candidates exactly.
+ *
+ * Reads are lock-free; writes are serialized on the instance.
+ */
+public class TrigramIndex {
+
+    public static final int GRAM_LENGTH = 3;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> gramsById = new ConcurrentHashMap<>();
+
+    public synchronized void put(Long id, String... texts) {
+        Set<String> grams = new HashSet<>();
+        for (String text : texts) {
+            grams.addAll(trigrams(text));
+        }
+        Set<String> previous = gramsById.put(id, grams);
+        if (previous != null) {
+            for (String gram : previous) {
+                if (!grams.contains(gram)) {
+                    removePosting(gram, id);
+                }
+            }
+        }
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        Set<String> previous = gramsById.remove(id);
+        if (previous != null) {
+            for (String gram : previous) {
+                removePosting(gram, id);
+            }
+        }
+    }
+
+    /**
+     * Ids of documents that may contain {@code query}. Only meaningful for queries of at least
+     * {@link #GRAM_LENGTH} characters; shorter queries have no trigrams to look up.
+     */
+    public Set<Long> candidates(String query) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : trigrams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null || ids.isEmpty()) {
+                return Collections.emptySet();
+            }
+            lists.add(ids);
+        }
+        if (lists.isEmpty()) {
+            return Collections.emptySet();
+        }
+        // Walk the shortest posting list and probe the others
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>();
+        for (Long id : lists.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(id);
+            }
+            if (inAll) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return gramsById.size();
+    }
+
+    public static String normalize(String text) {
+        // H2's UPPER() uses English case rules
+        return text == null ? "" : text.toUpperCase(Locale.ENGLISH);
+    }
+
+    static Set<String> trigrams(String text) {
+        String normalized = normalize(text);
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private void removePosting(String gram, Long id) {
+        postings.computeIfPresent(gram, (g, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
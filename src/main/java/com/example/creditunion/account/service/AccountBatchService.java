@@ -0,0 +1,218 @@
+package com.example.creditunion.account.service;
+
+import com.example.creditunion.account.audit.AccountAuditJournal;
+import com.example.creditunion.account.audit.AuditRecord;
+import com.example.creditunion.account.events.AccountChangedEvent;
+import com.example.creditunion.account.exception.NotSupportedException;
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.model.BatchItemResult;
+import com.example.creditunion.account.model.BatchResult;
+import com.example.creditunion.account.repository.AccountRepository;
+import com.example.creditunion.account.search.NameSearchIndex;
+import com.example.creditunion.account.sharding.AccountShards;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static com.example.creditunion.account.common.Constants.ACCOUNT_CACHE;
+import static com.example.creditunion.account.common.Constants.BATCH_CHUNK_SIZE;
+import static com.example.creditunion.account.metrics.AccountMetrics.SERVICE_TIMER;
+
+/**
+ * Creates and updates accounts in bulk. Items are written in chunks of {@code BATCH_CHUNK_SIZE},
+ * each in its own transaction, and Hibernate groups the inserts/updates of a chunk into JDBC
+ * batches. Items without an id are created; items with an id update the existing account. Each
+ * committed row is recorded in the audit journal, as the single-account writes are.
+ */
+@Service
+public class AccountBatchService {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private AccountLoadCoalescer accountLoadCoalescer;
+
+    @Autowired
+    private AccountChangeTracker accountChangeTracker;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AccountShards accountShards;
+
+    @Autowired
+    private AccountAuditJournal accountAuditJournal;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public AccountBatchService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public BatchResult saveAll(List<Account> accounts) {
+        requireSingleShard();
+        List<BatchItemResult> results = new ArrayList<>(accounts.size());
+        for (int start = 0; start < accounts.size(); start += BATCH_CHUNK_SIZE) {
+            int end = Math.min(start + BATCH_CHUNK_SIZE, accounts.size());
+            results.addAll(writeChunk(accounts.subList(start, end), start));
+        }
+        return new BatchResult(results);
+    }
+
+    /**
+     * Writes {@code chunk} in a single transaction, without the row-by-row retry of {@link #saveAll}.
+     * {@code inTransaction} runs with the chunk's results inside that transaction, so a caller can
+     * record its own progress atomically with the rows.
+     */
+    public List<BatchItemResult> saveChunk(List<Account> chunk, Consumer<List<BatchItemResult>> inTransaction) {
+        requireSingleShard();
+        return commit(chunk, 0, inTransaction);
+    }
+
+    /**
+     * Fails unless accounts live in a single database: a chunk's transaction cannot span shards.
+     */
+    public void requireSingleShard() {
+        if (accountShards.isSharded()) {
+            throw new NotSupportedException("Batch writes and imports are not available with sharded storage");
+        }
+    }
+
+    private List<BatchItemResult> writeChunk(List<Account> chunk, int offset) {
+        try {
+            return commit(chunk, offset, committed -> { });
+        } catch (RuntimeException e) {
+            // A failing row rolls back its whole chunk; replay it row by row so only that row fails
+            List<BatchItemResult> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = offset + i;
+                Account account = chunk.get(i);
+                try {
+                    results.addAll(commit(List.of(account), index, committed -> { }));
+                } catch (RuntimeException ex) {
+                    results.add(BatchItemResult.failed(index, account.getId(), ex.getMessage()));
+                }
+            }
+            return results;
+        }
+    }
+
+    private List<BatchItemResult> commit(List<Account> chunk, int offset,
+                                         Consumer<List<BatchItemResult>> inTransaction) {
+        List<AccountChangedEvent> written = new ArrayList<>(chunk.size());
+        Map<Long, Account> before = new HashMap<>();
+        // One change sequence number per chunk: its rows become visible to the change feed together
+        List<BatchItemResult> results = accountChangeTracker.track(changeSeq ->
+                transactionTemplate.execute(status -> {
+                    List<BatchItemResult> chunkResults = writeInTransaction(chunk, offset, changeSeq, written, before);
+                    inTransaction.accept(chunkResults);
+                    return chunkResults;
+                }));
+        Cache cache = cacheManager.getCache(ACCOUNT_CACHE);
+        for (AccountChangedEvent event : written) {
+            cache.evict(event.getAccountId());
+            accountLoadCoalescer.invalidate(event.getAccountId());
+            nameSearchIndex.index(event.getAccount());
+            AuditRecord.Action action = event.getType() == AccountChangedEvent.Type.CREATED
+                    ? AuditRecord.Action.CREATED : AuditRecord.Action.UPDATED;
+            accountAuditJournal.record(action, event.getAccountId(), event.getChangeSeq(),
+                    before.get(event.getAccountId()), event.getAccount());
+        }
+        // Rows sharing a change sequence number sit in id order in the feed; publish them the same way
+        written.sort(Comparator.comparing(AccountChangedEvent::getAccountId));
+        written.forEach(eventPublisher::publishEvent);
+        return results;
+    }
+
+    // Fills written with the rows as written and before with the updated rows as they were loaded
+    private List<BatchItemResult> writeInTransaction(List<Account> chunk, int offset, long changeSeq,
+                                                     List<AccountChangedEvent> written, Map<Long, Account> before) {
+        // Rows to update are loaded with one IN query rather than a select per item
+        Set<Long> ids = new HashSet<>();
+        for (Account account : chunk) {
+            if (account.getId() != null) {
+                ids.add(account.getId());
+            }
+        }
+        Map<Long, Account> existing = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Account account : accountRepository.findAllById(ids)) {
+                existing.put(account.getId(), account);
+            }
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Account item = chunk.get(i);
+            int index = offset + i;
+            if (item.getId() == null) {
+                // Persist a copy so a rolled-back chunk leaves no generated id on the caller's object
+                Account account = new Account();
+                copyDetails(item, account);
+                account.setChangeSeq(changeSeq);
+                entityManager.persist(account);
+                written.add(AccountChangedEvent.created(account));
+                results.add(BatchItemResult.created(index, account.getId()));
+            } else {
+                Account account = existing.get(item.getId());
+                if (account == null) {
+                    results.add(BatchItemResult.failed(index, item.getId(), "Account not found with id " + item.getId()));
+                    continue;
+                }
+                before.computeIfAbsent(account.getId(), id -> snapshot(account));
+                copyDetails(item, account);
+                account.setChangeSeq(changeSeq);
+                written.add(AccountChangedEvent.updated(account));
+                results.add(BatchItemResult.updated(index, account.getId()));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return results;
+    }
+
+    // The loaded row is changed in place, so its before image has to be copied out first
+    private static Account snapshot(Account account) {
+        Account copy = new Account();
+        copy.setId(account.getId());
+        copyDetails(account, copy);
+        copy.setVersion(account.getVersion());
+        copy.setChangeSeq(account.getChangeSeq());
+        return copy;
+    }
+
+    private static void copyDetails(Account from, Account to) {
+        to.setFirstName(from.getFirstName());
+        to.setLastName(from.getLastName());
+        to.setAddress(from.getAddress());
+    }
+}
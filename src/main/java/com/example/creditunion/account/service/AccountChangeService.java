@@ -0,0 +1,129 @@
+package com.example.creditunion.account.service;
+
+import com.example.creditunion.account.exception.InvalidRequestException;
+import com.example.creditunion.account.metrics.AccountMetrics;
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.model.AccountChange;
+import com.example.creditunion.account.model.AccountChangePage;
+import com.example.creditunion.account.model.AccountTombstone;
+import com.example.creditunion.account.repository.AccountRepository;
+import com.example.creditunion.account.repository.AccountTombstoneRepository;
+import com.example.creditunion.account.sharding.AccountShards;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.example.creditunion.account.metrics.AccountMetrics.SERVICE_TIMER;
+
+/**
+ * Delta sync: the accounts written and deleted since a token, in change order. Each page is two
+ * keyset reads on the (changeSeq, id) indexes, so a sync costs time in the number of changes
+ * rather than the size of the table. Tokens are opaque to clients.
+ */
+@Service
+public class AccountChangeService {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountTombstoneRepository accountTombstoneRepository;
+
+    @Autowired
+    private AccountChangeTracker accountChangeTracker;
+
+    @Autowired
+    private AccountMetrics accountMetrics;
+
+    @Autowired
+    private AccountShards accountShards;
+
+    // Read-write, so it always reads the primary: committedUpTo is the primary's position, and a
+    // page read from a lagging replica would move the token past changes it has not applied yet
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional
+    public AccountChangePage getChanges(String since, int limit) {
+        // Without a token the feed starts before every row, so the first sync is a full one
+        long changeSeq = -1;
+        long id = -1;
+        if (since != null) {
+            long[] position = parseToken(since);
+            changeSeq = position[0];
+            id = position[1];
+        }
+        long upTo = accountChangeTracker.committedUpTo();
+        long afterSeq = changeSeq;
+        long afterId = id;
+        // Each shard's first limit + 1 changes include every shard's share of the page
+        List<Account> written = new ArrayList<>();
+        List<AccountTombstone> deleted = new ArrayList<>();
+        for (List<Account> rows : accountShards.onEach(shard ->
+                accountRepository.findChangedAfter(afterSeq, afterId, upTo, Limit.of(limit + 1)))) {
+            written.addAll(rows);
+        }
+        for (List<AccountTombstone> rows : accountShards.onEach(shard ->
+                accountTombstoneRepository.findDeletedAfter(afterSeq, afterId, upTo, Limit.of(limit + 1)))) {
+            deleted.addAll(rows);
+        }
+        if (accountShards.isSharded()) {
+            written.sort(Comparator.comparing(Account::getChangeSeq).thenComparing(Account::getId));
+            deleted.sort(Comparator.comparing(AccountTombstone::getChangeSeq).thenComparing(AccountTombstone::getAccountId));
+        }
+
+        // Both lists are ordered by (changeSeq, id); merge them and keep the first page
+        List<AccountChange> changes = new ArrayList<>(Math.min(limit, written.size() + deleted.size()));
+        int w = 0;
+        int d = 0;
+        while (changes.size() < limit && (w < written.size() || d < deleted.size())) {
+            if (d == deleted.size() || (w < written.size() && comesFirst(written.get(w), deleted.get(d)))) {
+                Account account = written.get(w++);
+                changeSeq = account.getChangeSeq();
+                id = account.getId();
+                changes.add(AccountChange.written(account));
+            } else {
+                AccountTombstone tombstone = deleted.get(d++);
+                changeSeq = tombstone.getChangeSeq();
+                id = tombstone.getAccountId();
+                changes.add(AccountChange.deleted(tombstone.getAccountId(), tombstone.getChangeSeq()));
+            }
+        }
+        boolean hasMore = w < written.size() || d < deleted.size();
+        accountMetrics.recordResultSize("getChanges", changes.size());
+        String nextToken = changes.isEmpty() ? since : token(changeSeq, id);
+        return new AccountChangePage(changes, nextToken, hasMore);
+    }
+
+    /**
+     * The token for the feed position just after the change ({@code changeSeq}, {@code id}).
+     */
+    public static String token(long changeSeq, long id) {
+        return changeSeq + "." + id;
+    }
+
+    private static boolean comesFirst(Account account, AccountTombstone tombstone) {
+        int bySeq = Long.compare(account.getChangeSeq(), tombstone.getChangeSeq());
+        return bySeq != 0 ? bySeq < 0 : account.getId() < tombstone.getAccountId();
+    }
+
+    /**
+     * The (changeSeq, id) position a token stands for.
+     *
+     * @throws InvalidRequestException if the token is malformed
+     */
+    public static long[] parseToken(String token) {
+        int dot = token.indexOf('.');
+        try {
+            if (dot > 0) {
+                return new long[]{Long.parseLong(token.substring(0, dot)), Long.parseLong(token.substring(dot + 1))};
+            }
+        } catch (NumberFormatException e) {
+            // Falls through to the error below
+        }
+        throw new InvalidRequestException("Invalid change token: " + token);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.creditunion.account.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out change sequence numbers to account writes and remembers which are not yet committed.
+ * Writes can commit out of order, so the change feed only reads up to {@link #committedUpTo()}:
+ * a reader that moved past a number still in flight would never see that write.
+ */
+@Component
+public class AccountChangeTracker {
+
+    private final LongSupplier allocator;
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private long lastAllocated;
+
+    // account_change_seq is created by the V1 migration, which runs before the JdbcTemplate exists
+    @Autowired
+    public AccountChangeTracker(JdbcTemplate jdbcTemplate) {
+        this(() -> jdbcTemplate.queryForObject("select next value for account_change_seq", Long.class),
+                jdbcTemplate.queryForObject("select base_value - 1 from information_schema.sequences "
+                        + "where sequence_name = 'ACCOUNT_CHANGE_SEQ'", Long.class));
+    }
+
+    AccountChangeTracker(LongSupplier allocator, long lastAllocated) {
+        this.allocator = allocator;
+        this.lastAllocated = lastAllocated;
+    }
+
+    /**
+     * Runs {@code write} with a fresh change sequence number, which counts as in flight until the
+     * write has committed: when it returns, or when the caller's transaction completes.
+     */
+    public <T> T track(LongFunction<T> write) {
+        long changeSeq = begin();
+        try {
+            return write.apply(changeSeq);
+        } finally {
+            release(changeSeq);
+        }
+    }
+
+    /**
+     * Registers a callback run whenever a write leaves flight, i.e. whenever {@link #committedUpTo()}
+     * may have moved.
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * The highest change sequence number below which every write has committed or rolled back.
+     */
+    public synchronized long committedUpTo() {
+        return inFlight.isEmpty() ? lastAllocated : inFlight.first() - 1;
+    }
+
+    // Allocation and registration happen under one lock, so committedUpTo never sees a number
+    // that was handed out but not yet registered
+    private synchronized long begin() {
+        long changeSeq = allocator.getAsLong();
+        inFlight.add(changeSeq);
+        lastAllocated = Math.max(lastAllocated, changeSeq);
+        return changeSeq;
+    }
+
+    private void release(long changeSeq) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    finish(changeSeq);
+                }
+            });
+        } else {
+            finish(changeSeq);
+        }
+    }
+
+    private void finish(long changeSeq) {
+        synchronized (this) {
+            inFlight.remove(changeSeq);
+        }
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+}
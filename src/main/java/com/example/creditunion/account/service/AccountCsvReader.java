@@ -0,0 +1,130 @@
+package com.example.creditunion.account.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 records (quoted fields, doubled quotes, CRLF or LF line ends) from a UTF-8 file
+ * through a buffered channel. It tracks the byte offset after each record, so a reader can be
+ * positioned back at a checkpoint without re-reading the rows before it.
+ */
+class AccountCsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final ByteArrayOutputStream field = new ByteArrayOutputStream();
+    // Offset of the next unread byte
+    private long position;
+
+    AccountCsvReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        buffer.flip();
+    }
+
+    void seek(long offset) throws IOException {
+        channel.position(offset);
+        buffer.clear().flip();
+        position = offset;
+    }
+
+    /**
+     * The byte offset just after the last record read.
+     */
+    long position() {
+        return position;
+    }
+
+    /**
+     * The fields of the next record, or null at the end of the file. A blank line is one empty field.
+     */
+    List<String> next() throws IOException {
+        int b = read();
+        if (b < 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        while (true) {
+            if (quoted) {
+                if (b < 0) {
+                    throw new IOException("Unterminated quoted field before offset " + position);
+                }
+                if (b == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.write('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.write(b);
+                }
+            } else if (b == '"' && fieldStart) {
+                quoted = true;
+            } else if (b == ',') {
+                fields.add(takeField());
+                fieldStart = true;
+                b = read();
+                continue;
+            } else if (b == '\n' || b < 0) {
+                fields.add(takeField());
+                return fields;
+            } else if (b == '\r') {
+                if (peek() == '\n') {
+                    read();
+                }
+                fields.add(takeField());
+                return fields;
+            } else {
+                field.write(b);
+            }
+            fieldStart = false;
+            b = read();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Quotes, commas and line ends are ASCII, so splitting the bytes before decoding is safe for UTF-8
+    private String takeField() {
+        String value = field.toString(StandardCharsets.UTF_8);
+        field.reset();
+        return value;
+    }
+
+    private int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        position++;
+        return buffer.get() & 0xFF;
+    }
+
+    private int peek() throws IOException {
+        return fill() ? buffer.get(buffer.position()) & 0xFF : -1;
+    }
+
+    private boolean fill() throws IOException {
+        if (buffer.hasRemaining()) {
+            return true;
+        }
+        buffer.clear();
+        int n = channel.read(buffer);
+        buffer.flip();
+        return n > 0;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.creditunion.account.service;
+
+import com.example.creditunion.account.duplicates.DuplicateCandidate;
+import com.example.creditunion.account.duplicates.DuplicateDetector;
+import com.example.creditunion.account.duplicates.DuplicatePair;
+import com.example.creditunion.account.exception.InvalidRequestException;
+import com.example.creditunion.account.exception.ResourceNotFoundException;
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.model.AccountDuplicate;
+import com.example.creditunion.account.model.AccountDuplicateScan;
+import com.example.creditunion.account.repository.AccountDuplicateRepository;
+import com.example.creditunion.account.repository.AccountDuplicateScanRepository;
+import com.example.creditunion.account.repository.AccountRepository;
+import com.example.creditunion.account.sharding.AccountShards;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static com.example.creditunion.account.common.Constants.BATCH_CHUNK_SIZE;
+import static com.example.creditunion.account.common.Constants.STREAM_CLEAR_INTERVAL;
+import static com.example.creditunion.account.metrics.AccountMetrics.SERVICE_TIMER;
+
+/**
+ * Scans every account for probable duplicate members. A scan runs in the background, one at a
+ * time: it streams the accounts of each shard into memory, scores them with a
+ * {@link DuplicateDetector} on a fork/join pool of the requested parallelism, and stores the best
+ * {@code creditunion.duplicates.report-size} pairs as the scan's ranked report.
+ */
+@Service
+public class AccountDuplicateService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountDuplicateService.class);
+
+    private static final int MAX_PARALLELISM = 256;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountDuplicateScanRepository accountDuplicateScanRepository;
+
+    @Autowired
+    private AccountDuplicateRepository accountDuplicateRepository;
+
+    @Autowired
+    private AccountShards accountShards;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final DuplicateDetector detector;
+    private final int reportSize;
+    private final ExecutorService runner;
+
+    public AccountDuplicateService(@Value("${creditunion.duplicates.threshold:0.85}") double threshold,
+                                   @Value("${creditunion.duplicates.max-block-size:500}") int maxBlockSize,
+                                   @Value("${creditunion.duplicates.window:50}") int window,
+                                   @Value("${creditunion.duplicates.report-size:10000}") int reportSize) {
+        this.detector = new DuplicateDetector(threshold, maxBlockSize, window);
+        this.reportSize = reportSize;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("account-duplicates-");
+        threadFactory.setDaemon(true);
+        this.runner = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    // A scan cut short by a restart is not resumed; it can simply be started again
+    @PostConstruct
+    public void failInterruptedScans() {
+        List<AccountDuplicateScan> interrupted = accountDuplicateScanRepository.findByStatusIn(
+                EnumSet.of(AccountDuplicateScan.Status.QUEUED, AccountDuplicateScan.Status.RUNNING));
+        for (AccountDuplicateScan scan : interrupted) {
+            scan.fail("Interrupted by a restart");
+        }
+        accountDuplicateScanRepository.saveAll(interrupted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    /**
+     * Queues a scan scoring on {@code parallelism} threads, by default one per available processor.
+     */
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public AccountDuplicateScan startScan(Integer parallelism) {
+        int threads = parallelism == null ? Runtime.getRuntime().availableProcessors() : parallelism;
+        if (threads < 1 || threads > MAX_PARALLELISM) {
+            throw new InvalidRequestException("parallelism must be between 1 and " + MAX_PARALLELISM);
+        }
+        AccountDuplicateScan scan = accountDuplicateScanRepository.save(new AccountDuplicateScan(threads));
+        runner.execute(() -> run(scan.getId()));
+        return scan;
+    }
+
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public AccountDuplicateScan getScan(Long id) {
+        return accountDuplicateScanRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Duplicate scan not found with id " + id));
+    }
+
+    /**
+     * Up to {@code limit} lines of a scan's report, ranked after {@code after}.
+     */
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public List<AccountDuplicate> getReport(Long id, long after, int limit) {
+        AccountDuplicateScan scan = getScan(id);
+        if (scan.getStatus() != AccountDuplicateScan.Status.COMPLETED) {
+            throw new InvalidRequestException("Duplicate scan " + id + " is " + scan.getStatus()
+                    + "; its report is available once it completes");
+        }
+        return accountDuplicateRepository.findByScanIdAndRankGreaterThanOrderByRankAsc(id, after, Limit.of(limit));
+    }
+
+    private void run(Long id) {
+        AccountDuplicateScan scan = getScan(id);
+        scan.start();
+        accountDuplicateScanRepository.save(scan);
+        ForkJoinPool pool = new ForkJoinPool(scan.getParallelism());
+        try {
+            List<DuplicateCandidate> candidates = readCandidates();
+            long read = System.currentTimeMillis();
+            DuplicateDetector.Result result = detector.detect(candidates, pool);
+            long scored = System.currentTimeMillis();
+            List<DuplicatePair> report = result.getPairs().subList(0, Math.min(reportSize, result.getPairs().size()));
+            saveReport(id, report);
+            scan.complete(result.getAccounts(), result.getBlocks(), result.getComparisons(),
+                    result.getPairs().size(), report.size());
+            accountDuplicateScanRepository.save(scan);
+            log.info("Duplicate scan {} compared {} pairs of {} accounts on {} threads and found {} duplicates: "
+                            + "read {} ms, scored {} ms, {} accounts/s", id, result.getComparisons(),
+                    result.getAccounts(), scan.getParallelism(), result.getPairs().size(),
+                    read - scan.getStartedAt().toEpochMilli(), scored - read, Math.round(scan.getAccountsPerSecond()));
+        } catch (Throwable e) {
+            // Errors too, or the scan would stay RUNNING until the next restart
+            log.warn("Duplicate scan {} failed", id, e);
+            AccountDuplicateScan failed = getScan(id);
+            failed.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            accountDuplicateScanRepository.save(failed);
+            if (e instanceof Error error) {
+                throw error;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Only the compared fields are kept, so the scan holds far less than the accounts would
+    private List<DuplicateCandidate> readCandidates() {
+        List<DuplicateCandidate> candidates = new ArrayList<>();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        for (int shard = 0; shard < accountShards.count(); shard++) {
+            accountShards.on(shard, () -> readOnly.execute(status -> {
+                try (Stream<Account> accounts = accountRepository.streamAllByOrderByIdAsc()) {
+                    Iterator<Account> iterator = accounts.iterator();
+                    long count = 0;
+                    while (iterator.hasNext()) {
+                        Account account = iterator.next();
+                        candidates.add(new DuplicateCandidate(account.getId(), account.getFirstName(),
+                                account.getLastName(), account.getAddress()));
+                        if (++count % STREAM_CLEAR_INTERVAL == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        return candidates;
+    }
+
+    private void saveReport(Long id, List<DuplicatePair> report) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int start = 0; start < report.size(); start += BATCH_CHUNK_SIZE) {
+            List<AccountDuplicate> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+            for (int rank = start; rank < Math.min(start + BATCH_CHUNK_SIZE, report.size()); rank++) {
+                DuplicatePair pair = report.get(rank);
+                chunk.add(new AccountDuplicate(id, rank + 1, pair.getAccountId(), pair.getDuplicateId(), pair.getScore()));
+            }
+            transaction.executeWithoutResult(status -> {
+                accountDuplicateRepository.saveAll(chunk);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.creditunion.account.service;
+
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.repository.AccountRepository;
+import com.example.creditunion.account.sharding.AccountShards;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static com.example.creditunion.account.common.Constants.STREAM_CLEAR_INTERVAL;
+import static com.example.creditunion.account.metrics.AccountMetrics.SERVICE_TIMER;
+
+/**
+ * Writes every account as newline-delimited JSON straight from a database cursor. Rows are
+ * detached as soon as they are written, so memory use does not depend on the table size. With
+ * sharded storage the shards are exported one after another, each in id order.
+ */
+@Service
+public class AccountExportService {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountShards accountShards;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnly;
+
+    public AccountExportService(PlatformTransactionManager transactionManager) {
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public long exportAccounts(OutputStream out) throws IOException {
+        long count = 0;
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try {
+            // One cursor per shard, each in its own read-only transaction
+            for (int shard = 0; shard < accountShards.count(); shard++) {
+                count += accountShards.on(shard, () -> readOnly.execute(status -> exportShard(generator)));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.flush();
+        return count;
+    }
+
+    private long exportShard(JsonGenerator generator) {
+        long count = 0;
+        try (Stream<Account> accounts = accountRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Account> iterator = accounts.iterator();
+            while (iterator.hasNext()) {
+                objectMapper.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++count % STREAM_CLEAR_INTERVAL == 0) {
+                    generator.flush();
+                    entityManager.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.creditunion.account.service;
+
+import com.example.creditunion.account.exception.InvalidRequestException;
+import com.example.creditunion.account.exception.ResourceNotFoundException;
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.model.AccountField;
+import com.example.creditunion.account.model.AccountImportError;
+import com.example.creditunion.account.model.AccountImportJob;
+import com.example.creditunion.account.model.AccountImportStatus;
+import com.example.creditunion.account.model.BatchItemResult;
+import com.example.creditunion.account.repository.AccountImportErrorRepository;
+import com.example.creditunion.account.repository.AccountImportJobRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.example.creditunion.account.common.Constants.BATCH_CHUNK_SIZE;
+import static com.example.creditunion.account.common.Constants.MAX_ERROR_LENGTH;
+import static com.example.creditunion.account.common.Constants.MAX_IMPORT_ERRORS;
+import static com.example.creditunion.account.metrics.AccountMetrics.SERVICE_TIMER;
+
+/**
+ * Imports accounts from CSV files. An upload is copied to disk and imported in the background,
+ * one job at a time, by streaming the file in chunks of {@code BATCH_CHUNK_SIZE} rows through
+ * {@link AccountBatchService#saveChunk}. Each chunk commits with the job's checkpoint, so a failed
+ * or interrupted import resumes after the last committed chunk. A chunk the database refuses is
+ * split in halves until only the rows it refuses are left, and only those fail.
+ */
+@Service
+public class AccountImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountImportService.class);
+
+    // Length of the account table's varchar columns
+    private static final int MAX_FIELD_LENGTH = 255;
+
+    @Autowired
+    private AccountBatchService accountBatchService;
+
+    @Autowired
+    private AccountImportJobRepository accountImportJobRepository;
+
+    @Autowired
+    private AccountImportErrorRepository accountImportErrorRepository;
+
+    private final Path directory;
+    private final ExecutorService runner;
+
+    public AccountImportService(@Value("${creditunion.import.directory:${java.io.tmpdir}/creditunion-imports}")
+                                Path directory) {
+        this.directory = directory;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("account-import-");
+        threadFactory.setDaemon(true);
+        this.runner = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    // Jobs that were queued or running when the application stopped have to be resumed explicitly
+    @PostConstruct
+    public void failInterruptedJobs() {
+        List<AccountImportJob> interrupted = accountImportJobRepository.findByStatusIn(
+                EnumSet.of(AccountImportJob.Status.QUEUED, AccountImportJob.Status.RUNNING));
+        for (AccountImportJob job : interrupted) {
+            job.fail("Interrupted by a restart");
+        }
+        accountImportJobRepository.saveAll(interrupted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    /**
+     * Copies {@code csv} to disk and queues its import.
+     */
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public AccountImportStatus startImport(InputStream csv) throws IOException {
+        accountBatchService.requireSingleShard();
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, "import-", ".csv");
+        long size;
+        try {
+            size = Files.copy(csv, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        AccountImportJob job = accountImportJobRepository.save(new AccountImportJob(file.toString(), size));
+        runner.execute(() -> run(job.getId()));
+        return new AccountImportStatus(job, List.of());
+    }
+
+    /**
+     * Queues a failed import again; it continues from its checkpoint.
+     */
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public AccountImportStatus resumeImport(Long id) {
+        accountBatchService.requireSingleShard();
+        AccountImportJob job = findJob(id);
+        if (job.getStatus() != AccountImportJob.Status.FAILED) {
+            throw new InvalidRequestException("Import " + id + " is " + job.getStatus() + "; only failed imports can be resumed");
+        }
+        if (!Files.exists(Path.of(job.getFilePath()))) {
+            throw new InvalidRequestException("The file of import " + id + " is no longer available");
+        }
+        job.requeue();
+        accountImportJobRepository.save(job);
+        runner.execute(() -> run(id));
+        return new AccountImportStatus(job, accountImportErrorRepository.findByJobIdOrderByRowNumberAsc(id));
+    }
+
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public AccountImportStatus getImport(Long id) {
+        return new AccountImportStatus(findJob(id), accountImportErrorRepository.findByJobIdOrderByRowNumberAsc(id));
+    }
+
+    private AccountImportJob findJob(Long id) {
+        return accountImportJobRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Import not found with id " + id));
+    }
+
+    private void run(Long id) {
+        AccountImportJob job = findJob(id);
+        job.start();
+        accountImportJobRepository.save(job);
+        Path file = Path.of(job.getFilePath());
+        try (AccountCsvReader reader = new AccountCsvReader(file)) {
+            AccountField[] columns = readHeader(reader);
+            if (job.getCheckpointOffset() > 0) {
+                reader.seek(job.getCheckpointOffset());
+            }
+            importRows(job, reader, columns);
+        } catch (Exception e) {
+            log.warn("Import {} failed after {} rows", id, job.getRowsRead(), e);
+            AccountImportJob failed = findJob(id);
+            failed.fail(message(e));
+            accountImportJobRepository.save(failed);
+            return;
+        }
+        job.complete();
+        accountImportJobRepository.save(job);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete imported file {}", file, e);
+        }
+    }
+
+    private void importRows(AccountImportJob job, AccountCsvReader reader, AccountField[] columns) throws IOException {
+        List<ImportRow> accepted = new ArrayList<>(BATCH_CHUNK_SIZE);
+        List<AccountImportError> rejected = new ArrayList<>();
+        long row = job.getRowsRead();
+        long rowsInChunk = 0;
+        List<String> record;
+        do {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IOException("Interrupted by shutdown");
+            }
+            record = reader.next();
+            if (record != null && !(record.size() == 1 && record.get(0).isBlank())) {
+                row++;
+                rowsInChunk++;
+                String problem = validate(record, columns);
+                if (problem == null) {
+                    accepted.add(new ImportRow(toAccount(record, columns), row, reader.position()));
+                } else if (job.getRowsFailed() + rejected.size() < MAX_IMPORT_ERRORS) {
+                    // Further rejections are only counted
+                    rejected.add(new AccountImportError(job.getId(), row, problem));
+                }
+            }
+            if (rowsInChunk == BATCH_CHUNK_SIZE || (record == null && rowsInChunk > 0)) {
+                commitChunk(job, accepted, rejected, row, reader.position());
+                accepted.clear();
+                rejected.clear();
+                rowsInChunk = 0;
+            }
+        } while (record != null);
+    }
+
+    private void commitChunk(AccountImportJob job, List<ImportRow> accepted, List<AccountImportError> rejected,
+                             long lastRow, long offset) {
+        try {
+            commit(job, accepted.stream().map(ImportRow::account).toList(), rejected, lastRow, offset);
+        } catch (RuntimeException e) {
+            log.warn("Import {} splits rows {} to {} to find the ones the database refuses", job.getId(),
+                    job.getRowsRead() + 1, lastRow, e);
+            List<AccountImportError> pending = new ArrayList<>(rejected);
+            bisect(job, accepted, pending);
+            commit(job, List.of(), pending, lastRow, offset);
+        }
+    }
+
+    // A failing row rolls back its whole chunk. The halves of a refused run of rows are committed
+    // separately, and a refused half is split again, so one bad row among n costs about 2 log2(n)
+    // transactions instead of n. Each part commits with a checkpoint just past its last row, so a
+    // resumed import cannot write a row twice. pending holds the validation errors not yet committed.
+    private void bisect(AccountImportJob job, List<ImportRow> rows, List<AccountImportError> pending) {
+        int half = rows.size() / 2;
+        for (List<ImportRow> part : List.of(rows.subList(0, half), rows.subList(half, rows.size()))) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            ImportRow last = part.get(part.size() - 1);
+            List<AccountImportError> before = pending.stream()
+                    .filter(error -> error.getRowNumber() < last.number())
+                    .toList();
+            pending.removeAll(before);
+            try {
+                commit(job, part.stream().map(ImportRow::account).toList(), before, last.number(), last.endOffset());
+            } catch (RuntimeException e) {
+                if (part.size() > 1) {
+                    pending.addAll(0, before);
+                    bisect(job, part, pending);
+                    continue;
+                }
+                List<AccountImportError> failed = new ArrayList<>(before);
+                if (job.getRowsFailed() + failed.size() < MAX_IMPORT_ERRORS) {
+                    failed.add(new AccountImportError(job.getId(), last.number(), message(e)));
+                }
+                commit(job, List.of(), failed, last.number(), last.endOffset());
+            }
+        }
+    }
+
+    // Writes the accounts and moves the checkpoint to lastRow in one transaction. The in-memory job
+    // only moves once that has committed, so a rolled-back chunk leaves it where it was.
+    private void commit(AccountImportJob job, List<Account> accounts, List<AccountImportError> rejected,
+                        long lastRow, long offset) {
+        long read = lastRow - job.getRowsRead();
+        List<BatchItemResult> results = accountBatchService.saveChunk(accounts, chunkResults -> {
+            long imported = created(chunkResults);
+            AccountImportJob committed = findJob(job.getId());
+            committed.checkpoint(offset, read, imported, read - imported);
+            accountImportJobRepository.save(committed);
+            accountImportErrorRepository.saveAll(rejected);
+        });
+        long imported = created(results);
+        job.checkpoint(offset, read, imported, read - imported);
+    }
+
+    private static long created(List<BatchItemResult> results) {
+        return results.stream().filter(result -> result.getStatus() == BatchItemResult.Status.CREATED).count();
+    }
+
+    // Cut to fit the error columns
+    private static String message(Exception e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private static AccountField[] readHeader(AccountCsvReader reader) throws IOException {
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IOException("The file is empty");
+        }
+        AccountField[] columns = new AccountField[header.size()];
+        for (int i = 0; i < columns.length; i++) {
+            // A UTF-8 byte order mark decodes as part of the first column name
+            String name = header.get(i).replace("\uFEFF", "").trim();
+            for (AccountField field : AccountField.values()) {
+                if (field != AccountField.ID && field.getProperty().equalsIgnoreCase(name)) {
+                    columns[i] = field;
+                }
+            }
+            if (columns[i] == null) {
+                throw new IOException("Unknown column '" + name + "'; expected firstName, lastName and address");
+            }
+            for (int j = 0; j < i; j++) {
+                if (columns[j] == columns[i]) {
+                    throw new IOException("Column '" + name + "' appears twice");
+                }
+            }
+        }
+        return columns;
+    }
+
+    // Returns why the row cannot be imported, or null if it can
+    private static String validate(List<String> record, AccountField[] columns) {
+        if (record.size() != columns.length) {
+            return "Expected " + columns.length + " fields but found " + record.size();
+        }
+        boolean blank = true;
+        for (int i = 0; i < columns.length; i++) {
+            String value = record.get(i).trim();
+            if (value.length() > MAX_FIELD_LENGTH) {
+                return columns[i].getProperty() + " is longer than " + MAX_FIELD_LENGTH + " characters";
+            }
+            blank &= value.isEmpty();
+        }
+        return blank ? "All fields are empty" : null;
+    }
+
+    private static Account toAccount(List<String> record, AccountField[] columns) {
+        Account account = new Account();
+        for (int i = 0; i < columns.length; i++) {
+            String value = record.get(i).trim();
+            String field = value.isEmpty() ? null : value;
+            if (columns[i] == AccountField.FIRST_NAME) {
+                account.setFirstName(field);
+            } else if (columns[i] == AccountField.LAST_NAME) {
+                account.setLastName(field);
+            } else {
+                account.setAddress(field);
+            }
+        }
+        return account;
+    }
+
+    // A row that passed validation: its account, its row number and the file offset just after it
+    private record ImportRow(Account account, long number, long endOffset) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.creditunion.account.service;
+
+import com.example.creditunion.account.exception.InternalServerException;
+import com.example.creditunion.account.model.Account;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight loading of accounts by id: while one thread is loading an id, other threads asking
+ * for the same id wait for that load instead of issuing their own query. The pending entry is
+ * removed before its future completes, so a caller that arrives after a load finished always
+ * starts a fresh one.
+ */
+@Component
+public class AccountLoadCoalescer {
+
+    public static final String LOADS = "accounts.load.coalescing";
+
+    private final ConcurrentMap<Long, CompletableFuture<Optional<Account>>> inFlight = new ConcurrentHashMap<>();
+    private final Duration waitTimeout;
+    private final Counter leaderLoads;
+    private final Counter coalescedLoads;
+    private final Counter timedOutWaits;
+
+    public AccountLoadCoalescer(MeterRegistry meterRegistry,
+                                @Value("${creditunion.coalescing.wait-timeout:5s}") Duration waitTimeout) {
+        this.waitTimeout = waitTimeout;
+        this.leaderLoads = counter(meterRegistry, "leader");
+        this.coalescedLoads = counter(meterRegistry, "coalesced");
+        this.timedOutWaits = counter(meterRegistry, "timeout");
+    }
+
+    public Optional<Account> load(Long id, Supplier<Optional<Account>> loader) {
+        CompletableFuture<Optional<Account>> pending = new CompletableFuture<>();
+        CompletableFuture<Optional<Account>> existing = inFlight.putIfAbsent(id, pending);
+        if (existing != null) {
+            coalescedLoads.increment();
+            return await(id, existing);
+        }
+        leaderLoads.increment();
+        Optional<Account> result;
+        try {
+            result = loader.get();
+        } catch (Throwable e) {
+            inFlight.remove(id, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(id, pending);
+        pending.complete(result);
+        return result;
+    }
+
+    /**
+     * Detaches any in-flight load of {@code id} so callers arriving after a write do not join a
+     * load that may have read the row before the write. Callers already waiting still get its result.
+     */
+    public void invalidate(Long id) {
+        if (id != null) {
+            inFlight.remove(id);
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Optional<Account> await(Long id, CompletableFuture<Optional<Account>> future) {
+        try {
+            return future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Rethrow the leader's failure as-is so every caller sees the same outcome
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new InternalServerException("Failed to load account with id " + id, cause);
+        } catch (TimeoutException e) {
+            timedOutWaits.increment();
+            throw new InternalServerException("Timed out waiting for account with id " + id, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalServerException("Interrupted while loading account with id " + id, e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(LOADS)
+                .description("Account loads by id, split into leader loads, coalesced waits and timed-out waits")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
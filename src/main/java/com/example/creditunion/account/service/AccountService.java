@@ -1,12 +1,47 @@
 package com.example.creditunion.account.service;
 
+import com.example.creditunion.account.audit.AccountAuditJournal;
+import com.example.creditunion.account.audit.AuditRecord;
+import com.example.creditunion.account.events.AccountChangedEvent;
 import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.model.AccountField;
+import com.example.creditunion.account.model.AccountLookupResult;
+import com.example.creditunion.account.model.AccountPage;
+import com.example.creditunion.account.model.AccountTombstone;
 import com.example.creditunion.account.repository.AccountRepository;
+import com.example.creditunion.account.repository.AccountTombstoneRepository;
 import com.example.creditunion.account.exception.InternalServerException;
+import com.example.creditunion.account.exception.PreconditionFailedException;
+import com.example.creditunion.account.metrics.AccountMetrics;
+import com.example.creditunion.account.search.FuzzyNameIndex;
+import com.example.creditunion.account.search.NameSearchIndex;
+import com.example.creditunion.account.sharding.AccountShards;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static com.example.creditunion.account.common.Constants.ACCOUNT_CACHE;
+import static com.example.creditunion.account.common.Constants.ANY_VERSION;
+import static com.example.creditunion.account.common.Constants.ID_LOOKUP_CHUNK_SIZE;
+import static com.example.creditunion.account.metrics.AccountMetrics.SERVICE_TIMER;
 
 @Service
 public class AccountService {
@@ -14,35 +49,432 @@ public class AccountService {
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private AccountMetrics accountMetrics;
+
+    @Autowired
+    private AccountLoadCoalescer accountLoadCoalescer;
+
+    @Autowired
+    private AccountChangeTracker accountChangeTracker;
+
+    @Autowired
+    private AccountTombstoneRepository accountTombstoneRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AccountShards accountShards;
+
+    @Autowired
+    private AccountAuditJournal accountAuditJournal;
+
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
     public List<Account> getAllAccounts() {
-        return accountRepository.findAll();
+        List<Account> accounts = mergeById(accountShards.onEach(shard -> accountRepository.findAll()), Account::getId);
+        accountMetrics.recordResultSize("getAllAccounts", accounts.size());
+        return accounts;
+    }
+
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public AccountPage<Account> getAccountsPage(Long after, int limit) {
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<Account> rows = mergeById(accountShards.onEach(shard -> accountRepository.findByIdGreaterThanOrderByIdAsc(
+                after == null ? 0L : after, Limit.of(limit + 1))), Account::getId);
+        accountMetrics.recordResultSize("getAccountsPage", Math.min(rows.size(), limit));
+        if (rows.size() <= limit) {
+            return new AccountPage<>(rows, null);
+        }
+        List<Account> items = rows.subList(0, limit);
+        return new AccountPage<>(items, items.get(limit - 1).getId());
     }
 
+    /**
+     * Like {@link #getAccountsPage}, selecting only {@code fields} (plus the id).
+     */
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public AccountPage<Map<String, Object>> getAccountFieldsPage(Long after, int limit, Set<AccountField> fields) {
+        List<Map<String, Object>> rows = mergeById(accountShards.onEach(shard -> accountRepository.findFieldsByIdGreaterThan(
+                after == null ? 0L : after, fields, Limit.of(limit + 1))), AccountService::idOf);
+        accountMetrics.recordResultSize("getAccountFieldsPage", Math.min(rows.size(), limit));
+        if (rows.size() <= limit) {
+            return new AccountPage<>(rows, null);
+        }
+        List<Map<String, Object>> items = rows.subList(0, limit);
+        return new AccountPage<>(items, (Long) items.get(limit - 1).get(AccountField.ID.getProperty()));
+    }
+
+    // sync: a miss loads under the key's lock, so an eviction racing the load cannot leave a stale entry.
+    // Misses are cached too, which is why creates also evict.
+    // Not @Transactional, so a cache hit opens no transaction; findById runs read-only on a miss
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Cacheable(cacheNames = ACCOUNT_CACHE, sync = true)
     public Optional<Account> getAccountById(Long id) {
-        return accountRepository.findById(id);
+        return accountLoadCoalescer.load(id, () -> accountShards.on(accountShards.shardOf(id),
+                () -> accountRepository.findById(id)));
+    }
+
+    /**
+     * The account's current version without loading the row, for answering conditional requests.
+     */
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public Optional<Long> getAccountVersion(Long id) {
+        return accountShards.on(accountShards.shardOf(id), () -> accountRepository.findVersionById(id));
+    }
+
+    // Not cached: the cache holds whole accounts, and a projection is cheap to read
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getAccountFieldsById(Long id, Set<AccountField> fields) {
+        return accountShards.on(accountShards.shardOf(id), () -> accountRepository.findFieldsById(id, fields));
     }
 
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public AccountLookupResult getAccountsByIds(Collection<Long> ids) {
+        List<Long> requested = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Account> found = new HashMap<>();
+        for (Account account : findAllById(requested)) {
+            found.put(account.getId(), account);
+        }
+        List<Account> accounts = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            Account account = found.get(id);
+            if (account != null) {
+                accounts.add(account);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        accountMetrics.recordResultSize("getAccountsByIds", accounts.size());
+        return new AccountLookupResult(accounts, missingIds);
+    }
+
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @CacheEvict(cacheNames = ACCOUNT_CACHE, key = "#result.id")
     public Account createAccount(Account account) {
-        return accountRepository.save(account);
+        Account created = accountChangeTracker.track(changeSeq -> {
+            account.setChangeSeq(changeSeq);
+            if (!accountShards.isSharded()) {
+                return accountRepository.save(account);
+            }
+            // save() would take the id from the shard's own sequence, so it could collide with another shard's
+            long id = accountShards.allocateId();
+            accountShards.on(accountShards.shardOf(id), () -> accountRepository.insertWithId(
+                    id, changeSeq, account.getFirstName(), account.getLastName(), account.getAddress()));
+            account.setId(id);
+            account.setVersion(0L);
+            return account;
+        });
+        accountLoadCoalescer.invalidate(created.getId());
+        nameSearchIndex.index(created);
+        accountAuditJournal.record(AuditRecord.Action.CREATED, created.getId(), created.getChangeSeq(), null, created);
+        eventPublisher.publishEvent(AccountChangedEvent.created(created));
+        return created;
     }
 
-    public Account updateAccount(Long id, Account accountDetails) {
-        Account account = accountRepository.findById(id)
-                .orElseThrow(() -> new InternalServerException("Account not found with id " + id));
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @CacheEvict(cacheNames = ACCOUNT_CACHE, key = "#id")
+    public Account updateAccount(Long id, Account accountDetails, Long expectedVersion) {
+        int shard = accountShards.shardOf(id);
+        AtomicReference<Account> before = new AtomicReference<>();
+        // Yields the write's change sequence number, or null if no row was updated. The number is
+        // allocated on the home shard, before the write moves to the account's shard.
+        Long changeSeq = accountChangeTracker.track(seq -> accountShards.on(shard,
+                () -> accountRepository.updateDetails(id, requiredVersion(expectedVersion), seq,
+                                accountDetails.getFirstName(), accountDetails.getLastName(), accountDetails.getAddress())
+                        .map(previous -> {
+                            before.set(previous);
+                            return seq;
+                        })
+                        .orElse(null)));
+        if (changeSeq == null) {
+            throw writeRejected(id, expectedVersion);
+        }
+        accountLoadCoalescer.invalidate(id);
+        // The row now holds exactly these values, one version past the row the statement replaced
+        Account account = new Account();
+        account.setId(id);
         account.setFirstName(accountDetails.getFirstName());
         account.setLastName(accountDetails.getLastName());
         account.setAddress(accountDetails.getAddress());
-        return accountRepository.save(account);
+        account.setVersion(before.get().getVersion() + 1);
+        account.setChangeSeq(changeSeq);
+        nameSearchIndex.index(account);
+        accountAuditJournal.record(AuditRecord.Action.UPDATED, id, changeSeq, before.get(), account);
+        eventPublisher.publishEvent(AccountChangedEvent.updated(account));
+        return account;
+    }
+
+    /**
+     * Updates only the non-null fields of {@code changes} and returns the resulting account.
+     */
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @CacheEvict(cacheNames = ACCOUNT_CACHE, key = "#id")
+    public Account patchAccount(Long id, Account changes, Long expectedVersion) {
+        int shard = accountShards.shardOf(id);
+        AtomicReference<Account> before = new AtomicReference<>();
+        Long changeSeq = accountChangeTracker.track(seq -> accountShards.on(shard,
+                () -> accountRepository.patchDetails(id, requiredVersion(expectedVersion), seq,
+                                changes.getFirstName(), changes.getLastName(), changes.getAddress())
+                        .map(previous -> {
+                            before.set(previous);
+                            return seq;
+                        })
+                        .orElse(null)));
+        if (changeSeq == null) {
+            throw writeRejected(id, expectedVersion);
+        }
+        accountLoadCoalescer.invalidate(id);
+        // The replaced row with the sent fields applied, as the statement's coalesce() wrote it
+        Account previous = before.get();
+        Account account = new Account();
+        account.setId(id);
+        account.setFirstName(changes.getFirstName() != null ? changes.getFirstName() : previous.getFirstName());
+        account.setLastName(changes.getLastName() != null ? changes.getLastName() : previous.getLastName());
+        account.setAddress(changes.getAddress() != null ? changes.getAddress() : previous.getAddress());
+        account.setVersion(previous.getVersion() + 1);
+        account.setChangeSeq(changeSeq);
+        nameSearchIndex.index(account);
+        accountAuditJournal.record(AuditRecord.Action.UPDATED, id, changeSeq, previous, account);
+        eventPublisher.publishEvent(AccountChangedEvent.updated(account));
+        return account;
     }
 
-    public void deleteAccount(Long id) {
-        Account account = accountRepository.findById(id)
-                .orElseThrow(() -> new InternalServerException("Account not found with id " + id));
-        accountRepository.delete(account);
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @CacheEvict(cacheNames = ACCOUNT_CACHE, key = "#id")
+    public void deleteAccount(Long id, Long expectedVersion) {
+        AtomicReference<Account> before = new AtomicReference<>();
+        // The tombstone commits with the delete, so the change feed cannot miss it
+        Long changeSeq = accountChangeTracker.track(seq -> accountShards.on(accountShards.shardOf(id),
+                () -> transactionTemplate.execute(status -> {
+                    Optional<Account> previous = accountRepository.deleteRow(id, requiredVersion(expectedVersion));
+                    if (previous.isEmpty()) {
+                        return null;
+                    }
+                    before.set(previous.get());
+                    accountTombstoneRepository.save(new AccountTombstone(id, seq));
+                    return seq;
+                })));
+        if (changeSeq == null) {
+            throw writeRejected(id, expectedVersion);
+        }
+        accountLoadCoalescer.invalidate(id);
+        nameSearchIndex.remove(id);
+        accountAuditJournal.record(AuditRecord.Action.DELETED, id, changeSeq, before.get(), null);
+        eventPublisher.publishEvent(AccountChangedEvent.deleted(id, changeSeq));
     }
 
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
     public List<Account> searchAccountsByName(String name) {
-        return accountRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(name, name);
+        Optional<Set<Long>> candidates = nameSearchIndex.candidates(name);
+        if (candidates.isEmpty()) {
+            List<Account> matches = mergeById(accountShards.onEach(shard ->
+                    accountRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(name, name)),
+                    Account::getId);
+            accountMetrics.recordResultSize("searchAccountsByName", matches.size());
+            return matches;
+        }
+        List<Account> matches = new ArrayList<>();
+        for (Account account : findAllById(new ArrayList<>(candidates.get()))) {
+            // Trigram hits are only candidates; keep the rows that really contain the name
+            if (NameSearchIndex.matches(account, name)) {
+                matches.add(account);
+            }
+        }
+        matches.sort(Comparator.comparing(Account::getId));
+        accountMetrics.recordResultSize("searchAccountsByName", matches.size());
+        return matches;
+    }
+
+    /**
+     * Like {@link #searchAccountsByName}, selecting only {@code fields} (plus the id). The name
+     * match runs in the query, so the name columns are only read when requested.
+     */
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchAccountFieldsByName(String name, Set<AccountField> fields) {
+        Optional<Set<Long>> candidates = nameSearchIndex.candidates(name);
+        if (candidates.isEmpty()) {
+            List<Map<String, Object>> matches = mergeById(accountShards.onEach(shard ->
+                    accountRepository.findFieldsByNameContaining(name, fields)), AccountService::idOf);
+            accountMetrics.recordResultSize("searchAccountFieldsByName", matches.size());
+            return matches;
+        }
+        // Chunks of sorted ids, each read in id order, keep the combined result ordered by id
+        List<Long> ids = new ArrayList<>(candidates.get());
+        ids.sort(Comparator.naturalOrder());
+        List<Map<String, Object>> matches = mergeById(accountShards.onEach(shard -> {
+            List<Long> onShard = idsOn(shard, ids);
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (int start = 0; start < onShard.size(); start += ID_LOOKUP_CHUNK_SIZE) {
+                List<Long> chunk = onShard.subList(start, Math.min(start + ID_LOOKUP_CHUNK_SIZE, onShard.size()));
+                rows.addAll(accountRepository.findFieldsByIdInAndNameContaining(chunk, name, fields));
+            }
+            return rows;
+        }), AccountService::idOf);
+        accountMetrics.recordResultSize("searchAccountFieldsByName", matches.size());
+        return matches;
+    }
+
+    /**
+     * Up to {@code limit} accounts whose last name is a few typos from {@code name}, or whose first or
+     * last name sounds like it, closest first. Ranked in the fuzzy name index, so only the returned
+     * rows are read; before the index is built every account is read and ranked instead.
+     */
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public List<Account> searchAccountsByNameFuzzy(String name, int limit) {
+        FuzzyNameIndex.Query query = FuzzyNameIndex.query(name);
+        Optional<List<Long>> ranked = nameSearchIndex.fuzzyMatches(query, limit);
+        List<Account> rows = new ArrayList<>();
+        if (ranked.isEmpty()) {
+            accountShards.onEach(shard -> accountRepository.findAll()).forEach(rows::addAll);
+        } else {
+            rows = findAllById(ranked.get());
+        }
+        // Rows read by id are checked again, as a write can land between the ranking and the read
+        Map<Long, Integer> distances = new HashMap<>();
+        List<Account> matches = new ArrayList<>();
+        for (Account account : rows) {
+            int distance = query.distance(account.getFirstName(), account.getLastName());
+            if (distance >= 0) {
+                distances.put(account.getId(), distance);
+                matches.add(account);
+            }
+        }
+        matches.sort(Comparator.comparing((Account account) -> distances.get(account.getId())).thenComparing(Account::getId));
+        if (matches.size() > limit) {
+            matches = new ArrayList<>(matches.subList(0, limit));
+        }
+        accountMetrics.recordResultSize("searchAccountsByNameFuzzy", matches.size());
+        return matches;
+    }
+
+    /**
+     * Accounts whose first name starts with {@code prefix}, ignoring case, ordered by first name and
+     * then id. Read from the index on the upper-cased first name.
+     */
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public List<Account> searchAccountsByFirstNamePrefix(String prefix, int limit) {
+        List<Account> matches = mergeByName(accountShards.onEach(shard -> accountRepository.findByFirstNameUpperLike(
+                prefixPattern(prefix), Limit.of(limit))), Account::getFirstName, limit);
+        accountMetrics.recordResultSize("searchAccountsByFirstNamePrefix", matches.size());
+        return matches;
+    }
+
+    /**
+     * As {@link #searchAccountsByFirstNamePrefix}, on the last name.
+     */
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public List<Account> searchAccountsByLastNamePrefix(String prefix, int limit) {
+        List<Account> matches = mergeByName(accountShards.onEach(shard -> accountRepository.findByLastNameUpperLike(
+                prefixPattern(prefix), Limit.of(limit))), Account::getLastName, limit);
+        accountMetrics.recordResultSize("searchAccountsByLastNamePrefix", matches.size());
+        return matches;
+    }
+
+    // If-Match: * is checked by the write finding a row at all, so the statement itself is unconditional
+    private static Long requiredVersion(Long expectedVersion) {
+        return expectedVersion == null || expectedVersion == ANY_VERSION ? null : expectedVersion;
     }
 
+    // A conditional write that changed nothing either lost to a concurrent write or had no row to change
+    private RuntimeException writeRejected(Long id, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion == ANY_VERSION) {
+            return new PreconditionFailedException("Account " + id + " does not exist, so If-Match: * fails");
+        }
+        if (expectedVersion != null) {
+            Optional<Long> current = accountShards.on(accountShards.shardOf(id), () -> accountRepository.findVersionById(id));
+            if (current.isPresent()) {
+                return new PreconditionFailedException("Account " + id + " is at version " + current.get()
+                        + ", not " + expectedVersion);
+            }
+        }
+        return new InternalServerException("Account not found with id " + id);
+    }
+
+    // Reads ID_LOOKUP_CHUNK_SIZE ids per query, on every shard in parallel
+    private List<Account> findAllById(List<Long> ids) {
+        List<Account> found = new ArrayList<>();
+        for (List<Account> accounts : accountShards.onEach(shard -> {
+            List<Long> onShard = idsOn(shard, ids);
+            List<Account> rows = new ArrayList<>();
+            for (int start = 0; start < onShard.size(); start += ID_LOOKUP_CHUNK_SIZE) {
+                List<Long> chunk = onShard.subList(start, Math.min(start + ID_LOOKUP_CHUNK_SIZE, onShard.size()));
+                accountRepository.findAllById(chunk).forEach(rows::add);
+            }
+            return rows;
+        })) {
+            found.addAll(accounts);
+        }
+        return found;
+    }
+
+    private List<Long> idsOn(int shard, List<Long> ids) {
+        if (!accountShards.isSharded()) {
+            return ids;
+        }
+        List<Long> onShard = new ArrayList<>();
+        for (Long id : ids) {
+            if (accountShards.shardOf(id) == shard) {
+                onShard.add(id);
+            }
+        }
+        return onShard;
+    }
+
+    // Combines the shards' results in id order; a single shard's result is returned as it is
+    private static <T> List<T> mergeById(List<List<T>> perShard, Function<T, Long> id) {
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        List<T> merged = new ArrayList<>();
+        perShard.forEach(merged::addAll);
+        merged.sort(Comparator.comparing(id));
+        return merged;
+    }
+
+    // As mergeById, for prefix matches ordered by name and id; each shard returned at most limit rows
+    private static List<Account> mergeByName(List<List<Account>> perShard, Function<Account, String> name, int limit) {
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        List<Account> merged = new ArrayList<>();
+        perShard.forEach(merged::addAll);
+        merged.sort(Comparator.comparing((Account account) -> name.apply(account).toUpperCase(Locale.ENGLISH))
+                .thenComparing(Account::getId));
+        return merged.size() <= limit ? merged : new ArrayList<>(merged.subList(0, limit));
+    }
+
+    // Upper-cases the prefix as the generated name columns are, and escapes LIKE's wildcards in it
+    private static String prefixPattern(String prefix) {
+        StringBuilder pattern = new StringBuilder(prefix.length() + 1);
+        for (char c : prefix.toUpperCase(Locale.ENGLISH).toCharArray()) {
+            if (c == '%' || c == '_' || c == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    private static Long idOf(Map<String, Object> row) {
+        return (Long) row.get(AccountField.ID.getProperty());
+    }
 }
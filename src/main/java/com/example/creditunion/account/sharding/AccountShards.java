@@ -0,0 +1,151 @@
+package com.example.creditunion.account.sharding;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Where account rows live. Without {@code creditunion.sharding.enabled} there is a single shard
+ * and every method runs its work directly. With it, accounts are spread by a hash of their id
+ * over the home database ({@code spring.datasource}, shard 0) and the databases listed in
+ * {@code creditunion.sharding.shard-urls}; ids come from the home database's sequence, so they are
+ * unique across shards. Everything other than accounts, such as sequences and import jobs, stays
+ * on the home shard.
+ */
+@Component
+public class AccountShards {
+
+    public static final int HOME = 0;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final int count;
+    private final ExecutorService fanOut;
+    // The current block of ids, as handed out by the sequence's pooled increment
+    private long nextId;
+    private long lastId = -1;
+    private long increment;
+
+    /**
+     * A single shard.
+     */
+    public AccountShards() {
+        this.count = 1;
+        this.fanOut = null;
+    }
+
+    @Autowired
+    public AccountShards(Environment environment) {
+        Binder binder = Binder.get(environment);
+        boolean enabled = binder.bind("creditunion.sharding.enabled", Boolean.class).orElse(false);
+        this.count = enabled
+                ? 1 + binder.bind("creditunion.sharding.shard-urls", Bindable.listOf(String.class)).orElse(List.of()).size()
+                : 1;
+        if (count > 1) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("account-shards-");
+            threadFactory.setDaemon(true);
+            this.fanOut = Executors.newFixedThreadPool(
+                    binder.bind("creditunion.sharding.fan-out-threads", Integer.class).orElse(16), threadFactory);
+        } else {
+            this.fanOut = null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fanOut != null) {
+            fanOut.shutdownNow();
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    // Long.hashCode folds the high bits in; consecutive ids land on consecutive shards
+    public int shardOf(long id) {
+        return Math.floorMod(Long.hashCode(id), count);
+    }
+
+    /**
+     * Runs {@code work} with its account queries on {@code shard}. A transaction started inside
+     * stays on that shard; one already holding a connection does not move.
+     */
+    public <T> T on(int shard, Supplier<T> work) {
+        if (count == 1) {
+            return work.get();
+        }
+        Integer previous = ShardContext.get();
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    /**
+     * Runs {@code work} once per shard, in parallel, and returns the results in shard order. The
+     * calls run on other threads, outside the caller's transaction.
+     */
+    public <T> List<T> onEach(IntFunction<T> work) {
+        if (count == 1) {
+            return Collections.singletonList(work.apply(HOME));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> on(target, () -> work.apply(target)), fanOut));
+        }
+        List<T> results = new ArrayList<>(count);
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * A new account id from the home shard's sequence, which Hibernate also allocates from on a
+     * single shard. Ids are taken a block at a time, like Hibernate's pooled optimizer.
+     */
+    public synchronized long allocateId() {
+        if (nextId > lastId) {
+            on(HOME, () -> {
+                if (increment == 0) {
+                    increment = jdbcTemplate.queryForObject("select increment from information_schema.sequences "
+                            + "where sequence_name = 'ACCOUNT_SEQ'", Long.class);
+                }
+                lastId = jdbcTemplate.queryForObject("select next value for account_seq", Long.class);
+                return null;
+            });
+            nextId = Math.max(1, lastId - increment + 1);
+        }
+        return nextId++;
+    }
+}
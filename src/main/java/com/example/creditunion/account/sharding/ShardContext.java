@@ -0,0 +1,24 @@
+package com.example.creditunion.account.sharding;
+
+/**
+ * The shard the current thread's account queries run against; unset means the home shard.
+ */
+final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static Integer get() {
+        return CURRENT.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
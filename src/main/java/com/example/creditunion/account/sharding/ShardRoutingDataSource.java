@@ -0,0 +1,32 @@
+package com.example.creditunion.account.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections to the shard selected by {@link AccountShards#on}, or to the home shard
+ * (shard 0) outside it. Like the replica routing, it sits behind a LazyConnectionDataSourceProxy,
+ * so a transaction's connection comes from the shard selected when its first statement runs.
+ */
+class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    ShardRoutingDataSource(List<DataSource> shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.get();
+        return shard != null ? shard : 0;
+    }
+}
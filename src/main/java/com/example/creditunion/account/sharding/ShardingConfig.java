@@ -0,0 +1,121 @@
+package com.example.creditunion.account.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharded account storage, enabled by {@code creditunion.sharding.enabled} as in the
+ * {@code sharded} profile. Shard 0 is the pool configured by {@code spring.datasource}; each URL in
+ * {@code creditunion.sharding.shard-urls} adds a pool ({@code shard1DataSource}, ...), which uses
+ * the primary's credentials and {@code creditunion.sharding.hikari} settings. Every shard is
+ * migrated at startup. The number of shards decides where every account lives, so it cannot change
+ * once accounts have been written.
+ */
+@Configuration
+@ConditionalOnProperty("creditunion.sharding.enabled")
+@Import(ShardingConfig.ShardDataSourceRegistrar.class)
+public class ShardingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardingConfig.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource shard0DataSource(DataSourceProperties properties) {
+        HikariDataSource home = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        home.setPoolName("shard0");
+        return home;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(BeanFactory beanFactory) {
+        // AccountShards reads through this DataSource, so the pools are counted here rather than asked for
+        List<DataSource> shards = new ArrayList<>();
+        while (beanFactory.containsBean("shard" + shards.size() + "DataSource")) {
+            shards.add(beanFactory.getBean("shard" + shards.size() + "DataSource", DataSource.class));
+        }
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shards));
+    }
+
+    // Flyway migrates the home shard through the DataSource above, which routes to shard 0 by default;
+    // the same migrations then run on every other shard, so all of them stay at one schema version
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(BeanFactory beanFactory) {
+        return flyway -> {
+            flyway.migrate();
+            for (int shard = 1; beanFactory.containsBean("shard" + shard + "DataSource"); shard++) {
+                log.info("Migrating the schema of shard {}", shard);
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(beanFactory.getBean("shard" + shard + "DataSource", DataSource.class))
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+
+    /**
+     * Registers one pool per entry of {@code creditunion.sharding.shard-urls}.
+     */
+    static class ShardDataSourceRegistrar implements ImportBeanDefinitionRegistrar, EnvironmentAware {
+
+        private Environment environment;
+
+        @Override
+        public void setEnvironment(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public void registerBeanDefinitions(AnnotationMetadata metadata, BeanDefinitionRegistry registry) {
+            Binder binder = Binder.get(environment);
+            List<String> urls = binder.bind("creditunion.sharding.shard-urls", Bindable.listOf(String.class))
+                    .orElse(List.of());
+            for (int i = 0; i < urls.size(); i++) {
+                int shard = i + 1;
+                String url = urls.get(i);
+                registry.registerBeanDefinition("shard" + shard + "DataSource", BeanDefinitionBuilder
+                        .genericBeanDefinition(HikariDataSource.class, () -> createPool(binder, shard, url))
+                        .getBeanDefinition());
+            }
+        }
+
+        private HikariDataSource createPool(Binder binder, int shard, String url) {
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(environment.getProperty("spring.datasource.driver-class-name"))
+                    .url(url)
+                    .username(environment.getProperty("spring.datasource.username"))
+                    .password(environment.getProperty("spring.datasource.password"))
+                    .build();
+            binder.bind("creditunion.sharding.hikari", Bindable.ofInstance(pool));
+            pool.setPoolName("shard" + shard);
+            return pool;
+        }
+    }
+}
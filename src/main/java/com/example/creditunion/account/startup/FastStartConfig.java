@@ -0,0 +1,22 @@
+package com.example.creditunion.account.startup;
+
+import com.example.creditunion.account.audit.AccountAuditJournal;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The beans that stay eager under {@code spring.main.lazy-initialization} (the fast-start profile).
+ * The entity manager factory, and with it the data source and the Flyway migration, would
+ * otherwise be built by the first request; the audit journal's recovery has to run before any
+ * account is written.
+ */
+@Configuration
+public class FastStartConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(EntityManagerFactory.class, AccountAuditJournal.class);
+    }
+}
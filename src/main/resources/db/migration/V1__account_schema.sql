@@ -0,0 +1,53 @@
+-- The schema Hibernate's ddl-auto: update used to maintain. Every statement is guarded, because
+-- databases created before migrations existed are baselined at version 0 and then run this script
+-- to gain whatever they are missing (the first databases hold only the account table).
+
+create sequence if not exists account_seq start with 1 increment by 50;
+-- Change feed positions; allocated one at a time
+create sequence if not exists account_change_seq start with 1;
+create sequence if not exists account_import_job_seq start with 1 increment by 50;
+create sequence if not exists account_import_error_seq start with 1 increment by 50;
+
+create table if not exists account (
+    id bigint not null,
+    address varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    primary key (id)
+);
+alter table account add column if not exists change_seq bigint default 0 not null;
+alter table account add column if not exists version bigint default 0 not null;
+create index if not exists idx_account_change_seq on account (change_seq, id);
+
+create table if not exists account_tombstone (
+    account_id bigint not null,
+    change_seq bigint not null,
+    primary key (account_id)
+);
+create index if not exists idx_account_tombstone_change_seq on account_tombstone (change_seq, account_id);
+
+create table if not exists account_import_job (
+    id bigint not null,
+    checkpoint_offset bigint not null,
+    created_at timestamp(6) with time zone,
+    error varchar(255),
+    file_path varchar(255) not null,
+    file_size bigint not null,
+    finished_at timestamp(6) with time zone,
+    rows_failed bigint not null,
+    rows_imported bigint not null,
+    rows_read bigint not null,
+    rows_read_at_start bigint not null,
+    started_at timestamp(6) with time zone,
+    status enum ('COMPLETED', 'FAILED', 'QUEUED', 'RUNNING') not null,
+    primary key (id)
+);
+
+create table if not exists account_import_error (
+    id bigint not null,
+    job_id bigint not null,
+    message varchar(1000),
+    row_number bigint not null,
+    primary key (id)
+);
+create index if not exists idx_account_import_error_job on account_import_error (job_id, row_number);
@@ -0,0 +1,9 @@
+-- Upper-cased copies of the names, computed by the database on every insert and update, so a
+-- case-insensitive prefix search is a range scan of an index instead of a scan of the table.
+-- The id completes each index key, so matches come back in (name, id) order without a sort.
+
+alter table account add column first_name_upper varchar(255) generated always as (upper(first_name));
+alter table account add column last_name_upper varchar(255) generated always as (upper(last_name));
+
+create index idx_account_first_name_upper on account (first_name_upper, id);
+create index idx_account_last_name_upper on account (last_name_upper, id);
@@ -0,0 +1,32 @@
+-- Duplicate-member scans and their ranked reports. A report is read a page at a time in rank
+-- order, which the (scan_id, rank) index serves without a sort.
+
+create sequence if not exists account_duplicate_scan_seq start with 1 increment by 50;
+create sequence if not exists account_duplicate_seq start with 1 increment by 50;
+
+create table account_duplicate_scan (
+    id bigint not null,
+    accounts_scanned bigint not null,
+    blocks bigint not null,
+    created_at timestamp(6) with time zone,
+    duplicates_found bigint not null,
+    duplicates_reported bigint not null,
+    error varchar(255),
+    finished_at timestamp(6) with time zone,
+    pairs_compared bigint not null,
+    parallelism integer not null,
+    started_at timestamp(6) with time zone,
+    status enum ('COMPLETED', 'FAILED', 'QUEUED', 'RUNNING') not null,
+    primary key (id)
+);
+
+create table account_duplicate (
+    id bigint not null,
+    account_id bigint not null,
+    duplicate_id bigint not null,
+    rank bigint not null,
+    scan_id bigint not null,
+    score float(53) not null,
+    primary key (id)
+);
+create index idx_account_duplicate_scan on account_duplicate (scan_id, rank);
@@ -0,0 +1,10 @@
+-- Moves account_seq past the highest account id. Databases created while ids came from an IDENTITY
+-- column already hold rows the fresh sequence would collide with. The pooled optimizer hands out
+-- (value - 50, value] for each sequence value, 50 being the generator's allocationSize on Account.
+-- A sequence that is already further along is left where it is.
+
+alter sequence account_seq restart with (
+    select greatest(coalesce(max(id), 0) + 50,
+                    (select base_value from information_schema.sequences where sequence_name = 'ACCOUNT_SEQ'))
+    from account
+);
@@ -0,0 +1,133 @@
+package com.example.creditunion.account.reactive;
+
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.repository.AccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.creditunion.account.common.Constants.BASE_URL_V2;
+import static com.example.creditunion.account.common.Constants.NEXT_CURSOR_HEADER;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "creditunion.reactive.enabled=true")
+public class AccountReactiveApiTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ReactiveAccountRepository reactiveAccountRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private final String lastName = "Reactive" + System.nanoTime();
+    private final List<Account> accounts = new ArrayList<>();
+    private WebTestClient client;
+
+    @BeforeEach
+    public void setup() {
+        // The reactive build has no Netty, so the client runs on the JDK's HttpClient
+        client = WebTestClient.bindToServer(new JdkClientHttpConnector()).baseUrl("http://localhost:" + port).build();
+        for (int i = 0; i < 3; i++) {
+            Account account = new Account();
+            account.setFirstName("Member" + i);
+            account.setLastName(lastName);
+            account.setAddress(i + " Main St");
+            accounts.add(accountRepository.save(account));
+        }
+    }
+
+    @AfterEach
+    public void cleanup() {
+        accountRepository.deleteAll(accounts);
+    }
+
+    @Test
+    public void testGetAccount() {
+        Account first = accounts.get(0);
+        client.get().uri(BASE_URL_V2 + "/accounts/{id}", first.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo("Member0")
+                .jsonPath("$.lastName").isEqualTo(lastName)
+                .jsonPath("$.version").isEqualTo(0);
+
+        client.get().uri(BASE_URL_V2 + "/accounts/{id}", Long.MAX_VALUE).exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("Account not found with id: " + Long.MAX_VALUE);
+        client.get().uri(BASE_URL_V2 + "/accounts/abc").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testPagesFollowTheCursor() {
+        Long after = accounts.get(0).getId() - 1;
+        List<Account> page = client.get().uri(BASE_URL_V2 + "/accounts?after={after}&limit=2", after)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(NEXT_CURSOR_HEADER, String.valueOf(accounts.get(1).getId()))
+                .expectBodyList(Account.class).returnResult().getResponseBody();
+        assertEquals(List.of(accounts.get(0).getId(), accounts.get(1).getId()), page.stream().map(Account::getId).toList());
+    }
+
+    @Test
+    public void testSearchesStreamMatches() {
+        List<Account> matches = client.get().uri(BASE_URL_V2 + "/accounts/search?name={name}", lastName.toLowerCase())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Account.class).getResponseBody().collectList().block();
+        assertEquals(accounts.stream().map(Account::getId).toList(), matches.stream().map(Account::getId).toList());
+
+        List<Account> prefixed = client.get().uri(BASE_URL_V2 + "/accounts/search/last-name?prefix={prefix}&limit=2", lastName)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Account.class).returnResult().getResponseBody();
+        assertEquals(2, prefixed.size());
+
+        // LIKE wildcards in the name are matched literally
+        client.get().uri(BASE_URL_V2 + "/accounts/search?name={name}", "%_%").exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Account.class).hasSize(0);
+        client.get().uri(BASE_URL_V2 + "/accounts/search").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testStreamReadsPagesOnlyAsFastAsTheyAreConsumed() {
+        List<Long> ids = new ArrayList<>();
+        // Pages of one: each account is a separate query, issued on demand
+        Flux<Account> stream = reactiveAccountRepository.streamAllByOrderByIdAsc(1)
+                .filter(account -> lastName.equals(account.getLastName()));
+        StepVerifier.create(stream, 0)
+                .thenRequest(1)
+                .assertNext(account -> ids.add(account.getId()))
+                .thenRequest(2)
+                .assertNext(account -> ids.add(account.getId()))
+                .assertNext(account -> ids.add(account.getId()))
+                .thenCancel()
+                .verify();
+        assertEquals(accounts.stream().map(Account::getId).toList(), ids);
+
+        List<Account> exported = client.get().uri(BASE_URL_V2 + "/accounts/export")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Account.class).getResponseBody()
+                .filter(account -> lastName.equals(account.getLastName()))
+                .collectList().block();
+        assertEquals(3, exported.size());
+    }
+}
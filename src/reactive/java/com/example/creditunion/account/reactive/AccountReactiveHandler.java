@@ -0,0 +1,129 @@
+package com.example.creditunion.account.reactive;
+
+import com.example.creditunion.account.exception.InvalidRequestException;
+import com.example.creditunion.account.exception.ResourceNotFoundException;
+import com.example.creditunion.account.metrics.AccountMetrics;
+import com.example.creditunion.account.model.Account;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+import static com.example.creditunion.account.common.Constants.DEFAULT_PAGE_SIZE;
+import static com.example.creditunion.account.common.Constants.MAX_PAGE_SIZE;
+import static com.example.creditunion.account.common.Constants.NEXT_CURSOR_HEADER;
+import static com.example.creditunion.account.common.Constants.STREAM_CLEAR_INTERVAL;
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * The read endpoints of the account API under {@code /api/v2/accounts}, as WebFlux handler
+ * functions. Lists and searches are written as the rows arrive, and only as fast as the client
+ * reads: {@code application/x-ndjson} flushes each account, JSON writes one array.
+ */
+public class AccountReactiveHandler {
+
+    private final ReactiveAccountRepository reactiveAccountRepository;
+    private final AccountMetrics accountMetrics;
+
+    public AccountReactiveHandler(ReactiveAccountRepository reactiveAccountRepository, AccountMetrics accountMetrics) {
+        this.reactiveAccountRepository = reactiveAccountRepository;
+        this.accountMetrics = accountMetrics;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        // Relative to the servlet, which is mapped to /api/v2
+        String accounts = "/accounts";
+        return route(GET(accounts + "/export"), this::exportAccounts)
+                .andRoute(GET(accounts + "/search/first-name"), request -> searchByPrefix(request, true))
+                .andRoute(GET(accounts + "/search/last-name"), request -> searchByPrefix(request, false))
+                .andRoute(GET(accounts + "/search"), this::searchAccounts)
+                .andRoute(GET(accounts + "/{id}"), this::getAccount)
+                .andRoute(GET(accounts), this::getAccounts)
+                .filter((request, next) -> Mono.defer(() -> next.handle(request)).onErrorResume(this::errorResponse));
+    }
+
+    Mono<ServerResponse> getAccount(ServerRequest request) {
+        long id = longParam(request.pathVariable("id"), "id");
+        return reactiveAccountRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Account not found with id: " + id)))
+                .flatMap(account -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(account));
+    }
+
+    // A keyset page, with the cursor of the next one in X-Next-Cursor, as GET /api/v1/accounts
+    Mono<ServerResponse> getAccounts(ServerRequest request) {
+        long after = request.queryParam("after").map(value -> longParam(value, "after")).orElse(0L);
+        int limit = pageSize(request.queryParam("limit"));
+        // One extra row tells whether another page exists
+        return reactiveAccountRepository.findByIdGreaterThanOrderByIdAsc(after, limit + 1).collectList()
+                .flatMap(rows -> {
+                    ServerResponse.BodyBuilder response = ServerResponse.ok().contentType(MediaType.APPLICATION_JSON);
+                    if (rows.size() > limit) {
+                        rows = rows.subList(0, limit);
+                        response.header(NEXT_CURSOR_HEADER, String.valueOf(rows.get(limit - 1).getId()));
+                    }
+                    return response.bodyValue(rows);
+                });
+    }
+
+    Mono<ServerResponse> exportAccounts(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(reactiveAccountRepository.streamAllByOrderByIdAsc(STREAM_CLEAR_INTERVAL), Account.class);
+    }
+
+    // Substring search on either name; no match is an empty result, as the body may already be under way
+    Mono<ServerResponse> searchAccounts(ServerRequest request) {
+        String name = request.queryParam("name").map(String::trim).orElse("");
+        if (name.isEmpty()) {
+            return Mono.error(new InvalidRequestException("Please provide a name to search."));
+        }
+        return streamed(request, reactiveAccountRepository.findByNameContaining(name));
+    }
+
+    Mono<ServerResponse> searchByPrefix(ServerRequest request, boolean firstName) {
+        String prefix = request.queryParam("prefix").orElse("");
+        if (prefix.isEmpty()) {
+            return Mono.error(new InvalidRequestException("Please provide a prefix to search."));
+        }
+        int limit = pageSize(request.queryParam("limit"));
+        return streamed(request, firstName
+                ? reactiveAccountRepository.findByFirstNamePrefix(prefix, limit)
+                : reactiveAccountRepository.findByLastNamePrefix(prefix, limit));
+    }
+
+    private static Mono<ServerResponse> streamed(ServerRequest request, Flux<Account> accounts) {
+        MediaType type = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(type).body(accounts, Account.class);
+    }
+
+    // As GlobalExceptionHandler answers the MVC endpoints
+    private Mono<ServerResponse> errorResponse(Throwable error) {
+        HttpStatus status = error instanceof ResourceNotFoundException ? HttpStatus.NOT_FOUND
+                : error instanceof InvalidRequestException ? HttpStatus.BAD_REQUEST
+                : null;
+        if (status == null) {
+            return Mono.error(error);
+        }
+        accountMetrics.countError(error.getClass());
+        return ServerResponse.status(status).contentType(MediaType.TEXT_PLAIN).bodyValue(error.getMessage());
+    }
+
+    private static int pageSize(Optional<String> limit) {
+        return limit.map(value -> (int) Math.max(1, Math.min(longParam(value, "limit"), MAX_PAGE_SIZE)))
+                .orElse(DEFAULT_PAGE_SIZE);
+    }
+
+    private static long longParam(String value, String name) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException(name + " must be a number: " + value);
+        }
+    }
+}
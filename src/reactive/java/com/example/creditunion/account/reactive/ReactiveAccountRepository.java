@@ -0,0 +1,150 @@
+package com.example.creditunion.account.reactive;
+
+import com.example.creditunion.account.model.Account;
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The account reads of {@link com.example.creditunion.account.repository.AccountRepository} over
+ * R2DBC, for the reactive API. It opens its own pool of R2DBC connections to the application's H2
+ * database; in the same JVM they share the database with the JDBC pool, so they see every committed
+ * write.
+ *
+ * The H2 driver runs a statement on the thread that subscribes to it, so statements are subscribed
+ * on a pool with a thread per pooled connection rather than on the server's event loops. The pool's
+ * threads are never interrupted: a client hanging up must not interrupt H2 in the middle of a file
+ * read, which closes the database file for every connection.
+ */
+public class ReactiveAccountRepository {
+
+    private static final String COLUMNS = "select id, first_name, last_name, address, version from account ";
+
+    private final ConnectionPool pool;
+    private final DatabaseClient databaseClient;
+    private final ExecutorService statementThreads;
+    private final Scheduler statements;
+
+    public ReactiveAccountRepository(String jdbcUrl, String username, String password, int maxConnections) {
+        if (!jdbcUrl.startsWith("jdbc:h2:")) {
+            throw new IllegalStateException("The reactive API reads through the H2 R2DBC driver; " + jdbcUrl
+                    + " is not an H2 database");
+        }
+        H2ConnectionConfiguration configuration = H2ConnectionConfiguration.builder()
+                .url(jdbcUrl.substring("jdbc:h2:".length()))
+                .username(username)
+                .password(password == null ? "" : password)
+                .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(new H2ConnectionFactory(configuration))
+                .name("reactive")
+                .maxSize(maxConnections)
+                .build());
+        this.databaseClient = DatabaseClient.create(pool);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("reactive-statements-");
+        threadFactory.setDaemon(true);
+        this.statementThreads = Executors.newFixedThreadPool(maxConnections, threadFactory);
+        // Unlike Reactor's own schedulers this one never interrupts a cancelled task; trampolining keeps
+        // each subscription's tasks in order, one at a time
+        this.statements = Schedulers.fromExecutor(statementThreads, true);
+    }
+
+    public void close() {
+        pool.dispose();
+        statements.dispose();
+        statementThreads.shutdown();
+    }
+
+    public Mono<Account> findById(long id) {
+        return databaseClient.sql(COLUMNS + "where id = :id")
+                .bind("id", id)
+                .map(ReactiveAccountRepository::toAccount)
+                .one()
+                .subscribeOn(statements);
+    }
+
+    public Flux<Account> findByIdGreaterThanOrderByIdAsc(long id, int limit) {
+        return databaseClient.sql(COLUMNS + "where id > :id order by id limit :limit")
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveAccountRepository::toAccount)
+                .all()
+                .subscribeOn(statements);
+    }
+
+    /**
+     * Every account in id order, read a keyset page of {@code pageSize} at a time. A page is only read
+     * once the subscriber has asked for the rows of the one before, and no connection is held in
+     * between, so a slow reader costs neither a thread nor a connection.
+     */
+    public Flux<Account> streamAllByOrderByIdAsc(int pageSize) {
+        return findByIdGreaterThanOrderByIdAsc(0L, pageSize).collectList()
+                .expand(page -> page.size() < pageSize
+                        ? Mono.empty()
+                        : findByIdGreaterThanOrderByIdAsc(page.get(page.size() - 1).getId(), pageSize).collectList())
+                .concatMapIterable(page -> page, 1);
+    }
+
+    // Case-insensitive substring match on either name, as findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase
+    public Flux<Account> findByNameContaining(String name) {
+        String pattern = "%" + escapeLike(name) + "%";
+        return databaseClient.sql(COLUMNS + "where first_name_upper like :pattern escape '\\' "
+                        + "or last_name_upper like :pattern escape '\\' order by id")
+                .bind("pattern", pattern)
+                .map(ReactiveAccountRepository::toAccount)
+                .all()
+                .subscribeOn(statements);
+    }
+
+    public Flux<Account> findByFirstNamePrefix(String prefix, int limit) {
+        return findByPrefix("first_name_upper", prefix, limit);
+    }
+
+    public Flux<Account> findByLastNamePrefix(String prefix, int limit) {
+        return findByPrefix("last_name_upper", prefix, limit);
+    }
+
+    // A range scan of the (name, id) index, already in result order
+    private Flux<Account> findByPrefix(String column, String prefix, int limit) {
+        return databaseClient.sql(COLUMNS + "where " + column + " like :pattern escape '\\' order by " + column
+                        + ", id limit :limit")
+                .bind("pattern", escapeLike(prefix) + "%")
+                .bind("limit", limit)
+                .map(ReactiveAccountRepository::toAccount)
+                .all()
+                .subscribeOn(statements);
+    }
+
+    // Upper-cases the text as the generated name columns are, and escapes LIKE's wildcards in it
+    private static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 2);
+        for (char c : text.toUpperCase(Locale.ENGLISH).toCharArray()) {
+            if (c == '%' || c == '_' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static Account toAccount(Readable row) {
+        Account account = new Account();
+        account.setId(row.get("id", Long.class));
+        account.setFirstName(row.get("first_name", String.class));
+        account.setLastName(row.get("last_name", String.class));
+        account.setAddress(row.get("address", String.class));
+        account.setVersion(row.get("version", Long.class));
+        return account;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.creditunion.account.reactive;
+
+import com.example.creditunion.account.metrics.AccountMetrics;
+import com.example.creditunion.account.sharding.AccountShards;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ServletHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+import static com.example.creditunion.account.common.Constants.BASE_URL_V2;
+
+/**
+ * Serves the reactive {@code /api/v2/accounts} API when {@code creditunion.reactive.enabled} is
+ * set, as it is by the {@code reactive} profile. The API is a servlet on the application's own
+ * Tomcat, using the Servlet non-blocking I/O, and reads through R2DBC with up to
+ * {@code creditunion.reactive.max-connections} connections. The classes are only built with the
+ * {@code reactive} Maven profile.
+ *
+ * It reads the {@code spring.datasource} database only, so it cannot be combined with sharding.
+ * Writes stay on {@code /api/v1}, where the change feed, audit journal, search index and cache are
+ * kept current.
+ */
+@Configuration
+@ConditionalOnProperty("creditunion.reactive.enabled")
+public class ReactiveApiConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReactiveAccountRepository reactiveAccountRepository(DataSourceProperties properties, AccountShards accountShards,
+                                                               @Value("${creditunion.reactive.max-connections:10}") int maxConnections) {
+        if (accountShards.isSharded()) {
+            throw new IllegalStateException("The reactive API reads a single database; it cannot be combined with sharding");
+        }
+        return new ReactiveAccountRepository(properties.determineUrl(), properties.determineUsername(),
+                properties.determinePassword(), maxConnections);
+    }
+
+    @Bean
+    public AccountReactiveHandler accountReactiveHandler(ReactiveAccountRepository reactiveAccountRepository,
+                                                         AccountMetrics accountMetrics) {
+        return new AccountReactiveHandler(reactiveAccountRepository, accountMetrics);
+    }
+
+    // Accounts are written with the application's ObjectMapper, so they read the same as on /api/v1
+    @Bean
+    public ServletRegistrationBean<ServletHttpHandlerAdapter> reactiveAccountServlet(AccountReactiveHandler accountReactiveHandler,
+                                                                                     ObjectMapper objectMapper) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(
+                            new Jackson2JsonEncoder(objectMapper, MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        ServletHttpHandlerAdapter servlet =
+                new ServletHttpHandlerAdapter(RouterFunctions.toHttpHandler(accountReactiveHandler.routes(), strategies));
+        ServletRegistrationBean<ServletHttpHandlerAdapter> registration = new ServletRegistrationBean<>(servlet, BASE_URL_V2 + "/*");
+        registration.setName("reactiveAccountApi");
+        registration.setAsyncSupported(true);
+        registration.setLoadOnStartup(1);
+        return registration;
+    }
+}
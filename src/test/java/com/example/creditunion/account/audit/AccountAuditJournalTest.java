@@ -0,0 +1,211 @@
+package com.example.creditunion.account.audit;
+
+import com.example.creditunion.CreditunionApplication;
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Each test starts and stops its own application, so a journal can be checked after an orderly shutdown
+public class AccountAuditJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testNoRecordIsLostOnOrderlyShutdown() throws Exception {
+        int threads = 8;
+        int accountsPerThread = 25;
+        Set<String> expected = Collections.synchronizedSet(new HashSet<>());
+        try (ConfigurableApplicationContext context = start("shutdown")) {
+            AccountService accountService = context.getBean(AccountService.class);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < accountsPerThread; i++) {
+                        Account created = accountService.createAccount(account("Ada", "Lovelace"));
+                        expected.add(key(AuditRecord.Action.CREATED, created.getId(), created.getChangeSeq()));
+                        Account updated = accountService.updateAccount(created.getId(), account("Grace", "Hopper"), null);
+                        expected.add(key(AuditRecord.Action.UPDATED, created.getId(), updated.getChangeSeq()));
+                        Account patched = accountService.patchAccount(created.getId(), account(null, "Murray"), null);
+                        expected.add(key(AuditRecord.Action.UPDATED, created.getId(), patched.getChangeSeq()));
+                        if (i % 2 == 0) {
+                            accountService.deleteAccount(created.getId(), null);
+                            expected.add(key(AuditRecord.Action.DELETED, created.getId(), -1));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            pool.shutdown();
+            // Closing right away leaves the buffer to the shutdown drain
+        }
+
+        List<AuditRecord> journal = new ArrayList<>();
+        AuditJournalReader.forEach(directory, journal::add);
+        Set<String> written = new HashSet<>();
+        for (int i = 0; i < journal.size(); i++) {
+            AuditRecord record = journal.get(i);
+            assertEquals(i + 1, record.getSeq());
+            assertEquals("system", record.getCaller());
+            written.add(key(record.getAction(), record.getAccountId(),
+                    record.getAction() == AuditRecord.Action.DELETED ? -1 : record.getChangeSeq()));
+        }
+        assertEquals(threads * accountsPerThread * 3 + threads * ((accountsPerThread + 1) / 2), journal.size());
+        assertEquals(expected, written);
+        // The small segment size made the writer roll over
+        assertTrue(AuditJournalReader.segments(directory).size() > 1);
+
+        // A restart continues the sequence in a new segment, and finds the earlier records by account
+        int segments = AuditJournalReader.segments(directory).size();
+        AuditRecord last = journal.get(journal.size() - 1);
+        try (ConfigurableApplicationContext context = start("restart")) {
+            context.getBean(AccountService.class).createAccount(account("Alan", "Turing"));
+            assertEquals(journal.stream().filter(record -> record.getAccountId() == last.getAccountId()).map(AuditRecord::getSeq).toList(),
+                    context.getBean(AccountAuditJournal.class).findByAccountId(last.getAccountId()).stream()
+                            .map(AuditRecord::getSeq).toList());
+        }
+        List<AuditRecord> reopened = new ArrayList<>();
+        AuditJournalReader.forEach(directory, reopened::add);
+        assertEquals(journal.size() + 1, reopened.size());
+        assertEquals(journal.size() + 1, reopened.get(reopened.size() - 1).getSeq());
+        assertEquals(segments + 1, AuditJournalReader.segments(directory).size());
+    }
+
+    @Test
+    public void testAccountTrailHasImagesAndCallers() throws Exception {
+        try (ConfigurableApplicationContext context = start("trail")) {
+            AccountService accountService = context.getBean(AccountService.class);
+            AccountAuditJournal journal = context.getBean(AccountAuditJournal.class);
+            Account created = accountService.createAccount(account("Ada", "Lovelace"));
+            Long id = created.getId();
+
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setRemoteUser("teller-7");
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+            try {
+                accountService.updateAccount(id, account("Augusta", "Lovelace"), null);
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+            accountService.patchAccount(id, account(null, "King"), 1L);
+            accountService.deleteAccount(id, 2L);
+
+            List<AuditRecord> trail = journal.findByAccountId(id);
+            assertEquals(List.of(AuditRecord.Action.CREATED, AuditRecord.Action.UPDATED,
+                    AuditRecord.Action.UPDATED, AuditRecord.Action.DELETED), trail.stream().map(AuditRecord::getAction).toList());
+            assertEquals(List.of("system", "teller-7", "system", "system"), trail.stream().map(AuditRecord::getCaller).toList());
+
+            assertNull(trail.get(0).getBefore());
+            assertEquals("Ada", trail.get(0).getAfter().getFirstName());
+            assertEquals(0L, trail.get(0).getAfter().getVersion());
+            assertEquals("Ada", trail.get(1).getBefore().getFirstName());
+            assertEquals("Augusta", trail.get(1).getAfter().getFirstName());
+            assertEquals("Lovelace", trail.get(2).getBefore().getLastName());
+            assertEquals("King", trail.get(2).getAfter().getLastName());
+            assertEquals("Augusta", trail.get(2).getAfter().getFirstName());
+            assertEquals(2L, trail.get(3).getBefore().getVersion());
+            assertNull(trail.get(3).getAfter());
+            assertTrue(journal.findByAccountId(id + 1000).isEmpty());
+        }
+    }
+
+    @Test
+    public void testToolReplaysTheLatestImagesAndReaderStopsAtATornFrame() throws Exception {
+        Long kept;
+        Long deleted;
+        try (ConfigurableApplicationContext context = start("tool")) {
+            AccountService accountService = context.getBean(AccountService.class);
+            kept = accountService.createAccount(account("Ada", "Lovelace")).getId();
+            deleted = accountService.createAccount(account("Grace", "Hopper")).getId();
+            accountService.updateAccount(kept, account("Augusta", "King"), null);
+            accountService.deleteAccount(deleted, null);
+        }
+
+        StringWriter replayed = new StringWriter();
+        AuditJournalTool.replay(directory, Instant.MAX, replayed);
+        assertEquals("{\"id\":" + kept + ",\"firstName\":\"Augusta\",\"lastName\":\"King\",\"address\":\"1 Main St\","
+                + "\"version\":1}\n", replayed.toString());
+
+        StringWriter dumped = new StringWriter();
+        AuditJournalTool.dump(directory, deleted, dumped);
+        String[] lines = dumped.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"action\":\"CREATED\""));
+        assertTrue(lines[1].contains("\"action\":\"DELETED\""));
+
+        // Tear the last record, as a crash in the middle of a write would
+        Path segment = AuditJournalReader.segments(directory).get(0);
+        long lastFrame = lastFrameOffset(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}), lastFrame + 12);
+        }
+        List<Long> seqs = new ArrayList<>();
+        AuditJournalReader.forEach(directory, record -> seqs.add(record.getSeq()));
+        assertEquals(List.of(1L, 2L, 3L), seqs);
+    }
+
+    // Offset of the fourth and last frame: each frame is its length, its checksum and its payload
+    private static long lastFrameOffset(Path segment) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(segment));
+        long offset = 0;
+        for (int frame = 0; frame < 3; frame++) {
+            int length = bytes.getInt((int) offset);
+            offset += 8 + length;
+        }
+        return offset;
+    }
+
+    private ConfigurableApplicationContext start(String database) {
+        return new SpringApplicationBuilder(CreditunionApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:audit-" + database + ";DB_CLOSE_DELAY=-1",
+                        "spring.cache.type=none",
+                        "creditunion.audit.directory=" + directory,
+                        "creditunion.audit.segment-size=16KB",
+                        "creditunion.audit.buffer-size=64")
+                .run();
+    }
+
+    private static String key(AuditRecord.Action action, long accountId, long changeSeq) {
+        return action + "/" + accountId + "/" + changeSeq;
+    }
+
+    private static Account account(String firstName, String lastName) {
+        Account account = new Account();
+        account.setFirstName(firstName);
+        account.setLastName(lastName);
+        account.setAddress(lastName == null ? null : "1 Main St");
+        return account;
+    }
+}
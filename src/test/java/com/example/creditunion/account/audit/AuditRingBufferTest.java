@@ -0,0 +1,79 @@
+package com.example.creditunion.account.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditRingBufferTest {
+
+    @Test
+    public void testFullBufferRefusesUntilDrained() {
+        AuditRingBuffer buffer = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(record(0, i)));
+        }
+        assertFalse(buffer.offer(record(0, 4)));
+        assertEquals(4, buffer.size());
+
+        List<AuditRecord> drained = new ArrayList<>();
+        assertEquals(2, buffer.drain(drained::add, 2));
+        assertTrue(buffer.offer(record(0, 4)));
+        assertEquals(3, buffer.drain(drained::add, 10));
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), drained.stream().map(AuditRecord::getChangeSeq).toList());
+        assertEquals(5, buffer.consumed());
+    }
+
+    @Test
+    public void testConcurrentProducersLoseNothingAndKeepTheirOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 5000;
+        // Far smaller than the records, so producers keep finding it full
+        AuditRingBuffer buffer = new AuditRingBuffer(64);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    AuditRecord record = record(producer, i);
+                    while (!buffer.offer(record)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+        start.countDown();
+
+        long[] next = new long[producers];
+        int[] received = {0};
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received[0] < producers * perProducer && System.nanoTime() < deadline) {
+            buffer.drain(record -> {
+                int producer = (int) record.getAccountId();
+                assertEquals(next[producer]++, record.getChangeSeq());
+                received[0]++;
+            }, 100);
+        }
+        pool.shutdown();
+        assertEquals(producers * perProducer, received[0]);
+        assertEquals(0, buffer.size());
+    }
+
+    private static AuditRecord record(long accountId, long changeSeq) {
+        return new AuditRecord(0, Instant.EPOCH, "test", AuditRecord.Action.CREATED, accountId, changeSeq, null, null);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.creditunion.account.bulkhead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DatabaseBulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource target = mock(DataSource.class);
+
+    @Test
+    public void testGetConnection_WaitsForAPermitThenFailsFast() throws Exception {
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(target, "test", 1, Duration.ofMillis(50), meterRegistry);
+
+        Connection first = bulkhead.getConnection();
+        assertEquals(1.0, meterRegistry.get(DatabaseBulkhead.ACTIVE).gauge().value());
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+        assertEquals(1.0, meterRegistry.get(DatabaseBulkhead.REJECTED).counter().count());
+
+        // Closing twice returns the permit once
+        first.close();
+        first.close();
+        assertEquals(0.0, meterRegistry.get(DatabaseBulkhead.ACTIVE).gauge().value());
+        try (Connection second = bulkhead.getConnection()) {
+            assertNotNull(second);
+            assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+        }
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    public void testGetConnection_FailureReturnsThePermit() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLException("Database down")).thenReturn(mock(Connection.class));
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(target, "test", 1, Duration.ofMillis(50), meterRegistry);
+
+        assertThrows(SQLException.class, bulkhead::getConnection);
+        assertNotNull(bulkhead.getConnection());
+    }
+
+    @Test
+    public void testConnection_DelegatesToThePooledConnection() throws Exception {
+        Connection pooled = mock(Connection.class);
+        when(pooled.getAutoCommit()).thenReturn(false);
+        when(target.getConnection()).thenReturn(pooled);
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(target, "test", 1, Duration.ofMillis(50), meterRegistry);
+
+        Connection connection = bulkhead.getConnection();
+        assertFalse(connection.getAutoCommit());
+        assertEquals(connection, connection);
+        connection.close();
+        verify(pooled, times(1)).close();
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.creditunion.account.controller;
+
+import com.example.creditunion.account.audit.AccountAuditJournal;
+import com.example.creditunion.account.audit.AuditRecord;
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.repository.AccountRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.creditunion.account.common.Constants.BASE_URL_V1;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional: every chunk commits in its own transaction
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AccountBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountAuditJournal accountAuditJournal;
+
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        accountRepository.deleteAllById(createdIds);
+    }
+
+    @Test
+    public void testBatchSave_CreatesAndUpdatesAcrossChunks() throws Exception {
+        Account existing = new Account();
+        existing.setFirstName("John");
+        existing.setLastName("Doe");
+        existing.setAddress("123 Main St");
+        existing = accountRepository.save(existing);
+        createdIds.add(existing.getId());
+
+        List<Account> batch = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            batch.add(newAccount("Batch" + i));
+        }
+        Account update = newAccount("Jane");
+        update.setId(existing.getId());
+        batch.add(update);
+        Account missing = newAccount("Ghost");
+        missing.setId(-1L);
+        batch.add(missing);
+
+        JsonNode result = postBatch(batch);
+
+        assertEquals(600, result.get("created").asInt());
+        assertEquals(1, result.get("updated").asInt());
+        assertEquals(1, result.get("failed").asInt());
+        assertEquals("FAILED", result.get("results").get(601).get("status").asText());
+        assertEquals("Jane", accountRepository.findById(existing.getId()).get().getFirstName());
+    }
+
+    @Test
+    public void testBatchSave_JournalsCreatedAndUpdatedRows() throws Exception {
+        Account existing = accountRepository.save(newAccount("John"));
+        createdIds.add(existing.getId());
+        Account update = newAccount("Jane");
+        update.setId(existing.getId());
+
+        JsonNode result = postBatch(List.of(newAccount("Ann"), update));
+        accountAuditJournal.flush();
+
+        List<AuditRecord> created = accountAuditJournal.findByAccountId(result.get("results").get(0).get("id").asLong());
+        assertEquals(1, created.size());
+        assertEquals(AuditRecord.Action.CREATED, created.get(0).getAction());
+        assertNull(created.get(0).getBefore());
+        assertEquals("Ann", created.get(0).getAfter().getFirstName());
+
+        List<AuditRecord> updated = accountAuditJournal.findByAccountId(existing.getId());
+        assertEquals(1, updated.size());
+        assertEquals(AuditRecord.Action.UPDATED, updated.get(0).getAction());
+        assertEquals("John", updated.get(0).getBefore().getFirstName());
+        assertEquals(0L, updated.get(0).getBefore().getVersion());
+        assertEquals("Jane", updated.get(0).getAfter().getFirstName());
+        assertEquals(1L, updated.get(0).getAfter().getVersion());
+    }
+
+    @Test
+    public void testBatchSave_FailingRowDoesNotFailItsChunk() throws Exception {
+        List<Account> batch = new ArrayList<>();
+        batch.add(newAccount("Before"));
+        batch.add(newAccount("x".repeat(300)));
+        batch.add(newAccount("After"));
+
+        JsonNode result = postBatch(batch);
+
+        assertEquals(2, result.get("created").asInt());
+        assertEquals(1, result.get("failed").asInt());
+        JsonNode results = result.get("results");
+        assertEquals("CREATED", results.get(0).get("status").asText());
+        assertEquals("FAILED", results.get(1).get("status").asText());
+        assertEquals(1, results.get(1).get("index").asInt());
+        assertFalse(results.get(1).get("error").asText().isEmpty());
+        assertEquals("CREATED", results.get(2).get("status").asText());
+    }
+
+    @Test
+    public void testBatchSave_RejectsOversizedBatch() throws Exception {
+        List<Account> batch = new ArrayList<>();
+        for (int i = 0; i < 10001; i++) {
+            batch.add(newAccount("Too many"));
+        }
+
+        mockMvc.perform(post(BASE_URL_V1 + "/accounts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode postBatch(List<Account> batch) throws Exception {
+        String body = mockMvc.perform(post(BASE_URL_V1 + "/accounts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode result = objectMapper.readTree(body);
+        for (JsonNode item : result.get("results")) {
+            if (!"FAILED".equals(item.get("status").asText())) {
+                createdIds.add(item.get("id").asLong());
+            }
+        }
+        return result;
+    }
+
+    private static Account newAccount(String firstName) {
+        Account account = new Account();
+        account.setFirstName(firstName);
+        account.setLastName("Member");
+        account.setAddress("1 Batch Ave");
+        return account;
+    }
+}
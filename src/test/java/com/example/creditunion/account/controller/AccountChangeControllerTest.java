@@ -0,0 +1,126 @@
+package com.example.creditunion.account.controller;
+
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.repository.AccountRepository;
+import com.example.creditunion.account.repository.AccountTombstoneRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.creditunion.account.common.Constants.BASE_URL_V1;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional: changes only reach the feed once their writes have committed
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AccountChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountTombstoneRepository accountTombstoneRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        accountRepository.deleteAllById(createdIds);
+        accountTombstoneRepository.deleteAllById(createdIds);
+    }
+
+    @Test
+    public void testChanges_ReturnsOnlyWritesAndDeletesSinceTheToken() throws Exception {
+        String token = drain(null);
+
+        Long first = create("First");
+        Long second = create("Second");
+        Long third = create("Third");
+        mockMvc.perform(put(BASE_URL_V1 + "/accounts/{id}", first)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"First\",\"lastName\":\"Renamed\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete(BASE_URL_V1 + "/accounts/{id}", second))
+                .andExpect(status().isNoContent());
+
+        // Two per page: third (created), first (updated), second (deleted), in change order
+        JsonNode page = changes(token, 2);
+        assertEquals(2, page.get("changes").size());
+        assertEquals(third, page.get("changes").get(0).get("id").asLong());
+        assertEquals(first, page.get("changes").get(1).get("id").asLong());
+        assertEquals("Renamed", page.get("changes").get(1).get("account").get("lastName").asText());
+        assertTrue(page.get("hasMore").asBoolean());
+
+        page = changes(page.get("nextToken").asText(), 2);
+        assertEquals(1, page.get("changes").size());
+        assertEquals(second, page.get("changes").get(0).get("id").asLong());
+        assertTrue(page.get("changes").get(0).get("deleted").asBoolean());
+        assertFalse(page.get("changes").get(0).has("account"));
+        assertFalse(page.get("hasMore").asBoolean());
+
+        // Nothing new: same token back, no changes
+        String nextToken = page.get("nextToken").asText();
+        page = changes(nextToken, 2);
+        assertEquals(0, page.get("changes").size());
+        assertEquals(nextToken, page.get("nextToken").asText());
+    }
+
+    @Test
+    public void testChanges_RejectsMalformedToken() throws Exception {
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts/changes").param("since", "yesterday"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Pages through the feed to its current end and returns the token there
+    private String drain(String token) throws Exception {
+        JsonNode page;
+        do {
+            page = changes(token, 1000);
+            token = page.get("nextToken").isNull() ? token : page.get("nextToken").asText();
+        } while (page.get("hasMore").asBoolean());
+        return token;
+    }
+
+    private JsonNode changes(String since, int limit) throws Exception {
+        MockHttpServletRequestBuilder request = get(BASE_URL_V1 + "/accounts/changes").param("limit", String.valueOf(limit));
+        if (since != null) {
+            request.param("since", since);
+        }
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private Long create(String firstName) throws Exception {
+        Account account = new Account();
+        account.setFirstName(firstName);
+        account.setLastName("Member");
+        String body = mockMvc.perform(post(BASE_URL_V1 + "/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(account)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readTree(body).get("id").asLong();
+        createdIds.add(id);
+        return id;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.creditunion.account.controller;
+
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.model.AccountChangePage;
+import com.example.creditunion.account.repository.AccountRepository;
+import com.example.creditunion.account.repository.AccountTombstoneRepository;
+import com.example.creditunion.account.service.AccountChangeService;
+import com.example.creditunion.account.service.AccountService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.creditunion.account.common.Constants.BASE_URL_V1;
+import static org.junit.jupiter.api.Assertions.*;
+
+// A real server: the stream is written asynchronously, after the request thread has returned
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class AccountChangeStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountChangeService accountChangeService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountTombstoneRepository accountTombstoneRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final List<Long> createdIds = new ArrayList<>();
+    private final List<InputStream> streams = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        for (InputStream stream : streams) {
+            stream.close();
+        }
+        accountRepository.deleteAllById(createdIds);
+        accountTombstoneRepository.deleteAllById(createdIds);
+    }
+
+    @Test
+    public void testStream_PushesWritesAndDeletes() throws Exception {
+        BufferedReader stream = open(null);
+
+        Account created = create("Streamed");
+        Map<String, String> event = nextEvent(stream);
+        assertEquals("account", event.get("event"));
+        JsonNode data = objectMapper.readTree(event.get("data"));
+        assertEquals(created.getId(), data.get("id").asLong());
+        assertEquals("Streamed", data.get("account").get("firstName").asText());
+        assertEquals(created.getChangeSeq() + "." + created.getId(), event.get("id"));
+
+        accountService.deleteAccount(created.getId(), null);
+        event = nextEvent(stream);
+        data = objectMapper.readTree(event.get("data"));
+        assertEquals(created.getId(), data.get("id").asLong());
+        assertTrue(data.get("deleted").asBoolean());
+    }
+
+    @Test
+    public void testStream_ResumesAfterLastEventId() throws Exception {
+        String token = endOfFeed();
+        Account first = create("First");
+        Account second = create("Second");
+
+        // Both changes were committed before the connection, so they come from the backlog
+        BufferedReader stream = open(token);
+        Map<String, String> event = nextEvent(stream);
+        assertEquals(first.getId(), objectMapper.readTree(event.get("data")).get("id").asLong());
+        String firstEventId = event.get("id");
+        assertEquals(second.getId(), objectMapper.readTree(nextEvent(stream).get("data")).get("id").asLong());
+
+        // Reconnecting after the first event skips it, then carries on live
+        stream = open(firstEventId);
+        assertEquals(second.getId(), objectMapper.readTree(nextEvent(stream).get("data")).get("id").asLong());
+        Account third = create("Third");
+        assertEquals(third.getId(), objectMapper.readTree(nextEvent(stream).get("data")).get("id").asLong());
+    }
+
+    @Test
+    public void testStream_RejectsMalformedLastEventId() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri())
+                .header("Accept", "text/event-stream")
+                .header("Last-Event-ID", "yesterday")
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode());
+    }
+
+    private BufferedReader open(String lastEventId) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri()).header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        // Returns once the headers are in, by which time the subscription is registered
+        HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/event-stream"));
+        streams.add(response.body());
+        return new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8));
+    }
+
+    // Reads the next event's fields, skipping heartbeat comments
+    private static Map<String, String> nextEvent(BufferedReader stream) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<String, String> fields = new HashMap<>();
+            try {
+                String line;
+                while ((line = stream.readLine()) != null) {
+                    if (line.isEmpty() && !fields.isEmpty()) {
+                        return fields;
+                    }
+                    int colon = line.indexOf(':');
+                    if (colon > 0) {
+                        fields.merge(line.substring(0, colon), line.substring(colon + 1), (a, b) -> a + "\n" + b);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            throw new AssertionError("Stream ended");
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+    private String endOfFeed() {
+        String token = null;
+        AccountChangePage page;
+        do {
+            page = accountChangeService.getChanges(token, 1000);
+            token = page.getNextToken();
+        } while (page.isHasMore());
+        return token;
+    }
+
+    private Account create(String firstName) {
+        Account account = new Account();
+        account.setFirstName(firstName);
+        account.setLastName("Member");
+        Account created = accountService.createAccount(account);
+        createdIds.add(created.getId());
+        return created;
+    }
+
+    private URI uri() {
+        return URI.create("http://localhost:" + port + BASE_URL_V1 + "/accounts/changes/stream");
+    }
+}
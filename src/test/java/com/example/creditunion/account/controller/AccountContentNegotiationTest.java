@@ -0,0 +1,123 @@
+package com.example.creditunion.account.controller;
+
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.repository.AccountRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static com.example.creditunion.account.common.Constants.BASE_URL_V1;
+import static org.junit.jupiter.api.Assertions.*;
+
+// A real server, since compression is applied by the servlet container rather than by MVC
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class AccountContentNegotiationTest {
+
+    private static final int ACCOUNTS = 50;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setFirstName("Codec" + i);
+            account.setLastName("Member");
+            account.setAddress(i + " Main St");
+            accounts.add(account);
+        }
+        for (Account account : accountRepository.saveAll(accounts)) {
+            createdIds.add(account.getId());
+        }
+    }
+
+    @AfterEach
+    public void cleanup() {
+        accountRepository.deleteAllById(createdIds);
+    }
+
+    @Test
+    public void testList_CborAndSmileCarryTheSameAccountsAsJson() throws Exception {
+        List<Map<String, Object>> json = read(get("application/json", null), new ObjectMapper());
+
+        HttpResponse<byte[]> cbor = get("application/cbor", null);
+        assertEquals("application/cbor", cbor.headers().firstValue("Content-Type").orElseThrow());
+        assertEquals(json, read(cbor, new ObjectMapper(new CBORFactory())));
+
+        HttpResponse<byte[]> smile = get("application/x-jackson-smile", null);
+        assertEquals("application/x-jackson-smile", smile.headers().firstValue("Content-Type").orElseThrow());
+        assertEquals(json, read(smile, new ObjectMapper(new SmileFactory())));
+
+        assertEquals(ACCOUNTS, json.size());
+        assertEquals("Codec0", json.get(0).get("firstName"));
+    }
+
+    @Test
+    public void testList_GzipsLargeResponses() throws Exception {
+        HttpResponse<byte[]> plain = get("application/json", null);
+        HttpResponse<byte[]> gzipped = get("application/json", "gzip");
+
+        assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElseThrow());
+        assertTrue(gzipped.body().length < plain.body().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.body()))) {
+            assertArrayEquals(plain.body(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testGetById_SmallResponsesAreNotCompressed() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(BASE_URL_V1 + "/accounts/" + createdIds.get(0)))
+                .header("Accept-Encoding", "gzip")
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Encoding").isEmpty());
+    }
+
+    private HttpResponse<byte[]> get(String accept, String acceptEncoding) throws IOException, InterruptedException {
+        String path = BASE_URL_V1 + "/accounts?limit=" + ACCOUNTS + "&after=" + (createdIds.get(0) - 1);
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path)).header("Accept", accept);
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, response.statusCode());
+        return response;
+    }
+
+    private static List<Map<String, Object>> read(HttpResponse<byte[]> response, ObjectMapper mapper) throws IOException {
+        return mapper.readValue(response.body(), new TypeReference<>() {
+        });
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
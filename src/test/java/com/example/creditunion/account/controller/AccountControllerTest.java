@@ -14,6 +14,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import static com.example.creditunion.account.common.Constants.BASE_URL_V1;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -78,6 +80,55 @@ public class AccountControllerTest {
                 .andExpect(jsonPath("$[1].address").value("456 Elm St"));
     }
 
+    @Test
+    public void testGetAllAccounts_KeysetPagination() throws Exception {
+        Long[] ids = new Long[3];
+        for (int i = 0; i < 3; i++) {
+            Account account = new Account();
+            account.setFirstName("Member" + i);
+            account.setLastName("Doe");
+            account.setAddress(i + " Main St");
+            ids[i] = accountRepository.save(account).getId();
+        }
+
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", String.valueOf(ids[1])))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].firstName").value("Member0"))
+                .andExpect(jsonPath("$[1].firstName").value("Member1"));
+
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts")
+                        .param("limit", "2")
+                        .param("after", String.valueOf(ids[1])))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].firstName").value("Member2"));
+    }
+
+    @Test
+    public void testGetAllAccounts_SparseFields() throws Exception {
+        Long[] ids = new Long[3];
+        for (int i = 0; i < 3; i++) {
+            Account account = new Account();
+            account.setFirstName("Member" + i);
+            account.setLastName("Doe" + i);
+            account.setAddress(i + " Main St");
+            ids[i] = accountRepository.save(account).getId();
+        }
+
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts").param("limit", "2").param("fields", "lastName"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", String.valueOf(ids[1])))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(ids[0]))
+                .andExpect(jsonPath("$[0].lastName").value("Doe0"))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist())
+                .andExpect(jsonPath("$[0].address").doesNotExist())
+                .andExpect(jsonPath("$[1].lastName").value("Doe1"));
+    }
+
     @Test
     public void testGetAccountById() throws Exception {
         Account account = new Account();
@@ -94,6 +145,186 @@ public class AccountControllerTest {
                 .andExpect(jsonPath("$.address").value("123 Main St"));
     }
 
+    @Test
+    public void testGetAccountById_ConditionalRequests() throws Exception {
+        Account account = new Account();
+        account.setFirstName("John");
+        account.setLastName("Doe");
+        account = accountRepository.save(account);
+
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts/{id}", account.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("$.version").value(0));
+
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts/{id}", account.getId()).header("If-None-Match", "W/\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(put(BASE_URL_V1 + "/accounts/{id}", account.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Jane\",\"lastName\":\"Doe\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts/{id}", account.getId()).header("If-None-Match", "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.firstName").value("Jane"));
+    }
+
+    @Test
+    public void testUpdateAndDelete_IfMatch() throws Exception {
+        Account account = new Account();
+        account.setFirstName("John");
+        account.setLastName("Doe");
+        account = accountRepository.save(account);
+
+        mockMvc.perform(put(BASE_URL_V1 + "/accounts/{id}", account.getId())
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Jane\",\"lastName\":\"Doe\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        // A second writer still holding version 0 is refused rather than overwriting
+        mockMvc.perform(put(BASE_URL_V1 + "/accounts/{id}", account.getId())
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Joan\",\"lastName\":\"Doe\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(patch(BASE_URL_V1 + "/accounts/{id}", account.getId())
+                        .header("If-Match", "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\":\"9 Oak St\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.firstName").value("Jane"));
+
+        // * matches any current version
+        mockMvc.perform(put(BASE_URL_V1 + "/accounts/{id}", account.getId())
+                        .header("If-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"address\":\"9 Oak St\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+
+        mockMvc.perform(delete(BASE_URL_V1 + "/accounts/{id}", account.getId()).header("If-Match", "\"2\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete(BASE_URL_V1 + "/accounts/{id}", account.getId()).header("If-Match", "\"3\""))
+                .andExpect(status().isNoContent());
+
+        // ...but not a missing account
+        mockMvc.perform(put(BASE_URL_V1 + "/accounts/{id}", account.getId())
+                        .header("If-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Jane\",\"lastName\":\"Doe\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete(BASE_URL_V1 + "/accounts/{id}", account.getId()).header("If-Match", "*"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void testGetAccountById_SparseFields() throws Exception {
+        Account account = new Account();
+        account.setFirstName("John");
+        account.setLastName("Doe");
+        account.setAddress("123 Main St");
+        account = accountRepository.save(account);
+
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts/{id}", account.getId()).param("fields", "address,firstName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(account.getId()))
+                .andExpect(jsonPath("$.firstName").value("John"))
+                .andExpect(jsonPath("$.address").value("123 Main St"))
+                .andExpect(jsonPath("$.lastName").doesNotExist());
+
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts/{id}", -1).param("fields", "lastName"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts/{id}", account.getId()).param("fields", "ssn"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetAccountsByIds() throws Exception {
+        Account account1 = new Account();
+        account1.setFirstName("John");
+        account1 = accountRepository.save(account1);
+        Account account2 = new Account();
+        account2.setFirstName("Jane");
+        account2 = accountRepository.save(account2);
+
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts")
+                        .param("ids", account2.getId() + "," + account1.getId() + ",-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts.length()").value(2))
+                .andExpect(jsonPath("$.accounts[0].firstName").value("Jane"))
+                .andExpect(jsonPath("$.accounts[1].firstName").value("John"))
+                .andExpect(jsonPath("$.missingIds[0]").value(-1));
+
+        mockMvc.perform(post(BASE_URL_V1 + "/accounts/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + account1.getId() + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts.length()").value(1))
+                .andExpect(jsonPath("$.missingIds.length()").value(0));
+
+        mockMvc.perform(post(BASE_URL_V1 + "/accounts/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + account1.getId() + ",null]"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts").param("ids", account1.getId() + ",," + account2.getId()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testSearchAccountsByName() throws Exception {
+        for (String[] name : new String[][]{{"John", "Doe"}, {"Jane", "Johnson"}, {"Al", "Smith"}}) {
+            Account account = new Account();
+            account.setFirstName(name[0]);
+            account.setLastName(name[1]);
+            account.setAddress("123 Main St");
+            mockMvc.perform(post(BASE_URL_V1 + "/accounts")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(account)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts/search").param("name", "OHN"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].firstName").value("John"))
+                .andExpect(jsonPath("$[1].lastName").value("Johnson"));
+    }
+
+    @Test
+    public void testSearchAccountsByName_SparseFields() throws Exception {
+        for (String[] name : new String[][]{{"John", "Doe"}, {"Jane", "Johnson"}, {"Al", "Smith"}}) {
+            Account account = new Account();
+            account.setFirstName(name[0]);
+            account.setLastName(name[1]);
+            account.setAddress("123 Main St");
+            mockMvc.perform(post(BASE_URL_V1 + "/accounts")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(account)))
+                    .andExpect(status().isCreated());
+        }
+
+        // Long enough for the trigram index, and short enough for the database fallback
+        for (String name : new String[]{"OHN", "oh"}) {
+            mockMvc.perform(get(BASE_URL_V1 + "/accounts/search").param("name", name).param("fields", "lastName"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(jsonPath("$[0].lastName").value("Doe"))
+                    .andExpect(jsonPath("$[0].firstName").doesNotExist())
+                    .andExpect(jsonPath("$[1].lastName").value("Johnson"));
+        }
+    }
+
     @Test
     public void testUpdateAccount() throws Exception {
         Account account = new Account();
@@ -117,6 +348,35 @@ public class AccountControllerTest {
                 .andExpect(jsonPath("$.address").value("456 Elm St"));
     }
 
+    @Test
+    public void testPatchAccount_UpdatesOnlySentFields() throws Exception {
+        Account account = new Account();
+        account.setFirstName("John");
+        account.setLastName("Doe");
+        account.setAddress("123 Main St");
+        account = accountRepository.save(account);
+
+        mockMvc.perform(patch(BASE_URL_V1 + "/accounts/{id}", account.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\":\"456 Elm St\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(account.getId()))
+                .andExpect(jsonPath("$.firstName").value("John"))
+                .andExpect(jsonPath("$.lastName").value("Doe"))
+                .andExpect(jsonPath("$.address").value("456 Elm St"));
+    }
+
+    @Test
+    public void testUpdateAccount_NotFound() throws Exception {
+        Account updatedAccount = new Account();
+        updatedAccount.setFirstName("Jane");
+
+        mockMvc.perform(put(BASE_URL_V1 + "/accounts/{id}", -1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedAccount)))
+                .andExpect(status().isInternalServerError());
+    }
+
     @Test
     public void testDeleteAccount() throws Exception {
         Account account = new Account();
@@ -0,0 +1,166 @@
+package com.example.creditunion.account.controller;
+
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.repository.AccountDuplicateRepository;
+import com.example.creditunion.account.repository.AccountDuplicateScanRepository;
+import com.example.creditunion.account.repository.AccountRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.creditunion.account.common.Constants.BASE_URL_V1;
+import static com.example.creditunion.account.common.Constants.NEXT_CURSOR_HEADER;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional: scans run on their own thread and read committed accounts
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AccountDuplicateControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountDuplicateScanRepository accountDuplicateScanRepository;
+
+    @Autowired
+    private AccountDuplicateRepository accountDuplicateRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Account> accounts = new ArrayList<>();
+    private final List<Long> scanIds = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        accountRepository.deleteAll(accounts);
+        for (Long id : scanIds) {
+            accountDuplicateRepository.deleteAll(
+                    accountDuplicateRepository.findByScanIdAndRankGreaterThanOrderByRankAsc(id, 0, Limit.unlimited()));
+            accountDuplicateScanRepository.deleteById(id);
+        }
+    }
+
+    @Test
+    public void testScan_ReportsDuplicatesRankedAndPaged() throws Exception {
+        Account original = save("Katherine", "Quixwell", "17 Larkspur Lane");
+        Account typo = save("Katharine", "Quixwel", "17 Larkspur Ln.");
+        Account same = save("Katherine", "Quixwell", "17 Larkspur Lane");
+        save("Otto", "Quixwell", "3 Birch Court");
+
+        long id = start(2);
+        JsonNode scan = await(id);
+        assertEquals(2, scan.get("parallelism").asInt());
+        assertTrue(scan.get("accountsScanned").asLong() >= 4);
+        assertTrue(scan.get("pairsCompared").asLong() >= 6);
+        assertTrue(scan.get("duplicatesFound").asLong() >= 3);
+        assertTrue(scan.get("accountsPerSecond").asDouble() > 0);
+
+        List<JsonNode> report = report(id);
+        assertEquals(scan.get("duplicatesReported").asLong(), report.size());
+        for (int i = 0; i < report.size(); i++) {
+            assertEquals(i + 1, report.get(i).get("rank").asLong());
+            assertFalse(report.get(i).has("scanId"));
+        }
+        JsonNode exact = find(report, original, same);
+        JsonNode close = find(report, original, typo);
+        assertEquals(1.0, exact.get("score").asDouble());
+        assertTrue(close.get("score").asDouble() >= 0.85);
+        assertTrue(exact.get("rank").asLong() < close.get("rank").asLong());
+        assertTrue(report.stream().noneMatch(line -> line.toString().contains("\"duplicateId\":" + accounts.get(3).getId())));
+    }
+
+    @Test
+    public void testScan_RejectsBadParallelismAndUnknownScans() throws Exception {
+        mockMvc.perform(post(BASE_URL_V1 + "/accounts/duplicates/scans").param("parallelism", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts/duplicates/scans/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts/duplicates/scans/{id}/report", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    private Account save(String firstName, String lastName, String address) {
+        Account account = new Account();
+        account.setFirstName(firstName);
+        account.setLastName(lastName);
+        account.setAddress(address);
+        accounts.add(accountRepository.save(account));
+        return accounts.get(accounts.size() - 1);
+    }
+
+    private long start(int parallelism) throws Exception {
+        String body = mockMvc.perform(post(BASE_URL_V1 + "/accounts/duplicates/scans")
+                        .param("parallelism", String.valueOf(parallelism)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(body).get("id").asLong();
+        scanIds.add(id);
+        return id;
+    }
+
+    private JsonNode await(long id) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        boolean reportServed = false;
+        while (true) {
+            String body = mockMvc.perform(get(BASE_URL_V1 + "/accounts/duplicates/scans/{id}", id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode scan = objectMapper.readTree(body);
+            String current = scan.get("status").asText();
+            if (current.equals("COMPLETED")) {
+                return scan;
+            }
+            assertFalse(reportServed, "Report served while the scan was " + current);
+            assertTrue(current.equals("QUEUED") || current.equals("RUNNING"), "Scan ended as " + current);
+            assertTrue(System.currentTimeMillis() < deadline, "Scan still " + current);
+            // The scan may complete between the two requests, which the next poll then confirms
+            int reportStatus = mockMvc.perform(get(BASE_URL_V1 + "/accounts/duplicates/scans/{id}/report", id))
+                    .andReturn().getResponse().getStatus();
+            assertTrue(reportStatus == 400 || reportStatus == 200, "Report answered " + reportStatus);
+            reportServed = reportStatus == 200;
+            Thread.sleep(50);
+        }
+    }
+
+    // Follows the cursor through pages of two
+    private List<JsonNode> report(long id) throws Exception {
+        List<JsonNode> report = new ArrayList<>();
+        String after = null;
+        do {
+            MockHttpServletResponse response = mockMvc.perform(get(BASE_URL_V1 + "/accounts/duplicates/scans/{id}/report", id)
+                            .param("limit", "2")
+                            .param("after", after == null ? "0" : after))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            objectMapper.readTree(response.getContentAsString()).forEach(report::add);
+            after = response.getHeader(NEXT_CURSOR_HEADER);
+        } while (after != null);
+        return report;
+    }
+
+    private static JsonNode find(List<JsonNode> report, Account first, Account second) {
+        return report.stream()
+                .filter(line -> line.get("accountId").asLong() == first.getId() && line.get("duplicateId").asLong() == second.getId())
+                .findFirst().orElseThrow(() -> new AssertionError("No pair " + first.getId() + "-" + second.getId()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.creditunion.account.controller;
+
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.repository.AccountRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.creditunion.account.common.Constants.BASE_URL_V1;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional: the export runs on an async thread and only sees committed rows
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AccountExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Account> created = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        for (int i = 0; i < 3; i++) {
+            Account account = new Account();
+            account.setFirstName("Export" + i);
+            account.setLastName("Member");
+            account.setAddress(i + " Export Rd");
+            created.add(accountRepository.save(account));
+        }
+    }
+
+    @AfterEach
+    public void cleanup() {
+        accountRepository.deleteAll(created);
+    }
+
+    @Test
+    public void testExportAccounts_WritesOneJsonObjectPerLine() throws Exception {
+        MvcResult result = mockMvc.perform(get(BASE_URL_V1 + "/accounts/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(accountRepository.count(), lines.length);
+        assertTrue(body.endsWith("\n"));
+
+        List<Long> exportedIds = new ArrayList<>();
+        for (String line : lines) {
+            exportedIds.add(objectMapper.readValue(line, Account.class).getId());
+        }
+        for (Account account : created) {
+            assertTrue(exportedIds.contains(account.getId()));
+        }
+        List<Long> sorted = new ArrayList<>(exportedIds);
+        sorted.sort(Long::compareTo);
+        assertEquals(sorted, exportedIds);
+    }
+}
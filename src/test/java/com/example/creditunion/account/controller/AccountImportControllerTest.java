@@ -0,0 +1,180 @@
+package com.example.creditunion.account.controller;
+
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.model.AccountImportJob;
+import com.example.creditunion.account.repository.AccountImportErrorRepository;
+import com.example.creditunion.account.repository.AccountImportJobRepository;
+import com.example.creditunion.account.repository.AccountRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.creditunion.account.common.Constants.BASE_URL_V1;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional: imports run on their own thread and commit as they go
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AccountImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountImportJobRepository accountImportJobRepository;
+
+    @Autowired
+    private AccountImportErrorRepository accountImportErrorRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String lastName = "Imported" + System.nanoTime();
+    private final List<Long> jobIds = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        accountRepository.deleteAll(imported());
+        for (Long id : jobIds) {
+            accountImportErrorRepository.deleteAll(accountImportErrorRepository.findByJobIdOrderByRowNumberAsc(id));
+            accountImportJobRepository.deleteById(id);
+        }
+    }
+
+    @Test
+    public void testImport_CreatesValidRowsAndReportsRejectedOnes() throws Exception {
+        StringBuilder csv = new StringBuilder("firstName,lastName,address\n");
+        for (int i = 0; i < 1200; i++) {
+            csv.append("Member").append(i).append(',').append(lastName).append(",\"").append(i).append(" Main St, Apt 1\"\n");
+        }
+        csv.append(",,\n");
+        csv.append("Short,Row\n");
+
+        long id = start(csv.toString());
+        JsonNode job = await(id, "COMPLETED");
+
+        assertEquals(1202, job.get("rowsRead").asLong());
+        assertEquals(1200, job.get("rowsImported").asLong());
+        assertEquals(2, job.get("rowsFailed").asLong());
+        assertEquals(1201, job.get("errors").get(0).get("rowNumber").asLong());
+        assertEquals("Expected 3 fields but found 2", job.get("errors").get(1).get("message").asText());
+        assertTrue(job.get("rowsPerSecond").asDouble() > 0);
+
+        List<Account> accounts = imported();
+        assertEquals(1200, accounts.size());
+        assertTrue(accounts.stream().anyMatch(account -> "7 Main St, Apt 1".equals(account.getAddress())));
+    }
+
+    @Test
+    public void testResume_ContinuesAfterTheLastCommittedChunk() throws Exception {
+        StringBuilder rows = new StringBuilder("lastName,firstName\n");
+        for (int i = 0; i < 600; i++) {
+            rows.append(lastName).append(",Member").append(i).append('\n');
+        }
+
+        // The first chunk of 500 commits, then an unterminated quote fails the import
+        long id = start(rows + lastName + ",\"Broken\n");
+        JsonNode job = await(id, "FAILED");
+        assertEquals(500, job.get("rowsImported").asLong());
+
+        // Once the file is repaired, the import carries on from its checkpoint without duplicating rows
+        AccountImportJob failed = accountImportJobRepository.findById(id).orElseThrow();
+        Files.writeString(Path.of(failed.getFilePath()), rows + lastName + ",Fixed\n", StandardCharsets.UTF_8);
+        mockMvc.perform(post(BASE_URL_V1 + "/accounts/imports/{id}/resume", id))
+                .andExpect(status().isAccepted());
+        job = await(id, "COMPLETED");
+
+        assertEquals(601, job.get("rowsImported").asLong());
+        assertEquals(601, imported().size());
+        assertFalse(Files.exists(Path.of(failed.getFilePath())));
+    }
+
+    @Test
+    public void testImport_RowTheDatabaseRefusesFailsAlone() throws Exception {
+        // Short enough for the import's own validation, but upper-cased to "SS" its 200 characters
+        // become 400, which the generated first_name_upper column refuses
+        String refused = "\u00DF".repeat(200);
+        StringBuilder csv = new StringBuilder("firstName,lastName\n");
+        for (int i = 0; i < 700; i++) {
+            csv.append(i == 3 ? "" : i == 620 ? refused : "Member" + i).append(',').append(lastName).append('\n');
+        }
+        JsonNode job = await(start(csv.toString()), "COMPLETED");
+
+        assertEquals(700, job.get("rowsRead").asLong());
+        assertEquals(699, job.get("rowsImported").asLong());
+        assertEquals(1, job.get("rowsFailed").asLong());
+        assertEquals(621, job.get("errors").get(0).get("rowNumber").asLong());
+        assertTrue(job.get("errors").get(0).get("message").asText().length() <= 255);
+        assertEquals(699, imported().size());
+    }
+
+    @Test
+    public void testImport_RejectsUnknownColumnsAndResumingCompletedImports() throws Exception {
+        long id = start("firstName,nickname\nAnn,Annie\n");
+        JsonNode job = await(id, "FAILED");
+        assertTrue(job.get("error").asText().contains("nickname"));
+
+        // A message longer than the error column is cut rather than leaving the import RUNNING
+        id = start("firstName," + "x".repeat(300) + "\nAnn,Annie\n");
+        job = await(id, "FAILED");
+        assertEquals(255, job.get("error").asText().length());
+
+        id = start("firstName,lastName\nAnn," + lastName + "\n");
+        await(id, "COMPLETED");
+        mockMvc.perform(post(BASE_URL_V1 + "/accounts/imports/{id}/resume", id))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts/imports/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    private long start(String csv) throws Exception {
+        String body = mockMvc.perform(post(BASE_URL_V1 + "/accounts/imports")
+                        .contentType("text/csv")
+                        .content(csv.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(body).get("id").asLong();
+        jobIds.add(id);
+        return id;
+    }
+
+    private JsonNode await(long id, String status) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            String body = mockMvc.perform(get(BASE_URL_V1 + "/accounts/imports/{id}", id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode job = objectMapper.readTree(body);
+            String current = job.get("status").asText();
+            if (current.equals(status)) {
+                return job;
+            }
+            assertTrue(current.equals("QUEUED") || current.equals("RUNNING"), "Import ended as " + current);
+            assertTrue(System.currentTimeMillis() < deadline, "Import still " + current);
+            Thread.sleep(50);
+        }
+    }
+
+    private List<Account> imported() {
+        return accountRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(lastName, lastName);
+    }
+}
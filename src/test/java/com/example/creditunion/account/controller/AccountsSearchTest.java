@@ -1,5 +1,6 @@
 package com.example.creditunion.account.controller;
 
+import com.example.creditunion.account.exception.InvalidRequestException;
 import com.example.creditunion.account.exception.ResourceNotFoundException;
 import com.example.creditunion.account.model.Account;
 import com.example.creditunion.account.service.AccountService;
@@ -41,7 +42,7 @@ public class AccountsSearchTest {
 
         when(accountService.getAccountById(1L)).thenReturn(Optional.of(account));
 
-        ResponseEntity<?> response = accountController.searchAccounts(1L, null);
+        ResponseEntity<?> response = accountController.searchAccounts(1L, null, null, null, null);
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(account, response.getBody());
@@ -55,7 +56,7 @@ public class AccountsSearchTest {
         when(accountService.getAccountById(1L)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(ResourceNotFoundException.class, () -> {
-            accountController.searchAccounts(1L, null);
+            accountController.searchAccounts(1L, null, null, null, null);
         });
 
         assertEquals("Account not found with id: 1", exception.getMessage());
@@ -79,7 +80,7 @@ public class AccountsSearchTest {
         List<Account> accounts = Arrays.asList(account1, account2);
         when(accountService.searchAccountsByName("John")).thenReturn(accounts);
 
-        ResponseEntity<?> response = accountController.searchAccounts(null, "John");
+        ResponseEntity<?> response = accountController.searchAccounts(null, "John", null, null, null);
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(accounts, response.getBody());
@@ -93,7 +94,7 @@ public class AccountsSearchTest {
         when(accountService.searchAccountsByName("NonExistentName")).thenReturn(Collections.emptyList());
 
         Exception exception = assertThrows(ResourceNotFoundException.class, () -> {
-            accountController.searchAccounts(null, "NonExistentName");
+            accountController.searchAccounts(null, "NonExistentName", null, null, null);
         });
 
         assertEquals("No accounts found with name: NonExistentName", exception.getMessage());
@@ -104,7 +105,7 @@ public class AccountsSearchTest {
 
     @Test
     public void testSearchAccountsWithoutParams() {
-        ResponseEntity<?> response = accountController.searchAccounts(null, null);
+        ResponseEntity<?> response = accountController.searchAccounts(null, null, null, null, null);
         assertNotNull(response);
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Please provide a name or id to search.", response.getBody());
@@ -122,7 +123,7 @@ public class AccountsSearchTest {
 
         when(accountService.getAccountById(1L)).thenReturn(Optional.of(account));
 
-        ResponseEntity<?> response = accountController.searchAccounts(1L, "John");
+        ResponseEntity<?> response = accountController.searchAccounts(1L, "John", null, null, null);
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(account, response.getBody());
@@ -130,5 +131,62 @@ public class AccountsSearchTest {
         verify(accountService, times(1)).getAccountById(1L);
         verifyNoMoreInteractions(accountService);
     }
-}
 
+    @Test
+    public void testSearchAccountsByLastNamePrefix_CapsLimit() {
+        Account account = new Account();
+        account.setFirstName("John");
+        account.setLastName("Smith");
+        when(accountService.searchAccountsByLastNamePrefix("Smi", 1000)).thenReturn(List.of(account));
+
+        ResponseEntity<?> response = accountController.searchAccountsByLastNamePrefix("Smi", 5000);
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(List.of(account), response.getBody());
+
+        verify(accountService, times(1)).searchAccountsByLastNamePrefix("Smi", 1000);
+        verifyNoMoreInteractions(accountService);
+    }
+
+    @Test
+    public void testSearchAccountsByFirstNamePrefix_NoMatchesIsEmpty() {
+        when(accountService.searchAccountsByFirstNamePrefix("Zz", 100)).thenReturn(Collections.emptyList());
+
+        ResponseEntity<?> response = accountController.searchAccountsByFirstNamePrefix("Zz", null);
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(Collections.emptyList(), response.getBody());
+    }
+
+    @Test
+    public void testSearchAccountsByPrefix_EmptyPrefix() {
+        ResponseEntity<?> response = accountController.searchAccountsByFirstNamePrefix("", null);
+        assertEquals(400, response.getStatusCode().value());
+        assertEquals("Please provide a prefix to search.", response.getBody());
+
+        verifyNoInteractions(accountService);
+    }
+
+    @Test
+    public void testSearchAccountsByName_FuzzyMode() {
+        Account account = new Account();
+        account.setId(1L);
+        account.setLastName("Smith");
+        when(accountService.searchAccountsByNameFuzzy("Smyth", 20)).thenReturn(List.of(account));
+
+        ResponseEntity<?> response = accountController.searchAccounts(null, "Smyth", null, "fuzzy", 20);
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(List.of(account), response.getBody());
+
+        verify(accountService, times(1)).searchAccountsByNameFuzzy("Smyth", 20);
+        verifyNoMoreInteractions(accountService);
+    }
+
+    @Test
+    public void testSearchAccountsByName_UnknownModeOrFuzzyFields() {
+        assertThrows(InvalidRequestException.class,
+                () -> accountController.searchAccounts(null, "Smyth", null, "phonetic", null));
+        assertThrows(InvalidRequestException.class,
+                () -> accountController.searchAccounts(null, "Smyth", List.of("lastName"), "fuzzy", null));
+
+        verifyNoInteractions(accountService);
+    }
+}
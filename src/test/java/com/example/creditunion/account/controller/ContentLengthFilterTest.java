@@ -0,0 +1,91 @@
+package com.example.creditunion.account.controller;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static com.example.creditunion.account.common.Constants.BASE_URL_V1;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentLengthFilterTest {
+
+    private final ResponseEncodingConfig.ContentLengthFilter filter = new ResponseEncodingConfig.ContentLengthFilter(2048);
+
+    @Test
+    public void testStreamingEndpointsAreSkippedUnderAContextPathOrWithATrailingSlash() {
+        assertTrue(filter.shouldNotFilter(request("", BASE_URL_V1 + "/accounts/export")));
+        assertTrue(filter.shouldNotFilter(request("/creditunion", BASE_URL_V1 + "/accounts/export")));
+        assertTrue(filter.shouldNotFilter(request("", BASE_URL_V1 + "/accounts/changes/stream/")));
+        assertTrue(filter.shouldNotFilter(request("/creditunion", BASE_URL_V1 + "/accounts/changes/stream/")));
+    }
+
+    @Test
+    public void testStreamingEndpointsAreSkippedWithoutAServletPath() {
+        // As MockMvc dispatches
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", BASE_URL_V1 + "/accounts/export")));
+    }
+
+    @Test
+    public void testOtherEndpointsAreBuffered() {
+        assertFalse(filter.shouldNotFilter(request("", BASE_URL_V1 + "/accounts")));
+        assertFalse(filter.shouldNotFilter(request("/creditunion", BASE_URL_V1 + "/accounts/search")));
+        assertFalse(filter.shouldNotFilter(request("", BASE_URL_V1 + "/accounts/changes")));
+    }
+
+    @Test
+    public void testBodiesBelowTheThresholdGetAContentLength() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Writes servlet = new Writes(2047, response);
+        filter.doFilter(request("", BASE_URL_V1 + "/accounts"), response, new MockFilterChain(servlet));
+
+        assertEquals(0, servlet.sentWhileWriting);
+        assertEquals(2047, response.getContentLength());
+        assertEquals(2047, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testBodiesReachingTheThresholdAreStreamedWithoutALength() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Writes servlet = new Writes(10_000, response);
+        filter.doFilter(request("", BASE_URL_V1 + "/accounts"), response, new MockFilterChain(servlet));
+
+        assertEquals(10_000, servlet.sentWhileWriting);
+        assertEquals(0, response.getContentLength());
+        assertEquals(10_000, response.getContentAsByteArray().length);
+    }
+
+    private static MockHttpServletRequest request(String contextPath, String servletPath) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", contextPath + servletPath);
+        request.setContextPath(contextPath);
+        request.setServletPath(servletPath);
+        return request;
+    }
+
+    // Writes length bytes in flushed 512-byte writes and notes how many had reached target by the end
+    private static class Writes extends HttpServlet {
+
+        private final int length;
+        private final MockHttpServletResponse target;
+        private int sentWhileWriting;
+
+        Writes(int length, MockHttpServletResponse target) {
+            this.length = length;
+            this.target = target;
+        }
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            for (int written = 0; written < length; written += 512) {
+                response.getOutputStream().write(new byte[Math.min(512, length - written)]);
+                response.getOutputStream().flush();
+            }
+            sentWhileWriting = target.getContentAsByteArray().length;
+        }
+    }
+}
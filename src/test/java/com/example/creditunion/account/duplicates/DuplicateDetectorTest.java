@@ -0,0 +1,91 @@
+package com.example.creditunion.account.duplicates;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DuplicateDetectorTest {
+
+    private final DuplicateDetector detector = new DuplicateDetector(0.85, 500, 50);
+
+    @Test
+    public void testNormalizeAndBlockingKeys() {
+        assertEquals("12 MAIN ST APT 4", DuplicateCandidate.normalize(" 12 Main Street, Apartment #4."));
+        assertEquals("", DuplicateCandidate.normalize(null));
+
+        // Same-sounding last names and the same house on the same street share blocks
+        DuplicateCandidate smith = new DuplicateCandidate(1, "John", "Smith", "12 Main Street");
+        DuplicateCandidate smyth = new DuplicateCandidate(2, "Jon", "Smyth", "12 Main St.");
+        assertEquals(smith.blockingKeys(), smyth.blockingKeys());
+        assertEquals(List.of(), new DuplicateCandidate(3, "Ann", null, "Main").blockingKeys());
+    }
+
+    @Test
+    public void testSimilarity() {
+        assertEquals(1.0, DuplicateDetector.jaroWinkler("MARTHA", "MARTHA"));
+        assertEquals(0.961, DuplicateDetector.jaroWinkler("MARTHA", "MARHTA"), 0.001);
+        assertEquals(0.0, DuplicateDetector.jaroWinkler("ABC", "XYZ"));
+
+        DuplicateCandidate john = new DuplicateCandidate(1, "John", "Smith", "12 Main Street");
+        assertTrue(DuplicateDetector.similarity(john, new DuplicateCandidate(2, "Jon", "Smyth", "12 Main St"), 0) > 0.9);
+        assertTrue(DuplicateDetector.similarity(john, new DuplicateCandidate(3, "Mary", "Smith", "9 Elm Road"), 0) < 0.85);
+        // A last name alone is not enough to go on
+        assertEquals(0.0, DuplicateDetector.similarity(john, new DuplicateCandidate(4, null, "Smith", null), 0));
+    }
+
+    @Test
+    public void testDetect_RanksDuplicatesFoundThroughEitherBlock() {
+        List<DuplicateCandidate> candidates = List.of(
+                new DuplicateCandidate(1, "John", "Smith", "12 Main Street"),
+                new DuplicateCandidate(2, "Mary", "Jones", "40 Oak Avenue"),
+                new DuplicateCandidate(3, "Jon", "Smyth", "12 Main St"),
+                // A changed last name is still found through the address block
+                new DuplicateCandidate(4, "Mary", "Jonas-Brown", "40 Oak Ave"),
+                new DuplicateCandidate(5, "Mary", "Jones", "40 Oak Avenue"),
+                new DuplicateCandidate(6, "Peter", "Smith", "7 Hill Road"));
+
+        DuplicateDetector.Result result = detector.detect(candidates, ForkJoinPool.commonPool());
+
+        assertEquals(6, result.getAccounts());
+        List<DuplicatePair> pairs = result.getPairs();
+        assertEquals(List.of("2-5", "1-3"), pairs.stream().limit(2).map(DuplicateDetectorTest::ids).toList());
+        assertEquals(1.0, pairs.get(0).getScore());
+        assertTrue(pairs.stream().anyMatch(pair -> ids(pair).equals("4-5")));
+        assertTrue(pairs.stream().noneMatch(pair -> pair.getDuplicateId() == 6));
+        // Pairs sharing both blocks are reported once
+        assertEquals(pairs.size(), pairs.stream().map(DuplicateDetectorTest::ids).distinct().count());
+    }
+
+    @Test
+    public void testDetect_WindowsLargeBlocksAndGivesTheSameResultOnAnyParallelism() {
+        Random random = new Random(42);
+        String[] firstNames = {"Ann", "Bob", "Carl", "Dana", "Eve", "Fay", "Gus", "Hal"};
+        List<DuplicateCandidate> candidates = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            // One surname makes a block far over the maximum size, so it is compared through a window
+            String first = firstNames[random.nextInt(firstNames.length)];
+            candidates.add(new DuplicateCandidate(i, first, "Smith", random.nextInt(400) + " Street " + random.nextInt(50)));
+        }
+
+        DuplicateDetector.Result serial = detector.detect(candidates, new ForkJoinPool(1));
+        DuplicateDetector.Result parallel = detector.detect(candidates, new ForkJoinPool(4));
+
+        assertFalse(serial.getPairs().isEmpty());
+        assertEquals(serial.getComparisons(), parallel.getComparisons());
+        assertEquals(serial.getBlocks(), parallel.getBlocks());
+        assertEquals(serial.getPairs().stream().map(DuplicateDetectorTest::ids).toList(),
+                parallel.getPairs().stream().map(DuplicateDetectorTest::ids).toList());
+        // Each row of the surname block is compared with the 49 after it, not with the other 2999;
+        // the small address blocks add a few more
+        assertTrue(serial.getComparisons() < 3000L * 49 + 3000L * 10);
+    }
+
+    private static String ids(DuplicatePair pair) {
+        return pair.getAccountId() + "-" + pair.getDuplicateId();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.creditunion.account.events;
+
+import com.example.creditunion.account.model.Account;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AccountEventSubscriberTest {
+
+    // Tasks are run by the test, so each step of the hand-off can be observed
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final SseEmitter emitter = mock(SseEmitter.class);
+
+    @Test
+    public void testOffer_QueuesWithoutWritingOnTheCallersThread() throws Exception {
+        AccountEventSubscriber subscriber = new AccountEventSubscriber(emitter, 4, tasks::add, () -> { }, () -> { });
+        subscriber.startLive();
+
+        subscriber.offer(AccountChangedEvent.created(account(1L, 5L)));
+        subscriber.offer(AccountChangedEvent.deleted(2L, 6L));
+        verify(emitter, never()).send(any(SseEmitter.SseEventBuilder.class));
+        // One task for the subscriber, however many events are waiting
+        assertEquals(1, tasks.size());
+
+        runTasks();
+        List<String> sent = sentEvents(2);
+        assertTrue(sent.get(0).startsWith("id:5.1\nevent:account\n"));
+        assertTrue(sent.get(1).startsWith("id:6.2\nevent:account\n"));
+    }
+
+    @Test
+    public void testOffer_SkipsChangesAtOrBeforeTheResumePosition() throws Exception {
+        AccountEventSubscriber subscriber = new AccountEventSubscriber(emitter, 4, tasks::add, () -> { }, () -> { });
+        subscriber.resumeAfter(5L, 10L);
+        subscriber.startLive();
+
+        subscriber.offer(AccountChangedEvent.updated(account(10L, 5L)));
+        subscriber.offer(AccountChangedEvent.updated(account(11L, 5L)));
+        runTasks();
+
+        assertTrue(sentEvents(1).get(0).startsWith("id:5.11\n"));
+    }
+
+    @Test
+    public void testOffer_OverflowSendsResyncAndCloses() throws Exception {
+        AtomicInteger overflows = new AtomicInteger();
+        AccountEventSubscriber subscriber = new AccountEventSubscriber(emitter, 2, tasks::add, overflows::incrementAndGet, () -> { });
+        subscriber.resumeAfter(4L, 1L);
+        subscriber.startLive();
+
+        for (long id = 1; id <= 3; id++) {
+            assertTrue(subscriber.offer(AccountChangedEvent.created(account(id, 5L))));
+        }
+        assertEquals(1, overflows.get());
+        runTasks();
+
+        // The queued events are dropped; the client resumes from the last event it did get
+        String resync = sentEvents(1).get(0);
+        assertTrue(resync.startsWith("event:resync\n"));
+        assertTrue(resync.contains("4.1"));
+        verify(emitter, times(1)).complete();
+        assertTrue(subscriber.isClosed());
+        assertFalse(subscriber.offer(AccountChangedEvent.created(account(4L, 5L))));
+    }
+
+    @Test
+    public void testStalledSend_IsAbandonedAndClosedOnceItReturns() throws Exception {
+        CountDownLatch socketDrains = new CountDownLatch(1);
+        doAnswer(invocation -> socketDrains.await(10, TimeUnit.SECONDS)).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+        AtomicInteger stallsEnded = new AtomicInteger();
+        AccountEventSubscriber subscriber = new AccountEventSubscriber(emitter, 4, tasks::add, () -> { },
+                stallsEnded::incrementAndGet);
+        subscriber.startLive();
+        subscriber.offer(AccountChangedEvent.created(account(1L, 5L)));
+        subscriber.offer(AccountChangedEvent.created(account(2L, 5L)));
+        Thread writer = new Thread(this::runTasks);
+        writer.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!subscriber.abandonIfStalled(TimeUnit.MILLISECONDS.toNanos(50))) {
+            assertTrue(System.nanoTime() < deadline, "The send never counted as stalled");
+            Thread.sleep(10);
+        }
+        assertFalse(subscriber.offer(AccountChangedEvent.created(account(3L, 5L))));
+        assertFalse(subscriber.abandonIfStalled(0));
+
+        socketDrains.countDown();
+        writer.join(5000);
+        // The blocked thread closes the connection and sends nothing more
+        assertEquals(1, stallsEnded.get());
+        verify(emitter).completeWithError(any(Throwable.class));
+        verify(emitter, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        assertTrue(subscriber.isClosed());
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    // The text of each event sent, with any data objects in their toString form
+    private List<String> sentEvents(int count) throws Exception {
+        ArgumentCaptor<SseEmitter.SseEventBuilder> events = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, times(count)).send(events.capture());
+        return events.getAllValues().stream()
+                .map(event -> event.build().stream()
+                        .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                        .map(String::valueOf)
+                        .collect(Collectors.joining()))
+                .collect(Collectors.toList());
+    }
+
+    private static Account account(Long id, long changeSeq) {
+        Account account = new Account();
+        account.setId(id);
+        account.setFirstName("Event");
+        account.setChangeSeq(changeSeq);
+        return account;
+    }
+}
@@ -4,7 +4,9 @@ import static com.example.creditunion.account.common.Constants.BASE_URL_V1;
 import com.example.creditunion.account.controller.AccountController;
 import com.example.creditunion.account.exception.GlobalExceptionHandler;
 import com.example.creditunion.account.exception.InternalServerException;
+import com.example.creditunion.account.metrics.AccountMetrics;
 import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.service.AccountBatchService;
 import com.example.creditunion.account.service.AccountService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +19,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.dao.DataAccessResourceFailureException;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -24,6 +28,8 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
 import java.util.Optional;
 
 @WebMvcTest(AccountController.class)
@@ -35,6 +41,12 @@ public class GlobalExceptionHandlerTest {
     @MockBean
     private AccountService accountService;
 
+    @MockBean
+    private AccountBatchService accountBatchService;
+
+    @MockBean
+    private AccountMetrics accountMetrics;
+
     @InjectMocks
     private AccountController accountController;
 
@@ -45,7 +57,7 @@ public class GlobalExceptionHandlerTest {
     public void setup() {
         MockitoAnnotations.openMocks(this);
         mockMvc = standaloneSetup(accountController)
-                .setControllerAdvice(new GlobalExceptionHandler())
+                .setControllerAdvice(new GlobalExceptionHandler(accountMetrics))
                 .build();
     }
 
@@ -62,6 +74,7 @@ public class GlobalExceptionHandlerTest {
 
         String message = result.getResponse().getContentAsString();
         assertEquals("Account not found with id: 10", message);
+        verify(accountMetrics, times(1)).countError(ResourceNotFoundException.class);
     }
 
     @Test
@@ -71,7 +84,7 @@ public class GlobalExceptionHandlerTest {
         Account updatedAccount = new Account();
         updatedAccount.setAddress("1234 Main St");
 
-        when(accountService.updateAccount(anyLong(), any(Account.class)))
+        when(accountService.updateAccount(anyLong(), any(Account.class), any()))
                 .thenThrow(new InternalServerException("Internal server error"));
 
         MvcResult result = mockMvc.perform(put(BASE_URL_V1 + "/accounts/{id}", accountId)
@@ -82,6 +95,33 @@ public class GlobalExceptionHandlerTest {
 
         String message = result.getResponse().getContentAsString();
         assertEquals("Internal server error", message);
+        verify(accountMetrics, times(1)).countError(InternalServerException.class);
+    }
+
+    @Test
+    public void testGetAccountById_DatabaseBusy() throws Exception {
+
+        when(accountService.getAccountById(30L))
+                .thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager for transaction",
+                        new SQLTransientConnectionException("All 10 database permits are in use")));
+
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts/{id}", 30L))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+        verify(accountMetrics, times(1)).countError(CannotCreateTransactionException.class);
+    }
+
+    @Test
+    public void testGetAccountById_DatabaseFailureIsNotRetryable() throws Exception {
+
+        when(accountService.getAccountById(31L))
+                .thenThrow(new DataAccessResourceFailureException("Could not open the database file",
+                        new SQLException("File corrupted")));
+
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts/{id}", 31L))
+                .andExpect(status().isInternalServerError())
+                .andExpect(header().doesNotExist("Retry-After"));
+        verify(accountMetrics, times(1)).countError(DataAccessResourceFailureException.class);
     }
 
     @Test
@@ -0,0 +1,43 @@
+package com.example.creditunion.account.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.example.creditunion.account.common.Constants.BASE_URL_V1;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class AccountMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testPrometheusScrape_IncludesAccountMeters() throws Exception {
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts").param("limit", "5"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(BASE_URL_V1 + "/accounts/search").param("name", "NoSuchMemberName"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "accounts_service_seconds_bucket{class=\"com.example.creditunion.account.service.AccountService\","
+                                + "exception=\"none\",method=\"getAccountsPage\"")))
+                .andExpect(content().string(containsString(
+                        "accounts_result_size_accounts_bucket{method=\"searchAccountsByName\"")))
+                .andExpect(content().string(containsString(
+                        "accounts_errors_total{exception=\"ResourceNotFoundException\"}")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket")));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.creditunion.account.repository;
+
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.service.AccountService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// validate: Hibernate checks the entities against the schema the migrations built
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrated;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.cache.type=none"
+})
+public class AccountSchemaMigrationTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.update("delete from account");
+    }
+
+    @Test
+    public void testPrefixSearchesIgnoreCaseAndOrderByName() {
+        Account smithson = create("Ada", "Smithson");
+        Account smith = create("grace", "smith");
+        Account smyth = create("Alan", "Smyth");
+        Account percent = create("Edsger", "100% Smith");
+
+        assertEquals(List.of(smith.getId(), smithson.getId()),
+                ids(accountService.searchAccountsByLastNamePrefix("SMITH", 10)));
+        assertEquals(List.of(smith.getId(), smithson.getId(), smyth.getId()),
+                ids(accountService.searchAccountsByLastNamePrefix("sm", 10)));
+        assertEquals(List.of(smith.getId()), ids(accountService.searchAccountsByLastNamePrefix("sm", 1)));
+        assertEquals(List.of(smithson.getId(), smyth.getId()),
+                ids(accountService.searchAccountsByFirstNamePrefix("a", 10)));
+        // Wildcards in the prefix match only themselves
+        assertEquals(List.of(percent.getId()), ids(accountService.searchAccountsByLastNamePrefix("100%", 10)));
+        assertTrue(accountService.searchAccountsByLastNamePrefix("_mith", 10).isEmpty());
+
+        // The generated columns follow updates
+        accountService.patchAccount(smyth.getId(), account(null, "Lovelace"), null);
+        assertEquals(List.of(smyth.getId()), ids(accountService.searchAccountsByLastNamePrefix("love", 10)));
+    }
+
+    @Test
+    public void testPrefixSearchesSeekTheNameIndexes() {
+        assertTrue(plan("select id from account where last_name_upper like 'SMI%' order by last_name_upper, id")
+                .contains("IDX_ACCOUNT_LAST_NAME_UPPER"));
+        assertTrue(plan("select id from account where first_name_upper like 'AD%' order by first_name_upper, id")
+                .contains("IDX_ACCOUNT_FIRST_NAME_UPPER"));
+    }
+
+    @Test
+    public void testDatabaseCreatedBeforeMigrationsIsUpgraded() {
+        DriverManagerDataSource legacy = new DriverManagerDataSource("jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate legacyJdbc = new JdbcTemplate(legacy);
+        // The table as the first release created it
+        legacyJdbc.execute("create table account (id bigint generated by default as identity primary key, "
+                + "address varchar(255), first_name varchar(255), last_name varchar(255))");
+        legacyJdbc.update("insert into account (first_name, last_name, address) values ('Ada', 'Lovelace', 'London')");
+
+        Flyway.configure().dataSource(legacy).baselineOnMigrate(true).baselineVersion("0").load().migrate();
+
+        assertEquals(0L, legacyJdbc.queryForObject("select version from account", Long.class));
+        assertEquals("LOVELACE", legacyJdbc.queryForObject("select last_name_upper from account", String.class));
+        assertEquals(1, legacyJdbc.queryForObject(
+                "select count(*) from information_schema.tables where table_name = 'ACCOUNT_TOMBSTONE'", Integer.class));
+    }
+
+    private String plan(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class);
+    }
+
+    private Account create(String firstName, String lastName) {
+        return accountService.createAccount(account(firstName, lastName));
+    }
+
+    private static Account account(String firstName, String lastName) {
+        Account account = new Account();
+        account.setFirstName(firstName);
+        account.setLastName(lastName);
+        account.setAddress("1 High St");
+        return account;
+    }
+
+    private static List<Long> ids(List<Account> accounts) {
+        return accounts.stream().map(Account::getId).toList();
+    }
+}
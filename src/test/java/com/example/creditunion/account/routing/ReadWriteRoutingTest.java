@@ -0,0 +1,166 @@
+package com.example.creditunion.account.routing;
+
+import com.example.creditunion.account.exception.InternalServerException;
+import com.example.creditunion.account.exception.PreconditionFailedException;
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.model.AccountChange;
+import com.example.creditunion.account.service.AccountChangeService;
+import com.example.creditunion.account.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two in-memory H2 databases stand in for the primary and its replica; the test replicates by hand
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "creditunion.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "spring.cache.type=none",
+        // The test refreshes the guard itself
+        "creditunion.datasource.replica.poll-interval=1h"
+})
+public class ReadWriteRoutingTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountChangeService accountChangeService;
+
+    @Autowired
+    private ReplicaLagGuard replicaLagGuard;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    public void setup() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("drop all objects");
+        for (String statement : primary.queryForList("script nodata", String.class)) {
+            replica.execute(statement);
+        }
+        primary.update("delete from account");
+        replicate();
+    }
+
+    @Test
+    public void testReadsGoToReplicaUntilItLagsBehindAWrite() {
+        // A row only the replica has shows which database served a read
+        replica.update("insert into account (id, first_name, last_name, address, change_seq, version) "
+                + "values (-1, 'Replica', 'Only', 'Nowhere', -1, 0)");
+        replicaLagGuard.refresh();
+        assertTrue(firstNames(accountService.getAllAccounts()).contains("Replica"));
+
+        Account created = accountService.createAccount(account("Ada"));
+        replicaLagGuard.refresh();
+
+        // Read-your-own-writes: the replica has not applied the create, so reads use the primary
+        assertFalse(replicaLagGuard.replicaIsCurrent());
+        assertEquals("Ada", accountService.getAccountById(created.getId()).orElseThrow().getFirstName());
+        assertFalse(firstNames(accountService.getAllAccounts()).contains("Replica"));
+
+        replicate();
+        replicaLagGuard.refresh();
+        assertTrue(replicaLagGuard.replicaIsCurrent());
+        assertEquals(List.of("Replica", "Ada"), firstNames(accountService.getAllAccounts()));
+    }
+
+    @Test
+    public void testUnreachableReplicaSendsReadsToPrimary() {
+        replica.execute("drop table account_tombstone");
+        replicaLagGuard.refresh();
+
+        assertFalse(replicaLagGuard.replicaIsCurrent());
+        assertEquals(-1, replicaLagGuard.lag());
+        assertTrue(accountService.getAllAccounts().isEmpty());
+    }
+
+    @Test
+    public void testChangeFeedAlwaysReadsPrimary() {
+        Account created = accountService.createAccount(account("Grace"));
+        replicate();
+        // A row only the replica has would show up in the feed if the replica served it
+        replica.update("insert into account (id, first_name, last_name, address, change_seq, version) "
+                + "values (-1, 'Replica', 'Only', 'Nowhere', ?, 0)", created.getChangeSeq() + 1);
+        replicaLagGuard.refresh();
+        assertTrue(replicaLagGuard.replicaIsCurrent());
+
+        List<AccountChange> changes = accountChangeService.getChanges(null, 10).getChanges();
+        assertEquals(List.of(created.getId()), changes.stream().map(AccountChange::getId).toList());
+    }
+
+    @Test
+    public void testRejectedWritesAreNotWaitedFor() {
+        Account created = accountService.createAccount(account("Ada"));
+        replicate();
+        replicaLagGuard.refresh();
+        assertTrue(replicaLagGuard.replicaIsCurrent());
+
+        // Each is handed a change sequence number, but none writes anything the replica could apply
+        assertThrows(PreconditionFailedException.class,
+                () -> accountService.updateAccount(created.getId(), account("Grace"), created.getVersion() + 5));
+        assertThrows(InternalServerException.class,
+                () -> accountService.patchAccount(created.getId() + 1000, account("Grace"), null));
+        assertThrows(InternalServerException.class, () -> accountService.deleteAccount(created.getId() + 1000, null));
+        replicaLagGuard.refresh();
+
+        assertTrue(replicaLagGuard.replicaIsCurrent());
+        assertEquals(0, replicaLagGuard.lag());
+    }
+
+    @Test
+    public void testReplicaHoldingALaterWriteStillLacksAnEarlierOne() {
+        Account first = accountService.createAccount(account("Ada"));
+        Account second = accountService.createAccount(account("Grace"));
+        // The replica has the later write but not the earlier one, as when numbers commit out of order
+        replica.update("insert into account (id, first_name, last_name, address, change_seq, version) "
+                + "values (?, 'Grace', 'Lovelace', 'Nowhere', ?, 0)", second.getId(), second.getChangeSeq());
+        replicaLagGuard.refresh();
+
+        assertFalse(replicaLagGuard.replicaIsCurrent());
+        assertTrue(replicaLagGuard.lag() > 0);
+        assertEquals("Ada", accountService.getAccountById(first.getId()).orElseThrow().getFirstName());
+
+        replicate();
+        replicaLagGuard.refresh();
+        assertTrue(replicaLagGuard.replicaIsCurrent());
+    }
+
+    // Copies the primary's accounts to the replica, as replication would
+    private void replicate() {
+        for (var row : primary.queryForList("select id, first_name, last_name, address, change_seq, version from account")) {
+            replica.update("merge into account (id, first_name, last_name, address, change_seq, version) "
+                    + "key (id) values (?, ?, ?, ?, ?, ?)", row.get("ID"), row.get("FIRST_NAME"), row.get("LAST_NAME"),
+                    row.get("ADDRESS"), row.get("CHANGE_SEQ"), row.get("VERSION"));
+        }
+    }
+
+    private static Account account(String firstName) {
+        Account account = new Account();
+        account.setFirstName(firstName);
+        account.setLastName("Lovelace");
+        account.setAddress("12 St James's Square");
+        return account;
+    }
+
+    private static List<String> firstNames(List<Account> accounts) {
+        return accounts.stream().map(Account::getFirstName).toList();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.creditunion.account.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FuzzyNameIndexTest {
+
+    private FuzzyNameIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new FuzzyNameIndex();
+        index.put(1L, "John", "Smith");
+        index.put(2L, "Jane", "Smyth");
+        index.put(3L, "Catherine", "Schmidt");
+        index.put(4L, "Al", "Johnson");
+        index.put(5L, "Kathryn", "Doe");
+    }
+
+    @Test
+    public void testSearch_RanksTyposBeforeSoundAlikes() {
+        // Smith and Smyth are an edit away, Schmidt only sounds alike
+        assertEquals(List.of(1L, 2L, 3L), index.search(FuzzyNameIndex.query("smith"), 10));
+        assertEquals(List.of(1L, 2L), index.search(FuzzyNameIndex.query("SMITH"), 2));
+        assertEquals(List.of(4L), index.search(FuzzyNameIndex.query("Jonsen"), 10));
+    }
+
+    @Test
+    public void testSearch_MatchesFirstNamesBySound() {
+        assertEquals(List.of(3L, 5L), index.search(FuzzyNameIndex.query("Kathrine"), 10));
+        assertTrue(index.search(FuzzyNameIndex.query("Xavier"), 10).isEmpty());
+    }
+
+    @Test
+    public void testPutAndRemove_KeepTheIndexCurrent() {
+        index.put(2L, "Jane", "Brown");
+        assertEquals(List.of(1L, 3L), index.search(FuzzyNameIndex.query("Smith"), 10));
+        assertEquals(List.of(2L), index.search(FuzzyNameIndex.query("Braun"), 10));
+
+        index.remove(1L);
+        index.remove(1L);
+        index.put(7L, null, null);
+        index.remove(7L);
+        assertEquals(List.of(3L), index.search(FuzzyNameIndex.query("Smith"), 10));
+        assertEquals(4, index.size());
+
+        // A last name that comes back after its last holder left is found again
+        index.put(6L, null, "Smith");
+        assertEquals(List.of(6L, 3L), index.search(FuzzyNameIndex.query("Smith"), 10));
+    }
+
+    @Test
+    public void testQueryDistance() {
+        FuzzyNameIndex.Query query = FuzzyNameIndex.query(" Smyth ");
+        assertEquals(0, query.distance("Jane", "smyth"));
+        assertEquals(1, query.distance("John", "Smith"));
+        assertEquals(-1, query.distance("John", "Brown"));
+        // Short names must match exactly or by sound
+        assertEquals(-1, FuzzyNameIndex.query("Al").distance("Ed", "Ax"));
+        assertEquals(1, FuzzyNameIndex.levenshtein("KITTEN", "SITTEN"));
+        assertEquals(3, FuzzyNameIndex.levenshtein("KITTEN", "SITTING"));
+    }
+}
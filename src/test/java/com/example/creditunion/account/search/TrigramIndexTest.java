@@ -0,0 +1,58 @@
+package com.example.creditunion.account.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new TrigramIndex();
+        index.put(1L, "John", "Doe");
+        index.put(2L, "Jane", "Johnson");
+        index.put(3L, "Al", "Smith");
+    }
+
+    @Test
+    public void testCandidates_MatchesEitherNameIgnoringCase() {
+        assertEquals(Set.of(1L, 2L), index.candidates("ohn"));
+        assertEquals(Set.of(2L), index.candidates("JOHNSON"));
+        assertEquals(Set.of(3L), index.candidates("smi"));
+    }
+
+    @Test
+    public void testCandidates_NoMatch() {
+        assertTrue(index.candidates("xyz").isEmpty());
+    }
+
+    @Test
+    public void testPut_ReplacesPreviousNames() {
+        index.put(1L, "Bob", "Brown");
+
+        assertEquals(Set.of(2L), index.candidates("ohn"));
+        assertEquals(Set.of(1L), index.candidates("rown"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void testRemove() {
+        index.remove(2L);
+
+        assertEquals(Set.of(1L), index.candidates("ohn"));
+        assertTrue(index.candidates("Johnson").isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testCandidates_IgnoresNullNames() {
+        index.put(4L, null, "Doering");
+
+        assertEquals(Set.of(1L, 4L), index.candidates("doe"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.creditunion.account.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountChangeTrackerTest {
+
+    private AccountChangeTracker tracker;
+
+    @BeforeEach
+    public void setup() {
+        AtomicLong sequence = new AtomicLong(10);
+        tracker = new AccountChangeTracker(sequence::incrementAndGet, 10);
+    }
+
+    @Test
+    public void testCommittedUpTo_StopsBelowTheOldestWriteInFlight() {
+        assertEquals(10, tracker.committedUpTo());
+
+        tracker.track(first -> {
+            assertEquals(11, first);
+            assertEquals(10, tracker.committedUpTo());
+            tracker.track(second -> {
+                assertEquals(12, second);
+                // 12 may commit first, but the feed must not pass 11 until it has committed too
+                assertEquals(10, tracker.committedUpTo());
+                return null;
+            });
+            assertEquals(10, tracker.committedUpTo());
+            return null;
+        });
+
+        assertEquals(12, tracker.committedUpTo());
+    }
+
+    @Test
+    public void testTrack_ReleasesTheNumberWhenTheWriteFails() {
+        assertThrows(IllegalStateException.class, () -> tracker.track(changeSeq -> {
+            throw new IllegalStateException("constraint violation");
+        }));
+
+        assertEquals(11, tracker.committedUpTo());
+    }
+}
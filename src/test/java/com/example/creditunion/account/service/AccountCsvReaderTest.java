@@ -0,0 +1,69 @@
+package com.example.creditunion.account.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountCsvReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testNext_ParsesQuotedFieldsAndLineEnds() throws Exception {
+        Path file = write("firstName,lastName,address\r\n"
+                + "Ann,\"O\"\"Hara\",\"1 Main St, Apt 2\"\r\n"
+                + "\"Zoë\",Smith,\"Line one\nLine two\"\n"
+                + "Bob,,\n");
+
+        try (AccountCsvReader reader = new AccountCsvReader(file)) {
+            assertEquals(List.of("firstName", "lastName", "address"), reader.next());
+            assertEquals(List.of("Ann", "O\"Hara", "1 Main St, Apt 2"), reader.next());
+            assertEquals(List.of("Zoë", "Smith", "Line one\nLine two"), reader.next());
+            assertEquals(List.of("Bob", "", ""), reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void testSeek_ContinuesFromARecordBoundary() throws Exception {
+        Path file = write("firstName\nÅsa\nBo\nCy");
+
+        long checkpoint;
+        try (AccountCsvReader reader = new AccountCsvReader(file)) {
+            reader.next();
+            reader.next();
+            checkpoint = reader.position();
+            // Offsets count bytes: "Å" is two bytes in UTF-8
+            assertEquals("firstName\nÅsa\n".getBytes(StandardCharsets.UTF_8).length, checkpoint);
+        }
+        try (AccountCsvReader reader = new AccountCsvReader(file)) {
+            reader.seek(checkpoint);
+            assertEquals(List.of("Bo"), reader.next());
+            assertEquals(List.of("Cy"), reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void testNext_RejectsUnterminatedQuote() throws Exception {
+        Path file = write("firstName\n\"Ann\n");
+
+        try (AccountCsvReader reader = new AccountCsvReader(file)) {
+            reader.next();
+            assertThrows(java.io.IOException.class, reader::next);
+        }
+    }
+
+    private Path write(String content) throws Exception {
+        Path file = directory.resolve("accounts.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
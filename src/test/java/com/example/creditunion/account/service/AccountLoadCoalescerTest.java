@@ -0,0 +1,165 @@
+package com.example.creditunion.account.service;
+
+import com.example.creditunion.account.exception.InternalServerException;
+import com.example.creditunion.account.model.Account;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountLoadCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountLoadCoalescer coalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new AccountLoadCoalescer(meterRegistry, Duration.ofSeconds(5));
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testLoad_ConcurrentCallersShareOneLoad() throws Exception {
+        Account account = account(1L);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Optional<Account>> leader = executor.submit(() -> coalescer.load(1L, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return Optional.of(account);
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        List<Future<Optional<Account>>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> coalescer.load(1L, () -> {
+                loads.incrementAndGet();
+                return Optional.of(account(1L));
+            })));
+        }
+        waitForCount("coalesced", 5);
+        release.countDown();
+
+        assertSame(account, leader.get(5, TimeUnit.SECONDS).orElseThrow());
+        for (Future<Optional<Account>> follower : followers) {
+            assertSame(account, follower.get(5, TimeUnit.SECONDS).orElseThrow());
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1.0, count("leader"));
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    public void testLoad_FailureReachesWaitersAndIsNotCached() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Optional<Account>> leader = executor.submit(() -> coalescer.load(1L, () -> {
+            loading.countDown();
+            await(release);
+            throw new IllegalStateException("database unavailable");
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<Optional<Account>> follower = executor.submit(() -> coalescer.load(1L, Optional::empty));
+        waitForCount("coalesced", 1);
+        release.countDown();
+
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, followerError.getCause());
+        assertEquals(0, coalescer.inFlightCount());
+
+        // The failed load is gone, so the next caller loads again
+        assertEquals(1L, coalescer.load(1L, () -> Optional.of(account(1L))).orElseThrow().getId());
+    }
+
+    @Test
+    public void testLoad_WaiterTimesOut() throws Exception {
+        coalescer = new AccountLoadCoalescer(meterRegistry, Duration.ofMillis(50));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Optional<Account>> leader = executor.submit(() -> coalescer.load(1L, () -> {
+            loading.countDown();
+            await(release);
+            return Optional.of(account(1L));
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        assertThrows(InternalServerException.class, () -> coalescer.load(1L, Optional::empty));
+        assertEquals(1.0, count("timeout"));
+
+        release.countDown();
+        assertTrue(leader.get(5, TimeUnit.SECONDS).isPresent());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    public void testInvalidate_LaterCallersStartAFreshLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Optional<Account>> leader = executor.submit(() -> coalescer.load(1L, () -> {
+            loading.countDown();
+            await(release);
+            return Optional.of(account(1L));
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        coalescer.invalidate(1L);
+        assertTrue(coalescer.load(1L, Optional::empty).isEmpty());
+        assertEquals(2.0, count("leader"));
+
+        release.countDown();
+        assertTrue(leader.get(5, TimeUnit.SECONDS).isPresent());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    private double count(String result) {
+        return meterRegistry.get(AccountLoadCoalescer.LOADS).tag("result", result).counter().count();
+    }
+
+    private void waitForCount(String result, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(result) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, count(result));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Account account(Long id) {
+        Account account = new Account();
+        account.setId(id);
+        return account;
+    }
+}
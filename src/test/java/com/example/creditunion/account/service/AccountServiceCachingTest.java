@@ -0,0 +1,97 @@
+package com.example.creditunion.account.service;
+
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.Optional;
+
+import static com.example.creditunion.account.common.Constants.ACCOUNT_CACHE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+public class AccountServiceCachingTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @SpyBean
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Account account;
+
+    @BeforeEach
+    public void setup() {
+        cacheManager.getCache(ACCOUNT_CACHE).clear();
+        Account details = new Account();
+        details.setFirstName("John");
+        details.setLastName("Doe");
+        details.setAddress("123 Main St");
+        account = accountService.createAccount(details);
+        clearInvocations(accountRepository);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        accountRepository.deleteById(account.getId());
+    }
+
+    @Test
+    public void testGetAccountById_RepeatedReadsHitCache() {
+        assertTrue(accountService.getAccountById(account.getId()).isPresent());
+        assertTrue(accountService.getAccountById(account.getId()).isPresent());
+
+        verify(accountRepository, times(1)).findById(account.getId());
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", ACCOUNT_CACHE).tag("result", "hit")
+                .functionCounter().count() >= 1);
+    }
+
+    @Test
+    public void testUpdateAccount_InvalidatesCachedAccount() {
+        accountService.getAccountById(account.getId());
+
+        Account details = new Account();
+        details.setFirstName("Jane");
+        details.setLastName("Smith");
+        details.setAddress("456 Elm St");
+        accountService.updateAccount(account.getId(), details, null);
+
+        Optional<Account> reread = accountService.getAccountById(account.getId());
+        assertEquals("Jane", reread.get().getFirstName());
+    }
+
+    @Test
+    public void testGetAccountById_CachesMisses() {
+        Long missingId = -1L;
+        assertFalse(accountService.getAccountById(missingId).isPresent());
+        assertFalse(accountService.getAccountById(missingId).isPresent());
+
+        verify(accountRepository, times(1)).findById(missingId);
+    }
+
+    @Test
+    public void testDeleteAccount_InvalidatesCachedAccount() {
+        Account other = new Account();
+        other.setFirstName("Temp");
+        other = accountService.createAccount(other);
+        assertTrue(accountService.getAccountById(other.getId()).isPresent());
+
+        accountService.deleteAccount(other.getId(), null);
+
+        assertFalse(accountService.getAccountById(other.getId()).isPresent());
+    }
+}
@@ -1,29 +1,79 @@
 package com.example.creditunion.account.service;
 
+import com.example.creditunion.account.audit.AccountAuditJournal;
+import com.example.creditunion.account.audit.AuditRecord;
+import com.example.creditunion.account.common.Constants;
+import com.example.creditunion.account.events.AccountChangedEvent;
+import com.example.creditunion.account.exception.PreconditionFailedException;
+import com.example.creditunion.account.metrics.AccountMetrics;
 import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.model.AccountLookupResult;
+import com.example.creditunion.account.model.AccountPage;
 import com.example.creditunion.account.repository.AccountRepository;
+import com.example.creditunion.account.repository.AccountTombstoneRepository;
+import com.example.creditunion.account.search.NameSearchIndex;
+import com.example.creditunion.account.sharding.AccountShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 public class AccountServiceTest {
 
+    private static final long CHANGE_SEQ = 7L;
+
     @InjectMocks
     private AccountService accountService;
 
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private NameSearchIndex nameSearchIndex;
+
+    @Mock
+    private AccountMetrics accountMetrics;
+
+    @Spy
+    private AccountLoadCoalescer accountLoadCoalescer = new AccountLoadCoalescer(new SimpleMeterRegistry(), Duration.ofSeconds(1));
+
+    @Mock
+    private AccountTombstoneRepository accountTombstoneRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AccountAuditJournal accountAuditJournal;
+
+    @Spy
+    private AccountShards accountShards = new AccountShards();
+
+    @Spy
+    private AccountChangeTracker accountChangeTracker = new AccountChangeTracker(() -> CHANGE_SEQ, 0L);
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
@@ -45,6 +95,37 @@ public class AccountServiceTest {
         assertEquals(2, result.size());
         assertEquals("John", result.get(0).getFirstName());
         assertEquals("Jane", result.get(1).getFirstName());
+        verify(accountMetrics, times(1)).recordResultSize("getAllAccounts", 2);
+    }
+
+    @Test
+    public void testGetAccountsPage_HasNext() {
+        Account account1 = new Account();
+        account1.setId(11L);
+        Account account2 = new Account();
+        account2.setId(12L);
+        Account account3 = new Account();
+        account3.setId(13L);
+        when(accountRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(3)))
+                .thenReturn(Arrays.asList(account1, account2, account3));
+
+        AccountPage<Account> page = accountService.getAccountsPage(10L, 2);
+        assertEquals(2, page.getItems().size());
+        assertEquals(12L, page.getNextCursor());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    public void testGetAccountsPage_LastPage() {
+        Account account = new Account();
+        account.setId(1L);
+        when(accountRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3)))
+                .thenReturn(List.of(account));
+
+        AccountPage<Account> page = accountService.getAccountsPage(null, 2);
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+        assertFalse(page.hasNext());
     }
 
     @Test
@@ -60,6 +141,19 @@ public class AccountServiceTest {
         assertEquals("John", result.get().getFirstName());
     }
 
+    @Test
+    public void testGetAccountsByIds_ReportsMissingIds() {
+        Account account1 = new Account();
+        account1.setId(1L);
+        Account account3 = new Account();
+        account3.setId(3L);
+        when(accountRepository.findAllById(List.of(3L, 1L, 2L))).thenReturn(Arrays.asList(account1, account3));
+
+        AccountLookupResult result = accountService.getAccountsByIds(List.of(3L, 1L, 2L, 3L));
+        assertEquals(List.of(account3, account1), result.getAccounts());
+        assertEquals(List.of(2L), result.getMissingIds());
+    }
+
     @Test
     public void testCreateAccount() {
         Account account = new Account();
@@ -71,26 +165,87 @@ public class AccountServiceTest {
         Account result = accountService.createAccount(account);
         assertNotNull(result);
         assertEquals("John", result.getFirstName());
+        assertEquals(CHANGE_SEQ, result.getChangeSeq());
+        verify(nameSearchIndex, times(1)).index(account);
     }
 
     @Test
     public void testUpdateAccount() {
-        Account account = new Account();
-        account.setFirstName("John");
-        account.setLastName("Doe");
-        account.setAddress("123 Main St");
-        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
-
         Account updatedAccountDetails = new Account();
         updatedAccountDetails.setFirstName("Jane");
         updatedAccountDetails.setLastName("Smith");
         updatedAccountDetails.setAddress("456 Elm St");
 
-        when(accountRepository.save(account)).thenReturn(account);
+        when(accountRepository.updateDetails(1L, null, CHANGE_SEQ, "Jane", "Smith", "456 Elm St"))
+                .thenReturn(Optional.of(previous(2L)));
 
-        Account result = accountService.updateAccount(1L, updatedAccountDetails);
+        Account result = accountService.updateAccount(1L, updatedAccountDetails, null);
         assertNotNull(result);
+        assertEquals(1L, result.getId());
         assertEquals("Jane", result.getFirstName());
+        assertEquals(3L, result.getVersion());
+        verify(accountRepository, never()).findById(anyLong());
+        verify(accountRepository, never()).findVersionById(anyLong());
+        verify(nameSearchIndex, times(1)).index(result);
+        verify(accountLoadCoalescer, times(1)).invalidate(1L);
+        verify(eventPublisher, times(1)).publishEvent(argThat((AccountChangedEvent event) ->
+                event.getType() == AccountChangedEvent.Type.UPDATED && event.getChangeSeq() == CHANGE_SEQ));
+    }
+
+    @Test
+    public void testUpdateAccount_AuditsTheReplacedRow() {
+        Account before = previous(2L);
+        Account details = new Account();
+        details.setFirstName("Jane");
+        when(accountRepository.updateDetails(1L, null, CHANGE_SEQ, "Jane", null, null)).thenReturn(Optional.of(before));
+
+        Account result = accountService.updateAccount(1L, details, null);
+        verify(accountAuditJournal, times(1)).record(AuditRecord.Action.UPDATED, 1L, CHANGE_SEQ, before, result);
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    public void testUpdateAccount_ExpectedVersion() {
+        Account updatedAccountDetails = new Account();
+        updatedAccountDetails.setFirstName("Jane");
+        when(accountRepository.updateDetails(1L, 2L, CHANGE_SEQ, "Jane", null, null)).thenReturn(Optional.of(previous(2L)));
+
+        Account result = accountService.updateAccount(1L, updatedAccountDetails, 2L);
+        assertEquals(3L, result.getVersion());
+        verify(accountRepository, never()).findVersionById(anyLong());
+    }
+
+    @Test
+    public void testUpdateAccount_VersionConflict() {
+        Account updatedAccountDetails = new Account();
+        updatedAccountDetails.setFirstName("Jane");
+        when(accountRepository.updateDetails(1L, 2L, CHANGE_SEQ, "Jane", null, null)).thenReturn(Optional.empty());
+        when(accountRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+
+        assertThrows(PreconditionFailedException.class, () -> accountService.updateAccount(1L, updatedAccountDetails, 2L));
+        verify(nameSearchIndex, never()).index(any(Account.class));
+        verify(accountLoadCoalescer, never()).invalidate(anyLong());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    public void testUpdateAccount_AnyVersion() {
+        Account updatedAccountDetails = new Account();
+        updatedAccountDetails.setFirstName("Jane");
+        when(accountRepository.updateDetails(1L, null, CHANGE_SEQ, "Jane", null, null)).thenReturn(Optional.of(previous(5L)));
+
+        assertEquals(6L, accountService.updateAccount(1L, updatedAccountDetails, Constants.ANY_VERSION).getVersion());
+    }
+
+    @Test
+    public void testUpdateAccount_AnyVersionOfAMissingAccount() {
+        Account updatedAccountDetails = new Account();
+        updatedAccountDetails.setFirstName("Jane");
+        when(accountRepository.updateDetails(999L, null, CHANGE_SEQ, "Jane", null, null)).thenReturn(Optional.empty());
+
+        assertThrows(PreconditionFailedException.class,
+                () -> accountService.updateAccount(999L, updatedAccountDetails, Constants.ANY_VERSION));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     @Test
@@ -102,43 +257,162 @@ public class AccountServiceTest {
         updatedAccountDetails.setLastName("Smith");
         updatedAccountDetails.setAddress("456 Elm St");
 
-        when(accountRepository.findById(nonExistentAccountId)).thenReturn(Optional.empty());
+        when(accountRepository.updateDetails(nonExistentAccountId, null, CHANGE_SEQ, "Jane", "Smith", "456 Elm St"))
+                .thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> {
-            accountService.updateAccount(nonExistentAccountId, updatedAccountDetails);
+            accountService.updateAccount(nonExistentAccountId, updatedAccountDetails, null);
         });
 
-        verify(accountRepository, times(1)).findById(nonExistentAccountId);
-        verify(accountRepository, never()).save(any(Account.class));
+        verify(accountRepository, times(1)).updateDetails(nonExistentAccountId, null, CHANGE_SEQ, "Jane", "Smith", "456 Elm St");
+        verify(nameSearchIndex, never()).index(any(Account.class));
+    }
+
+    @Test
+    public void testPatchAccount() {
+        Account changes = new Account();
+        changes.setLastName("Smith");
+        Account before = previous(2L);
+        before.setAddress("123 Main St");
+        when(accountRepository.patchDetails(1L, null, CHANGE_SEQ, null, "Smith", null)).thenReturn(Optional.of(before));
+
+        Account result = accountService.patchAccount(1L, changes, null);
+        assertEquals("John", result.getFirstName());
+        assertEquals("Smith", result.getLastName());
+        assertEquals("123 Main St", result.getAddress());
+        assertEquals(3L, result.getVersion());
+        assertEquals(CHANGE_SEQ, result.getChangeSeq());
+        verify(accountRepository, never()).findById(anyLong());
+        verify(nameSearchIndex, times(1)).index(result);
+        verify(accountAuditJournal, times(1)).record(AuditRecord.Action.UPDATED, 1L, CHANGE_SEQ, before, result);
+    }
+
+    @Test
+    public void testPatchAccount_AccountNotFound() {
+        Account changes = new Account();
+        changes.setLastName("Smith");
+        when(accountRepository.patchDetails(999L, null, CHANGE_SEQ, null, "Smith", null)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> accountService.patchAccount(999L, changes, null));
+
+        verify(accountRepository, never()).findById(anyLong());
+        verify(accountAuditJournal, never()).record(any(), anyLong(), anyLong(), any(), any());
     }
 
     @Test
     public void testDeleteAccount() {
-        Account account = new Account();
-        account.setFirstName("John");
-        account.setLastName("Doe");
-        account.setAddress("123 Main St");
-        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+        Account before = previous(2L);
+        when(accountRepository.deleteRow(1L, null)).thenReturn(Optional.of(before));
+
+        accountService.deleteAccount(1L, null);
+        verify(accountRepository, times(1)).deleteRow(1L, null);
+        verify(accountRepository, never()).findById(anyLong());
+        verify(accountTombstoneRepository, times(1)).save(argThat(tombstone ->
+                tombstone.getAccountId() == 1L && tombstone.getChangeSeq() == CHANGE_SEQ));
+        verify(nameSearchIndex, times(1)).remove(1L);
+        verify(accountLoadCoalescer, times(1)).invalidate(1L);
+        verify(accountAuditJournal, times(1)).record(AuditRecord.Action.DELETED, 1L, CHANGE_SEQ, before, null);
+        verify(eventPublisher, times(1)).publishEvent(argThat((AccountChangedEvent event) ->
+                event.getType() == AccountChangedEvent.Type.DELETED && event.getAccountId() == 1L
+                        && event.getChangeSeq() == CHANGE_SEQ));
+    }
 
-        doNothing().when(accountRepository).delete(account);
+    @Test
+    public void testDeleteAccount_VersionConflict() {
+        when(accountRepository.deleteRow(1L, 2L)).thenReturn(Optional.empty());
+        when(accountRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
 
-        accountService.deleteAccount(1L);
-        verify(accountRepository, times(1)).delete(account);
+        assertThrows(PreconditionFailedException.class, () -> accountService.deleteAccount(1L, 2L));
+        verify(nameSearchIndex, never()).remove(anyLong());
     }
 
     @Test
     public void testDeleteAccount_AccountNotFound() {
         // Arrange
         Long nonExistentAccountId = 999L;
-        when(accountRepository.findById(nonExistentAccountId)).thenReturn(Optional.empty());
+        when(accountRepository.deleteRow(nonExistentAccountId, null)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> {
-            accountService.deleteAccount(nonExistentAccountId);
+            accountService.deleteAccount(nonExistentAccountId, null);
         });
 
-        verify(accountRepository, times(1)).findById(nonExistentAccountId);
-        verify(accountRepository, never()).delete(any(Account.class));
+        verify(accountRepository, times(1)).deleteRow(nonExistentAccountId, null);
+        verify(accountTombstoneRepository, never()).save(any());
+        verify(nameSearchIndex, never()).remove(anyLong());
+    }
+
+    @Test
+    public void testSearchAccountsByName_UsesIndexCandidates() {
+        Account john = new Account();
+        john.setId(2L);
+        john.setFirstName("John");
+        john.setLastName("Doe");
+        Account falsePositive = new Account();
+        falsePositive.setId(1L);
+        falsePositive.setFirstName("Ohnesorg");
+        falsePositive.setLastName("Jo");
+        when(nameSearchIndex.candidates("john")).thenReturn(Optional.of(Set.of(1L, 2L)));
+        when(accountRepository.findAllById(anyList())).thenReturn(Arrays.asList(john, falsePositive));
+
+        List<Account> result = accountService.searchAccountsByName("john");
+        assertEquals(1, result.size());
+        assertEquals("John", result.get(0).getFirstName());
+        verify(accountRepository, never())
+                .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(anyString(), anyString());
+    }
+
+    @Test
+    public void testSearchAccountsByName_FallsBackToQueryWhenIndexCannotAnswer() {
+        Account account = new Account();
+        account.setFirstName("Al");
+        when(nameSearchIndex.candidates("al")).thenReturn(Optional.empty());
+        when(accountRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase("al", "al"))
+                .thenReturn(List.of(account));
+
+        List<Account> result = accountService.searchAccountsByName("al");
+        assertEquals(1, result.size());
+        verify(accountRepository, never()).findAllById(anyList());
+    }
+
+    @Test
+    public void testSearchAccountsByNameFuzzy_RanksIndexMatchesAndDropsStaleOnes() {
+        Account smyth = account(1L, "Jane", "Smyth");
+        Account smith = account(2L, "John", "Smith");
+        Account renamed = account(3L, "Al", "Brown");
+        when(nameSearchIndex.fuzzyMatches(any(), eq(3))).thenReturn(Optional.of(List.of(2L, 1L, 3L)));
+        when(accountRepository.findAllById(anyList())).thenReturn(Arrays.asList(smyth, renamed, smith));
+
+        List<Account> result = accountService.searchAccountsByNameFuzzy("smith", 3);
+        assertEquals(List.of(smith, smyth), result);
+        verify(accountRepository, never()).findAll();
+    }
+
+    @Test
+    public void testSearchAccountsByNameFuzzy_RanksEveryAccountBeforeTheIndexIsBuilt() {
+        Account smyth = account(1L, "Jane", "Smyth");
+        Account smith = account(2L, "John", "Smith");
+        Account schmidt = account(3L, "Kate", "Schmidt");
+        when(nameSearchIndex.fuzzyMatches(any(), eq(2))).thenReturn(Optional.empty());
+        when(accountRepository.findAll()).thenReturn(Arrays.asList(schmidt, smyth, account(4L, "Al", "Brown"), smith));
+
+        assertEquals(List.of(smith, smyth), accountService.searchAccountsByNameFuzzy("Smith", 2));
+        verify(accountRepository, never()).findAllById(anyList());
+    }
+
+    private static Account account(Long id, String firstName, String lastName) {
+        Account account = new Account();
+        account.setId(id);
+        account.setFirstName(firstName);
+        account.setLastName(lastName);
+        return account;
+    }
+
+    // The row an update replaced, as the write statement returns it
+    private static Account previous(Long version) {
+        Account account = account(1L, "John", "Doe");
+        account.setVersion(version);
+        return account;
     }
 }
@@ -0,0 +1,168 @@
+package com.example.creditunion.account.sharding;
+
+import com.example.creditunion.account.exception.NotSupportedException;
+import com.example.creditunion.account.model.Account;
+import com.example.creditunion.account.model.AccountChange;
+import com.example.creditunion.account.model.AccountChangePage;
+import com.example.creditunion.account.model.AccountLookupResult;
+import com.example.creditunion.account.model.AccountPage;
+import com.example.creditunion.account.service.AccountBatchService;
+import com.example.creditunion.account.service.AccountChangeService;
+import com.example.creditunion.account.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Three in-memory H2 databases as shards; shard 0 is spring.datasource
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "creditunion.sharding.enabled=true",
+        "creditunion.sharding.shard-urls[0]=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "creditunion.sharding.shard-urls[1]=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1",
+        "spring.cache.type=none"
+})
+public class ShardedStorageTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountChangeService accountChangeService;
+
+    @Autowired
+    private AccountBatchService accountBatchService;
+
+    @Autowired
+    private AccountShards accountShards;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private final List<JdbcTemplate> shards = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        shards.clear();
+        for (int shard = 0; shard < 3; shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(applicationContext.getBean("shard" + shard + "DataSource", DataSource.class));
+            jdbcTemplate.update("delete from account");
+            jdbcTemplate.update("delete from account_tombstone");
+            shards.add(jdbcTemplate);
+        }
+    }
+
+    @Test
+    public void testAccountsAreSpreadByIdAndWrittenOnTheirShard() {
+        assertEquals(3, accountShards.count());
+        List<Long> ids = createAccounts("Ada", "Grace", "Alan", "Edsger", "Barbara", "Donald");
+
+        for (Long id : ids) {
+            int shard = accountShards.shardOf(id);
+            for (int other = 0; other < shards.size(); other++) {
+                assertEquals(other == shard ? 1 : 0, rowsWithId(other, id), "account " + id + " on shard " + other);
+            }
+        }
+        // Consecutive ids from the global sequence use every shard
+        assertEquals(3, ids.stream().map(accountShards::shardOf).distinct().count());
+
+        Long id = ids.get(0);
+        Account details = account("Augusta");
+        Account updated = accountService.updateAccount(id, details, null);
+        assertEquals(1L, updated.getVersion());
+        assertEquals("Augusta", accountService.getAccountById(id).orElseThrow().getFirstName());
+        assertEquals(1L, accountService.getAccountVersion(id).orElseThrow());
+
+        accountService.deleteAccount(id, 1L);
+        assertTrue(accountService.getAccountById(id).isEmpty());
+        Integer tombstones = shards.get(accountShards.shardOf(id)).queryForObject(
+                "select count(*) from account_tombstone where account_id = ?", Integer.class, id);
+        assertEquals(1, tombstones);
+    }
+
+    @Test
+    public void testReadsFanOutAndMergeInIdOrder() {
+        List<Long> ids = createAccounts("Ada", "Grace", "Alan", "Edsger", "Barbara", "Donald");
+
+        assertEquals(ids, accountService.getAllAccounts().stream().map(Account::getId).toList());
+
+        List<Long> paged = new ArrayList<>();
+        Long cursor = null;
+        do {
+            AccountPage<Account> page = accountService.getAccountsPage(cursor, 4);
+            page.getItems().forEach(account -> paged.add(account.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(ids, paged);
+
+        // Every name but Edsger contains an "a"
+        assertEquals(List.of(ids.get(0), ids.get(1), ids.get(2), ids.get(4), ids.get(5)),
+                accountService.searchAccountsByName("a").stream().map(Account::getId).toList());
+        // Long enough for the trigram index, whose candidates are read from their shards
+        assertEquals(List.of(ids.get(4)),
+                accountService.searchAccountsByName("barb").stream().map(Account::getId).toList());
+
+        // Prefix matches are merged in name order and cut to the limit
+        assertEquals(List.of(ids.get(0), ids.get(2)),
+                accountService.searchAccountsByFirstNamePrefix("a", 10).stream().map(Account::getId).toList());
+        assertEquals(List.of(ids.get(4)),
+                accountService.searchAccountsByFirstNamePrefix("b", 1).stream().map(Account::getId).toList());
+        // Equal names fall back to id order
+        assertEquals(List.of(ids.get(0), ids.get(1)),
+                accountService.searchAccountsByLastNamePrefix("smi", 2).stream().map(Account::getId).toList());
+
+        AccountLookupResult lookup = accountService.getAccountsByIds(List.of(ids.get(5), -1L, ids.get(3)));
+        assertEquals(List.of(ids.get(5), ids.get(3)), lookup.getAccounts().stream().map(Account::getId).toList());
+        assertEquals(List.of(-1L), lookup.getMissingIds());
+    }
+
+    @Test
+    public void testChangeFeedMergesShardsInChangeOrder() {
+        List<Long> ids = createAccounts("Ada", "Grace", "Alan", "Edsger", "Barbara");
+        accountService.deleteAccount(ids.get(1), null);
+
+        List<Long> changed = new ArrayList<>();
+        String token = null;
+        AccountChangePage page;
+        do {
+            page = accountChangeService.getChanges(token, 2);
+            page.getChanges().stream().map(AccountChange::getId).forEach(changed::add);
+            token = page.getNextToken();
+        } while (page.isHasMore());
+        // The delete is the latest change
+        assertEquals(List.of(ids.get(0), ids.get(2), ids.get(3), ids.get(4), ids.get(1)), changed);
+    }
+
+    @Test
+    public void testBatchWritesAreRejected() {
+        assertThrows(NotSupportedException.class, () -> accountBatchService.saveAll(List.of(account("Ada"))));
+    }
+
+    private List<Long> createAccounts(String... firstNames) {
+        List<Long> ids = new ArrayList<>();
+        for (String firstName : firstNames) {
+            ids.add(accountService.createAccount(account(firstName)).getId());
+        }
+        return ids;
+    }
+
+    private int rowsWithId(int shard, Long id) {
+        return shards.get(shard).queryForObject("select count(*) from account where id = ?", Integer.class, id);
+    }
+
+    private static Account account(String firstName) {
+        Account account = new Account();
+        account.setFirstName(firstName);
+        account.setLastName("Smith");
+        account.setAddress("1 High St");
+        return account;
+    }
+}